@@ -0,0 +1,65 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.benchmark;
+
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.client.schema.ZuoraDefinitions;
+import io.cdap.plugin.zuora.client.schema.ZuoraObjectSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Cold start cost of the first client construction. Every fork is a fresh JVM, so each measurement includes
+ * class loading and creation of the shared connection pool.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ClientStartupBenchmark {
+  private static final String ENDPOINT = "http://localhost:1";
+
+  /**
+   * Client construction, XML binding context is created on the first describe API response.
+   */
+  @Benchmark
+  public ZuoraRestClient construct() throws IOException {
+    try (ZuoraRestClient client = new ZuoraRestClient(ENDPOINT, "user", "password", true)) {
+      return client;
+    }
+  }
+
+  /**
+   * Previous behaviour, every constructed client created own XML binding context.
+   */
+  @Benchmark
+  public Unmarshaller constructWithContext() throws IOException, JAXBException {
+    try (ZuoraRestClient client = new ZuoraRestClient(ENDPOINT, "user", "password", true)) {
+      return JAXBContext.newInstance(ZuoraDefinitions.class, ZuoraObjectSchema.class).createUnmarshaller();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.benchmark;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.RestObjectsConfig;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ObjectInfo;
+import io.cdap.plugin.zuora.restobjects.ObjectRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start cost of the first object definition lookup. Every fork is a fresh JVM, so each measurement
+ * includes class loading of the object definitions.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ObjectHelperStartupBenchmark {
+
+  /**
+   * Lookup backed by the generated objects registry, only requested object is resolved.
+   */
+  @Benchmark
+  public ObjectInfo registryLookup() {
+    return ObjectHelper.getObjectInfo("Products");
+  }
+
+  /**
+   * Schema json of the object, as requested to configure splits, read from the precomputed registry schema.
+   */
+  @Benchmark
+  public String registrySchemaJson() {
+    return ObjectHelper.getObjectSchema("Products", null).getJson();
+  }
+
+  /**
+   * Parsed schema of the object, as requested to configure the pipeline.
+   */
+  @Benchmark
+  public Schema registrySchema() {
+    return ObjectHelper.buildSchema("Products", null);
+  }
+
+  /**
+   * Previous behaviour, all object classes are loaded and their annotations are scanned.
+   */
+  @Benchmark
+  public List<ObjectInfo> reflectiveScan() {
+    return ObjectRegistry.scan(RestObjectsConfig.getObjectClasses());
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import io.cdap.plugin.zuora.client.JsonResponseDecoder;
+import io.cdap.plugin.zuora.objects.CreditMemoTypewithSuccess;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Decoding of the single CreditMemos page, buffered into String and parsed three times compared to
+ * the streaming decoding. Run with {@code -prof gc} to compare allocations per page.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PageDecodeBenchmark {
+  private static final Gson GSON = new Gson();
+  private static final String ROOT_ELEMENT = "creditmemos";
+  private static final Type RESULT_TYPE = new TypeToken<BaseResult<CreditMemoTypewithSuccess>>() { }.getType();
+  private static final String RECORD_JSON = "{\"accountId\": \"402890555b797b57015b7986fc1a001c\", " +
+    "\"amount\": 9, \"appliedAmount\": 0, \"autoApplyUponPosting\": false, \"comment\": \"the comment\", " +
+    "\"createdById\": \"402881e522cf4f9b0122cf5d82860002\", \"createdDate\": \"2017-11-30 01:13:15\", " +
+    "\"creditMemoDate\": \"2017-11-30\", \"currency\": \"USD\", \"excludeFromAutoApplyRules\": false, " +
+    "\"id\": \"402890555b797b57015b7986fc1a001c\", \"number\": \"CM00000001\", \"reasonCode\": \"Correcting " +
+    "invoice error\", \"refundAmount\": 0, \"source\": \"AdhocFromPrpc\", \"status\": \"Draft\", " +
+    "\"targetDate\": null, \"taxAmount\": 0, \"totalTaxExemptAmount\": 0, \"unappliedAmount\": 9, " +
+    "\"updatedById\": \"402881e522cf4f9b0122cf5d82860002\", \"updatedDate\": \"2017-11-30 01:13:15\"}";
+
+  @Param({"2000"})
+  private int pageSize;
+
+  private byte[] page;
+
+  @Setup
+  public void setUp() {
+    StringBuilder builder = new StringBuilder("{\"").append(ROOT_ELEMENT).append("\": [");
+    for (int i = 0; i < pageSize; i++) {
+      builder.append((i == 0) ? "" : ", ").append(RECORD_JSON);
+    }
+    builder.append("], \"nextPage\": \"/v1/creditmemos?page=2&pageSize=").append(pageSize)
+      .append("\", \"success\": true}");
+    page = builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private Reader openPage() {
+    return new InputStreamReader(new ByteArrayInputStream(page), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Previous behaviour: body joined into String, root element renamed on the Json tree and tree
+   * serialized back to be parsed once more.
+   */
+  @Benchmark
+  public BaseResult<BaseObject> bufferedPage() throws IOException {
+    String data;
+    try (Reader reader = openPage()) {
+      data = new BufferedReader(reader).lines().collect(Collectors.joining());
+    }
+    JsonObject object = new JsonParser().parse(data).getAsJsonObject();
+    JsonElement mainJson = object.get(ROOT_ELEMENT);
+    object.remove(ROOT_ELEMENT);
+    object.add("result", mainJson);
+    return GSON.fromJson(object.toString(), RESULT_TYPE);
+  }
+
+  /**
+   * Records bound directly from the response stream.
+   */
+  @Benchmark
+  public BaseResult<BaseObject> streamedPage() throws IOException {
+    try (Reader reader = openPage()) {
+      return JsonResponseDecoder.decode(reader, ROOT_ELEMENT, CreditMemoTypewithSuccess.class);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.benchmark;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.client.ZuoraApiSimulator;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.objects.ProductType;
+import io.cdap.plugin.zuora.plugin.batch.source.PageIterator;
+import io.cdap.plugin.zuora.plugin.batch.source.ZuoraSourceTransformer;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ObjectInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to read and transform all records of the object with the {@link PageIterator} of the batch source from
+ * the local {@link ZuoraApiSimulator}. With prefetching, round trips of the next pages overlap with the transform
+ * of the current one, so the gain grows with the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PageIteratorBenchmark {
+  private static final int RECORDS = 2000;
+  private static final int PAGE_SIZE = 40;
+
+  @Param({"0", "1", "4"})
+  private int prefetchPages;
+
+  @Param({"0", "20"})
+  private long latencyMillis;
+
+  private ZuoraApiSimulator simulator;
+  private ZuoraRestClient client;
+  private ObjectInfo objectInfo;
+  private Schema schema;
+
+  @Setup
+  public void setUp() throws IOException {
+    simulator = new ZuoraApiSimulator()
+      .setRecords("Products", RECORDS)
+      .setPageSize(PAGE_SIZE)
+      .setLatency(latencyMillis, TimeUnit.MILLISECONDS);
+    client = new ZuoraRestClient(simulator.getEndpoint(), "user", "password", true);
+    objectInfo = ObjectHelper.getObjectInfo(ProductType.class);
+    schema = ObjectHelper.buildSchema(objectInfo.getCdapObjectName(), null);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    simulator.close();
+  }
+
+  /**
+   * Object collection, {@value #PAGE_SIZE} records per page.
+   */
+  @Benchmark
+  public int readRecords(Blackhole blackhole) throws IOException {
+    int count = 0;
+    try (PageIterator iterator = new PageIterator(client, objectInfo, Collections.emptyMap(), prefetchPages)) {
+      while (iterator.hasNext()) {
+        blackhole.consume(ZuoraSourceTransformer.transform(iterator.next(), schema));
+        count++;
+      }
+    }
+    return count;
+  }
+}
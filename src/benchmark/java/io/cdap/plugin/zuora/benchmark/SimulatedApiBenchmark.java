@@ -0,0 +1,115 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.benchmark;
+
+import io.cdap.plugin.zuora.client.PageCursor;
+import io.cdap.plugin.zuora.client.ZuoraApiSimulator;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.objects.ProductType;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ZoqlQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to read all records of the object through the REST client from the local {@link ZuoraApiSimulator}, so
+ * paging and decoding costs are measured without a tenant. Non-zero latency shows share of the round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SimulatedApiBenchmark {
+  private static final int RECORDS = 2000;
+  private static final int PAGE_SIZE = 40;
+  private static final ZoqlQuery QUERY = ZoqlQuery.parse("select Id, Name, CreatedDate, UpdatedDate from Account");
+
+  @Param({"0", "20"})
+  private long latencyMillis;
+
+  @Param({"false", "true"})
+  private boolean compression;
+
+  private ZuoraApiSimulator simulator;
+  private ZuoraRestClient client;
+
+  @Setup
+  public void setUp() throws IOException {
+    simulator = new ZuoraApiSimulator()
+      .setRecords("Products", RECORDS)
+      .setPageSize(PAGE_SIZE)
+      .setQueryRecords("Account", RECORDS)
+      .setLatency(latencyMillis, TimeUnit.MILLISECONDS)
+      .setResponseCompression(compression);
+    client = new ZuoraRestClient(simulator.getEndpoint(), "user", "password", true);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    simulator.close();
+  }
+
+  /**
+   * Object collection, {@value #PAGE_SIZE} records per page.
+   */
+  @Benchmark
+  public int readPages() throws IOException {
+    int count = 0;
+    PageCursor cursor = client.openObject(ObjectHelper.getObjectInfo(ProductType.class), Collections.emptyMap());
+    while (cursor != null) {
+      try (PageCursor page = cursor) {
+        while (page.hasNext()) {
+          page.next();
+          count++;
+        }
+        cursor = client.openNextPage(page.getPage());
+      }
+    }
+    return count;
+  }
+
+  /**
+   * ZOQL query, all records are returned by the single batch.
+   */
+  @Benchmark
+  public int readQuery() throws IOException {
+    int count = 0;
+    try (PageCursor cursor = client.openQuery(QUERY)) {
+      while (cursor.hasNext()) {
+        cursor.next();
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.benchmark;
+
+import com.google.gson.Gson;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.plugin.batch.sink.ZuoraSinkConfig;
+import io.cdap.plugin.zuora.plugin.batch.sink.ZuoraSinkTransformer;
+import io.cdap.plugin.zuora.restobjects.SendObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per second converted by the batch sink to the objects sent to the API. Depending on the write mode,
+ * record provides JSON body and request arguments of the object, or is formatted as CSV row of the import file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SinkTransformerBenchmark {
+  private static final Gson GSON = new Gson();
+  private static final Schema SCHEMA = Schema.recordOf(
+    "usage",
+    Schema.Field.of("body", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("Request", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("ACCOUNT_ID", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("UOM", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("QTY", Schema.of(Schema.Type.DOUBLE)),
+    Schema.Field.of("STARTDATE", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("DESCRIPTION", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+
+  @Param({"records", "usageImport", "objectImport"})
+  private String writeMode;
+
+  private ZuoraSinkConfig config;
+  private StructuredRecord record;
+
+  @Setup
+  public void setUp() {
+    config = GSON.fromJson(String.format("{\"writeMode\": \"%s\", \"objectName\": \"POSTAccountResponseType\", " +
+                                           "\"bodyColumnName\": \"body\", \"requestArgumentsSource\": \"input\", " +
+                                           "\"requestArguments\": \"Request:input\", \"importType\": \"Usage\"}",
+                                         writeMode), ZuoraSinkConfig.class);
+    record = StructuredRecord.builder(SCHEMA)
+      .set("body", "{\"name\": \"Acme\", \"currency\": \"USD\", \"billCycleDay\": 1, \"autoPay\": false}")
+      .set("Request", "request")
+      .set("ACCOUNT_ID", "A00000001")
+      .set("UOM", "Each")
+      .set("QTY", 12.5d)
+      .set("STARTDATE", "2019-01-31")
+      .set("DESCRIPTION", "Usage for January, \"overage\"")
+      .build();
+  }
+
+  @Benchmark
+  public SendObject transform() {
+    return ZuoraSinkTransformer.transform(config, record);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.benchmark;
+
+import com.google.gson.Gson;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.objects.CreditMemoTypewithSuccess;
+import io.cdap.plugin.zuora.plugin.batch.source.ZuoraSourceTransformer;
+import io.cdap.plugin.zuora.plugin.batch.source.ZuoraSplitArgument;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per second emitted by the batch source transform, when output schema is parsed for every record
+ * compared to the schema resolved once per split.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SourceSchemaBenchmark {
+  private static final Gson GSON = new Gson();
+  private static final String OBJECT_NAME = "CreditMemos";
+  private static final String RECORD_JSON = "{\"accountId\": \"402890555b797b57015b7986fc1a001c\", " +
+    "\"amount\": 9, \"appliedAmount\": 0, \"autoApplyUponPosting\": false, \"comment\": \"the comment\", " +
+    "\"createdById\": \"402881e522cf4f9b0122cf5d82860002\", \"createdDate\": \"2017-11-30 01:13:15\", " +
+    "\"creditMemoDate\": \"2017-11-30\", \"currency\": \"USD\", \"excludeFromAutoApplyRules\": false, " +
+    "\"id\": \"402890555b797b57015b7986fc1a001c\", \"number\": \"CM00000001\", \"reasonCode\": \"Correcting " +
+    "invoice error\", \"refundAmount\": 0, \"source\": \"AdhocFromPrpc\", \"status\": \"Draft\", " +
+    "\"targetDate\": null, \"taxAmount\": 0, \"totalTaxExemptAmount\": 0, \"unappliedAmount\": 9, " +
+    "\"updatedById\": \"402881e522cf4f9b0122cf5d82860002\", \"updatedDate\": \"2017-11-30 01:13:15\"}";
+
+  private ZuoraSplitArgument splitArgument;
+
+  @Setup
+  public void setUp() {
+    splitArgument = new ZuoraSplitArgument(OBJECT_NAME, ObjectHelper.buildSchema(OBJECT_NAME, null).toString());
+  }
+
+  /**
+   * Previous behaviour, schema json parsed for every emitted record.
+   */
+  @Benchmark
+  public StructuredRecord parsePerRecord() throws IOException {
+    Schema schema = Schema.parseJson(splitArgument.getObjectSchema());
+    return ZuoraSourceTransformer.transform(GSON.fromJson(RECORD_JSON, CreditMemoTypewithSuccess.class), schema);
+  }
+
+  /**
+   * Schema resolved once per split and shared by all records.
+   */
+  @Benchmark
+  public StructuredRecord cachedSchema() throws IOException {
+    return ZuoraSourceTransformer.transform(GSON.fromJson(RECORD_JSON, CreditMemoTypewithSuccess.class),
+                                            splitArgument.getSchema());
+  }
+}
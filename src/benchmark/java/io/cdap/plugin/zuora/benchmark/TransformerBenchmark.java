@@ -0,0 +1,150 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.plugin.batch.source.ZuoraSourceTransformer;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.EmptyObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records per second produced by the source transform with the converter compiled for the object class and
+ * schema, compared to the previous conversion through the filtered object map. Objects range from the small nested
+ * one with 5 fields to the wide one with 81 fields. Objects are deserialized on every invocation, as their field maps
+ * are built only once, {@link #deserialize()} measures this share of the cost.
+ * Allocation per record is reported with {@code -Djmh.args="TransformerBenchmark -prof gc"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransformerBenchmark {
+  private static final Gson GSON = new Gson();
+  private static final String ACCOUNT_JSON = "{\"accountNumber\": \"A00000001\", \"allowInvoiceEdit\": false, " +
+    "\"autoPay\": true, \"balance\": \"120.5\", \"batch\": \"Batch1\", \"billCycleDay\": 1, " +
+    "\"billToId\": \"2c93808457d787030157e031fcd34e19\", \"createdById\": \"2c93808457d787030157e031fcd34e19\", " +
+    "\"createdDate\": \"2017-11-30T01:13:15\", \"creditBalance\": \"0\", \"currency\": \"USD\", " +
+    "\"defaultPaymentMethodId\": \"2c93808457d787030157e031fd404e1e\", " +
+    "\"id\": \"2c93808457d787030157e031fcd34e18\", \"invoiceDeliveryPrefsEmail\": true, " +
+    "\"invoiceDeliveryPrefsPrint\": false, \"name\": \"Acme\", \"paymentTerm\": \"Net 30\", " +
+    "\"soldToId\": \"2c93808457d787030157e031fcd34e19\", \"status\": \"Active\", " +
+    "\"totalInvoiceBalance\": \"120.5\", \"updatedById\": \"2c93808457d787030157e031fcd34e19\", " +
+    "\"updatedDate\": \"2017-11-30T01:13:15\"}";
+  private static final String FEATURE_JSON = "{\"code\": \"F-1\", \"description\": \"Feature\", " +
+    "\"id\": \"2c93808457d787030157e031fcd34e20\", \"name\": \"Reporting\", \"status\": \"Active\"}";
+  private static final String PAYMENT_METHOD_JSON = "{\"accountId\": \"2c93808457d787030157e031fcd34e18\", " +
+    "\"active\": true, \"city\": \"Redwood City\", \"country\": \"United States\", " +
+    "\"createdById\": \"2c93808457d787030157e031fcd34e19\", \"createdDate\": \"2017-11-30T01:13:15\", " +
+    "\"creditCardExpirationMonth\": 12, \"creditCardExpirationYear\": 2025, \"creditCardHolderName\": \"John Doe\", " +
+    "\"creditCardMaskNumber\": \"************1111\", \"creditCardType\": \"Visa\", \"email\": \"john@acme.com\", " +
+    "\"firstName\": \"John\", \"id\": \"2c93808457d787030157e031fd404e1e\", \"lastName\": \"Doe\", " +
+    "\"numConsecutiveFailures\": 0, \"paymentMethodStatus\": \"Active\", \"postalCode\": \"94063\", " +
+    "\"state\": \"California\", \"totalNumberOfProcessedPayments\": 3, \"type\": \"CreditCard\", " +
+    "\"updatedById\": \"2c93808457d787030157e031fcd34e19\", \"updatedDate\": \"2017-11-30T01:13:15\"}";
+
+  private static final Map<String, String> OBJECTS_JSON = ImmutableMap.of(
+    "ProductFeatureType", FEATURE_JSON,
+    "ProxyGetAccount", ACCOUNT_JSON,
+    "SubscribeRequestPaymentMethodItem", PAYMENT_METHOD_JSON);
+
+  @Param({"ProductFeatureType", "ProxyGetAccount", "SubscribeRequestPaymentMethodItem"})
+  private String objectName;
+
+  private Class<? extends BaseObject> objectClass;
+  private String json;
+  private Schema schema;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    objectClass = ObjectHelper.getObjectInfo(objectName).getObjectClass();
+    json = OBJECTS_JSON.get(objectName);
+    schema = ObjectHelper.buildSchema(objectName, null);
+  }
+
+  /**
+   * Object deserialization only, shared by both conversions.
+   */
+  @Benchmark
+  public BaseObject deserialize() {
+    return GSON.fromJson(json, objectClass);
+  }
+
+  /**
+   * Converter compiled once for the object class and schema.
+   */
+  @Benchmark
+  public StructuredRecord compiledConverter() {
+    return ZuoraSourceTransformer.transform(GSON.fromJson(json, objectClass), schema);
+  }
+
+  /**
+   * Previous behaviour, object map and filtered map built for every object, every field looked up in the schema.
+   */
+  @Benchmark
+  public StructuredRecord filteredMap() {
+    return transform(GSON.fromJson(json, objectClass), schema);
+  }
+
+  private static StructuredRecord transform(BaseObject object, Schema schema) {
+    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+    object.asFilteredMap(schema).forEach((k, v) -> transformValue(k, v, schema, builder));
+    return builder.build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void transformValue(String k, Object v, Schema schema, StructuredRecord.Builder builder) {
+    if (v instanceof Map) {
+      Schema mapSchema = Objects.requireNonNull(schema.getField(k)).getSchema();
+      builder.set(k, ZuoraSourceTransformer.transform((Map<String, Object>) v, mapSchema));
+    } else if (v instanceof EmptyObject) {
+      // no-op
+    } else if (v instanceof BaseObject) {
+      Schema mapSchema = Objects.requireNonNull(schema.getField(k)).getSchema();
+      builder.set(k, transform((BaseObject) v, mapSchema));
+    } else if (v instanceof List) {
+      Schema componentSchema = Objects.requireNonNull(schema.getField(k)).getSchema().getComponentSchema();
+      builder.set(k, ((List) v).stream()
+        .map(item -> ZuoraSourceTransformer.transform((Map<String, Object>) item, componentSchema))
+        .collect(Collectors.toList()));
+    } else {
+      builder.set(k, v);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import javax.annotation.Nullable;
+
+/**
+ * Opened API response, body is read directly from the connection until the response is closed
+ */
+class ApiResponse implements Closeable {
+  private final CloseableHttpResponse response;
+  private final Reader reader;
+
+  /**
+   * @param response http response holding the connection, {@code null} if body is already buffered
+   * @param reader response body
+   */
+  ApiResponse(@Nullable CloseableHttpResponse response, Reader reader) {
+    this.response = response;
+    this.reader = reader;
+  }
+
+  Reader getReader() {
+    return reader;
+  }
+
+  /**
+   * Closes the response without reading the rest of the body, underlying connection is not reused.
+   */
+  void abort() throws IOException {
+    if (response != null) {
+      response.close();
+    }
+    try {
+      reader.close();
+    } catch (IOException e) {
+      // no-op, connection is already dropped
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      reader.close();
+    } finally {
+      if (response != null) {
+        response.close();
+      }
+    }
+  }
+}
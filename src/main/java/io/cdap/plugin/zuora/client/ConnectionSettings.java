@@ -0,0 +1,80 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import java.util.Objects;
+
+/**
+ * Settings of the HTTP connections pool, shared by the clients of the same tenant
+ */
+public class ConnectionSettings {
+  public static final int DEFAULT_MAX_CONNECTIONS = 32;
+  public static final int DEFAULT_KEEP_ALIVE_SECONDS = 60;
+  public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 30;
+
+  private final int maxConnections;
+  private final int keepAliveSeconds;
+  private final int idleTimeoutSeconds;
+
+  /**
+   * @param maxConnections maximum number of the connections to the API endpoint
+   * @param keepAliveSeconds time to keep the connection open, if the API does not limit it
+   * @param idleTimeoutSeconds time after which unused connection is closed
+   */
+  public ConnectionSettings(int maxConnections, int keepAliveSeconds, int idleTimeoutSeconds) {
+    if (maxConnections < 1 || keepAliveSeconds < 1 || idleTimeoutSeconds < 1) {
+      throw new IllegalArgumentException("Connection settings should be positive");
+    }
+    this.maxConnections = maxConnections;
+    this.keepAliveSeconds = keepAliveSeconds;
+    this.idleTimeoutSeconds = idleTimeoutSeconds;
+  }
+
+  public static ConnectionSettings getDefault() {
+    return new ConnectionSettings(DEFAULT_MAX_CONNECTIONS, DEFAULT_KEEP_ALIVE_SECONDS, DEFAULT_IDLE_TIMEOUT_SECONDS);
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public int getKeepAliveSeconds() {
+    return keepAliveSeconds;
+  }
+
+  public int getIdleTimeoutSeconds() {
+    return idleTimeoutSeconds;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ConnectionSettings that = (ConnectionSettings) o;
+    return maxConnections == that.maxConnections
+      && keepAliveSeconds == that.keepAliveSeconds
+      && idleTimeoutSeconds == that.idleTimeoutSeconds;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxConnections, keepAliveSeconds, idleTimeoutSeconds);
+  }
+}
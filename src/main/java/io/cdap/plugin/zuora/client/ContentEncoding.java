@@ -0,0 +1,170 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression of the request and response bodies.
+ *
+ * Automatic decompression of the HTTP client is disabled, so bodies are decompressed here while they are read,
+ * which allows to account both transferred and decompressed bytes in {@link TransferMetrics}.
+ */
+final class ContentEncoding {
+  private static final Logger LOG = LoggerFactory.getLogger(ContentEncoding.class);
+
+  static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+  static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+  // compression of smaller bodies does not pay off
+  static final int MIN_COMPRESSED_BODY_SIZE = 1024;
+  private static final int BUFFER_SIZE = 8192;
+
+  private ContentEncoding() {
+  }
+
+  /**
+   * Creates request body, compressed with gzip if requested and body is large enough
+   */
+  static HttpEntity encode(String body, boolean compress, TransferMetrics metrics) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    if (!compress || bytes.length < MIN_COMPRESSED_BODY_SIZE) {
+      metrics.recordRequest(false, bytes.length, bytes.length);
+      return new ByteArrayEntity(bytes, ContentType.APPLICATION_JSON);
+    }
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+    try (GZIPOutputStream stream = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+      stream.write(bytes);
+    }
+    metrics.recordRequest(true, bytes.length, compressed.size());
+
+    ByteArrayEntity entity = new ByteArrayEntity(compressed.toByteArray(), ContentType.APPLICATION_JSON);
+    entity.setContentEncoding("gzip");
+    return entity;
+  }
+
+  /**
+   * Opens response body, decompressed according to its {@code Content-Encoding}. Body size is accounted in the
+   * metrics once the returned stream is closed.
+   *
+   * @param uri requested uri, used for logging
+   */
+  static InputStream decode(HttpEntity entity, TransferMetrics metrics, String uri) throws IOException {
+    Header header = entity.getContentEncoding();
+    String encoding = (header == null) ? "" : header.getValue().trim().toLowerCase(Locale.ROOT);
+
+    CountingInputStream transferred = new CountingInputStream(entity.getContent());
+    InputStream body;
+    try {
+      switch (encoding) {
+        case "":
+        case "identity":
+          body = transferred;
+          break;
+        case "gzip":
+        case "x-gzip":
+          body = new GZIPInputStream(transferred, BUFFER_SIZE);
+          break;
+        case "deflate":
+          body = new DeflateInputStream(transferred);
+          break;
+        default:
+          throw new IOException(String.format("Unsupported encoding '%s' of the response from '%s'", encoding, uri));
+      }
+    } catch (IOException | RuntimeException e) {
+      transferred.close();
+      throw e;
+    }
+
+    boolean compressed = body != transferred;
+    return new CountingInputStream(body) {
+      private boolean closed = false;
+
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          if (!closed) {
+            closed = true;
+            metrics.recordResponse(compressed, getCount(), transferred.getCount());
+            LOG.debug("Read {} bytes of the response from '{}', {} bytes transferred", getCount(), uri,
+                      transferred.getCount());
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * Counts bytes read from the stream
+   */
+  private static class CountingInputStream extends FilterInputStream {
+    private long count = 0;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    long getCount() {
+      return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = in.read();
+      if (result != -1) {
+        count++;
+      }
+      return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int result = in.read(b, off, len);
+      if (result != -1) {
+        count += result;
+      }
+      return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long result = in.skip(n);
+      count += result;
+      return result;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import io.cdap.plugin.zuora.client.schema.ZuoraDefinitions;
+import io.cdap.plugin.zuora.client.schema.ZuoraObjectSchema;
+import java.io.Reader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Parses responses of the describe API.
+ *
+ * {@link JAXBContext} is expensive to create, so it is created on the first parsed response and shared by all
+ * clients in the JVM. Unmarshallers are not thread safe, they are borrowed from the pool for a single response
+ * and returned back afterwards, so the pool does not grow beyond the number of concurrently parsed responses.
+ */
+final class DescribeUnmarshaller {
+  private static final Queue<Unmarshaller> UNMARSHALLERS = new ConcurrentLinkedQueue<>();
+  private static volatile JAXBContext context;
+
+  private DescribeUnmarshaller() {
+  }
+
+  static ZuoraDefinitions unmarshalDefinitions(Reader reader) throws JAXBException {
+    return (ZuoraDefinitions) unmarshal(reader);
+  }
+
+  static ZuoraObjectSchema unmarshalObjectSchema(Reader reader) throws JAXBException {
+    return (ZuoraObjectSchema) unmarshal(reader);
+  }
+
+  private static Object unmarshal(Reader reader) throws JAXBException {
+    Unmarshaller unmarshaller = UNMARSHALLERS.poll();
+    if (unmarshaller == null) {
+      unmarshaller = getContext().createUnmarshaller();
+    }
+    try {
+      return unmarshaller.unmarshal(reader);
+    } finally {
+      UNMARSHALLERS.offer(unmarshaller);
+    }
+  }
+
+  /**
+   * Context is not cached if creation failed, so next call reports the failure again instead of NPE
+   */
+  static JAXBContext getContext() throws JAXBException {
+    JAXBContext result = context;
+    if (result == null) {
+      synchronized (DescribeUnmarshaller.class) {
+        result = context;
+        if (result == null) {
+          result = JAXBContext.newInstance(ZuoraDefinitions.class, ZuoraObjectSchema.class);
+          context = result;
+        }
+      }
+    }
+    return result;
+  }
+}
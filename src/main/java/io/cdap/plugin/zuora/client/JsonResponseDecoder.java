@@ -0,0 +1,42 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Decodes API response directly from the response stream into {@link BaseResult}, see {@link PageCursor}.
+ */
+public class JsonResponseDecoder {
+
+  /**
+   * Reads the response
+   *
+   * @param reader response body
+   * @param rootElement name of the element, which holds array of the records
+   * @param clazz class of the records
+   * @return decoded response, result is {@code null} if response contains no root element
+   * @throws IOException if response is not a valid Json object
+   */
+  public static BaseResult<BaseObject> decode(Reader reader, String rootElement, Class clazz) throws IOException {
+    try (PageCursor cursor = new PageCursor(reader, rootElement, clazz, null)) {
+      return cursor.readAll();
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.base.Ticker;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
+
+/**
+ * Caches OAuth2 access token of the client credentials, shared by all clients in the JVM.
+ *
+ * Token is refreshed before it expires according to {@code expires_in}, while the old one is still used by other
+ * threads. Only one refresh of the token is performed at a time, threads without a usable token wait for it.
+ */
+class OAuthTokenManager {
+  private static final Map<String, OAuthTokenManager> MANAGERS = new ConcurrentHashMap<>();
+  private static final long MAX_REFRESH_MARGIN_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+  private final Ticker ticker;
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private volatile Token token;
+
+  /**
+   * Requests new token from the OAuth API
+   */
+  interface TokenSource {
+    OAuthHttpResponse requestToken() throws IOException;
+  }
+
+  /**
+   * Access token and the time to refresh it
+   */
+  private static class Token {
+    private final String value;
+    private final long refreshAtNanos;
+    private final long expiresAtNanos;
+
+    Token(String value, long refreshAtNanos, long expiresAtNanos) {
+      this.value = value;
+      this.refreshAtNanos = refreshAtNanos;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+  }
+
+  OAuthTokenManager(Ticker ticker) {
+    this.ticker = ticker;
+  }
+
+  /**
+   * Provides manager shared by the clients with the same credentials, so token is never provided to the client
+   * with another secret
+   */
+  static OAuthTokenManager getInstance(String apiEndpoint, String clientId, String clientSecret) {
+    String secretHash = Hashing.sha256().hashString(String.valueOf(clientSecret), Charsets.UTF_8).toString();
+    return MANAGERS.computeIfAbsent(String.format("%s|%s|%s", apiEndpoint, clientId, secretHash),
+                                    x -> new OAuthTokenManager(Ticker.systemTicker()));
+  }
+
+  /**
+   * Provides cached token, token is requested if it is absent, about to expire or rejected by the API
+   *
+   * @param source source of the new token
+   * @param rejectedToken token, which was rejected by the API, {@code null} if there is no such
+   * @throws InterruptedIOException if the thread is interrupted while waiting for the token
+   */
+  String getToken(TokenSource source, @Nullable String rejectedToken) throws IOException {
+    Token current = token;
+    if (isFresh(current, rejectedToken)) {
+      return current.value;
+    }
+
+    if (isUsable(current, rejectedToken)) {
+      // refresh proactively, unless it is already in progress
+      if (!refreshLock.tryLock()) {
+        return current.value;
+      }
+    } else {
+      try {
+        refreshLock.lockInterruptibly();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for OAuth2 token");
+      }
+    }
+
+    try {
+      current = token;
+      if (isFresh(current, rejectedToken)) {
+        return current.value;
+      }
+      token = createToken(source.requestToken());
+      return token.value;
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  private boolean isFresh(@Nullable Token current, @Nullable String rejectedToken) {
+    return isUsable(current, rejectedToken) && ticker.read() - current.refreshAtNanos < 0;
+  }
+
+  private boolean isUsable(@Nullable Token current, @Nullable String rejectedToken) {
+    return current != null && !current.value.equals(rejectedToken) && ticker.read() - current.expiresAtNanos < 0;
+  }
+
+  private Token createToken(OAuthHttpResponse response) throws IOException {
+    if (Strings.isNullOrEmpty(response.getAccessToken())) {
+      throw new IOException("OAuth API did not provide access token");
+    }
+
+    long now = ticker.read();
+    if (response.getExpiresIn() == null || response.getExpiresIn() <= 0) {
+      // token lifetime is unknown, token is used until rejected by the API
+      return new Token(response.getAccessToken(), now + Long.MAX_VALUE / 2, now + Long.MAX_VALUE / 2);
+    }
+
+    long lifetime = TimeUnit.SECONDS.toNanos(response.getExpiresIn());
+    long margin = Math.min(MAX_REFRESH_MARGIN_NANOS, lifetime / 2);
+    return new Token(response.getAccessToken(), now + lifetime - margin, now + lifetime);
+  }
+}
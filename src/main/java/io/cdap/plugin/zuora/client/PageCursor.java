@@ -0,0 +1,245 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResultErrorReason;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+
+/**
+ * Lazy cursor over the records of the single API response page.
+ *
+ * Records, located under the object-specific root element, are decoded one by one while response is
+ * read from the connection. Page information ({@code nextPage}, {@code queryLocator}, {@code success}, etc.) is
+ * complete only once {@link #hasNext()} returned {@code false}, after that the response is closed.
+ *
+ * Example:
+ *   {
+ *     "myobjectname": [
+ *      {
+ *        "object field": "object value",
+ *        ....
+ *      },
+ *      ......
+ *     ],
+ *     "nextPage": "value",
+ *     ....
+ *   }
+ */
+public class PageCursor implements Closeable {
+  private static final Gson GSON = new GsonBuilder().create();
+  private static final Type REASONS_TYPE = new TypeToken<List<BaseResultErrorReason>>() { }.getType();
+
+  private final JsonReader jsonReader;
+  private final String rootElement;
+  private final RecordDecoder decoder;
+  private final ApiResponse response;
+  private final BaseResult<BaseObject> page = new BaseResult<>();
+
+  private boolean recordsPresent = false;
+  private boolean inRecords = false;
+  private boolean finished = false;
+  private boolean closed = false;
+
+  /**
+   * Decodes single record of the page
+   */
+  public interface RecordDecoder {
+    BaseObject decode(JsonReader reader) throws IOException;
+  }
+
+  /**
+   * @param reader response body
+   * @param rootElement name of the element, which holds array of the records, {@code null} if there are no records
+   * @param clazz class of the records
+   * @param response response to be closed once body is read, {@code null} if nothing to close
+   */
+  PageCursor(Reader reader, @Nullable String rootElement, Class clazz, @Nullable ApiResponse response)
+    throws IOException {
+    this(reader, rootElement, classDecoder(clazz), response);
+  }
+
+  /**
+   * @param reader response body
+   * @param rootElement name of the element, which holds array of the records, {@code null} if there are no records
+   * @param decoder decoder of the records
+   * @param response response to be closed once body is read, {@code null} if nothing to close
+   */
+  PageCursor(Reader reader, @Nullable String rootElement, RecordDecoder decoder, @Nullable ApiResponse response)
+    throws IOException {
+    this.jsonReader = new JsonReader(reader);
+    this.jsonReader.setLenient(true);
+    this.rootElement = rootElement;
+    this.decoder = decoder;
+    this.response = response;
+
+    try {
+      jsonReader.beginObject();
+      advance();
+    } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+      throw unexpectedStructure(e);
+    }
+  }
+
+  /**
+   * Decoder, which binds records to the fields of the object class
+   */
+  static RecordDecoder classDecoder(Class clazz) {
+    return reader -> (BaseObject) GSON.fromJson(reader, clazz);
+  }
+
+  private static IOException unexpectedStructure(RuntimeException e) {
+    return new IOException(String.format("Unexpected API response structure: %s", e.getMessage()), e);
+  }
+
+  /**
+   * Reads page fields until the beginning of the records array or the end of the response
+   */
+  private void advance() throws IOException {
+    while (jsonReader.hasNext()) {
+      String name = jsonReader.nextName();
+      if (rootElement != null && name.equals(rootElement)) {
+        if (jsonReader.peek() == JsonToken.NULL) {
+          jsonReader.nextNull();
+          continue;
+        }
+        jsonReader.beginArray();
+        recordsPresent = true;
+        inRecords = true;
+        return;
+      }
+      switch (name) {
+        case "nextPage":
+          page.setNextPage(GSON.fromJson(jsonReader, String.class));
+          break;
+        case "success":
+          page.setSuccess(GSON.fromJson(jsonReader, Boolean.class));
+          break;
+        case "httpCode":
+          page.setHttpCode(GSON.fromJson(jsonReader, Integer.class));
+          break;
+        case "processId":
+          page.setProcessId(GSON.fromJson(jsonReader, String.class));
+          break;
+        case "reasons":
+          page.setReasons(GSON.fromJson(jsonReader, REASONS_TYPE));
+          break;
+        case "queryLocator":
+          page.setQueryLocator(GSON.fromJson(jsonReader, String.class));
+          break;
+        case "done":
+          page.setDone(GSON.fromJson(jsonReader, Boolean.class));
+          break;
+        default:
+          jsonReader.skipValue();
+      }
+    }
+    jsonReader.endObject();
+    finished = true;
+    close();
+  }
+
+  public boolean hasNext() throws IOException {
+    try {
+      while (inRecords) {
+        if (jsonReader.hasNext()) {
+          return true;
+        }
+        jsonReader.endArray();
+        inRecords = false;
+        advance();
+      }
+      return false;
+    } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+      throw unexpectedStructure(e);
+    }
+  }
+
+  public BaseObject next() throws IOException {
+    if (!hasNext()) {
+      throw new NoSuchElementException("No more objects present.");
+    }
+    try {
+      return decoder.decode(jsonReader);
+    } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+      throw unexpectedStructure(e);
+    }
+  }
+
+  /**
+   * Skips next record without decoding it
+   */
+  public void skip() throws IOException {
+    if (!hasNext()) {
+      throw new NoSuchElementException("No more objects present.");
+    }
+    jsonReader.skipValue();
+  }
+
+  /**
+   * Page information without records. Complete only after the cursor is exhausted.
+   */
+  public BaseResult<BaseObject> getPage() {
+    return page;
+  }
+
+  /**
+   * Reads all remaining records of the page
+   *
+   * @return page with the records, result is {@code null} if response contains no records element
+   */
+  public BaseResult<BaseObject> readAll() throws IOException {
+    List<BaseObject> records = new ArrayList<>();
+    while (hasNext()) {
+      records.add(next());
+    }
+    page.setResult((recordsPresent) ? records : null);
+    return page;
+  }
+
+  /**
+   * Closes the response. If the page was not read till the end, the connection is dropped instead of
+   * downloading the rest of the page.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (response != null) {
+      if (finished) {
+        response.close();
+      } else {
+        response.abort();
+      }
+    }
+  }
+}
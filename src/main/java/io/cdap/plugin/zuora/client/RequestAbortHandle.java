@@ -0,0 +1,48 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import java.io.InterruptedIOException;
+
+/**
+ * Aborts requests made with this handle from another thread. Unlike thread interruption, abort drops the connection,
+ * so the request blocked on sending or on reading of the response fails immediately.
+ *
+ * Once aborted, all following requests made with the handle fail without being sent.
+ */
+public class RequestAbortHandle {
+  private HttpUriRequest request;
+  private boolean aborted = false;
+
+  synchronized void attach(HttpUriRequest request) throws InterruptedIOException {
+    if (aborted) {
+      throw new InterruptedIOException(String.format("Request '%s' is aborted", request.getURI()));
+    }
+    this.request = request;
+  }
+
+  public synchronized void abort() {
+    aborted = true;
+    if (request != null) {
+      request.abort();
+    }
+  }
+
+  public synchronized boolean isAborted() {
+    return aborted;
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import com.google.common.base.Ticker;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * Paces requests to the API, shared by all clients of the same tenant in the JVM.
+ *
+ * Works as a token bucket, which rate is derived from the rate limit headers of the API responses
+ * ({@code X-RateLimit-Remaining-*}, {@code X-RateLimit-Reset}), so the rest of the quota is spread evenly till
+ * the limit is reset instead of being exhausted at once. Until the API reports its limits, requests are not paced.
+ * Once the limit is exceeded anyway, all requests are suspended for the jittered exponential backoff time, but not
+ * less than requested by {@code Retry-After}.
+ */
+public class RequestScheduler {
+  private static final Logger LOG = LoggerFactory.getLogger(RequestScheduler.class);
+  private static final Map<String, RequestScheduler> SCHEDULERS = new ConcurrentHashMap<>();
+
+  private static final long INITIAL_BACKOFF_MILLIS = 1000;
+  private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+  private final Ticker ticker;
+  private final Random random;
+
+  // 0 if requests are not paced
+  private double permitsPerSecond = 0;
+  private double availablePermits = 0;
+  private long lastRefillNanos;
+  private long suspendedUntilNanos;
+
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong delayedRequests = new AtomicLong();
+  private final AtomicLong waitNanos = new AtomicLong();
+  private final AtomicLong throttledResponses = new AtomicLong();
+
+  RequestScheduler(Ticker ticker, Random random) {
+    this.ticker = ticker;
+    this.random = random;
+    this.lastRefillNanos = ticker.read();
+    this.suspendedUntilNanos = lastRefillNanos;
+  }
+
+  /**
+   * Scheduler shared by all requests of the tenant
+   *
+   * @param apiEndpoint API endpoint
+   * @param clientId client id or login of the tenant
+   */
+  public static RequestScheduler getInstance(String apiEndpoint, String clientId) {
+    return SCHEDULERS.computeIfAbsent(String.format("%s|%s", apiEndpoint, clientId),
+                                      x -> new RequestScheduler(Ticker.systemTicker(), new Random()));
+  }
+
+  /**
+   * Waits until the request is allowed to be sent
+   *
+   * @throws InterruptedIOException if the thread is interrupted while waiting
+   */
+  public void acquire() throws InterruptedIOException {
+    requests.incrementAndGet();
+    long waitStart = ticker.read();
+    long wait = reserve();
+    if (wait <= 0) {
+      return;
+    }
+
+    delayedRequests.incrementAndGet();
+    try {
+      while (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+        wait = reserve();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for API rate limit");
+    } finally {
+      waitNanos.addAndGet(ticker.read() - waitStart);
+    }
+  }
+
+  /**
+   * Takes the permit if available
+   *
+   * @return {@code 0} if permit is taken, otherwise time in nanoseconds to wait before the next attempt
+   */
+  synchronized long reserve() {
+    long now = ticker.read();
+    if (now < suspendedUntilNanos) {
+      return suspendedUntilNanos - now;
+    }
+    if (permitsPerSecond <= 0) {
+      return 0;
+    }
+
+    // bucket holds no more than one second of permits
+    availablePermits = Math.min(Math.max(permitsPerSecond, 1),
+                                availablePermits + (now - lastRefillNanos) * permitsPerSecond / 1e9);
+    lastRefillNanos = now;
+    if (availablePermits >= 1) {
+      availablePermits -= 1;
+      return 0;
+    }
+    return Math.max(1, (long) ((1 - availablePermits) / permitsPerSecond * 1e9));
+  }
+
+  /**
+   * Adjusts the rate according to the rate limit headers of the response, if any
+   */
+  public void update(HttpResponse response) {
+    Long remaining = null;
+    Long reset = null;
+    for (Header header : response.getAllHeaders()) {
+      String name = header.getName().toLowerCase(Locale.ROOT);
+      if (name.startsWith("x-ratelimit-remaining") || name.startsWith("ratelimit-remaining")) {
+        remaining = parseLong(header.getValue(), remaining);
+      } else if (name.equals("x-ratelimit-reset") || name.equals("ratelimit-reset")) {
+        reset = parseLong(header.getValue(), reset);
+      }
+    }
+    if (remaining != null && reset != null) {
+      update(remaining, reset);
+    }
+  }
+
+  /**
+   * @param remaining number of requests left till the limit is reset
+   * @param resetSeconds seconds till the limit is reset
+   */
+  synchronized void update(long remaining, long resetSeconds) {
+    long now = ticker.read();
+    if (remaining <= 0) {
+      suspendedUntilNanos = Math.max(suspendedUntilNanos, now + TimeUnit.SECONDS.toNanos(Math.max(resetSeconds, 1)));
+      return;
+    }
+
+    boolean paced = permitsPerSecond > 0;
+    permitsPerSecond = (double) remaining / Math.max(resetSeconds, 1);
+    availablePermits = Math.min(paced ? availablePermits : Math.max(permitsPerSecond, 1), remaining);
+    lastRefillNanos = now;
+  }
+
+  @Nullable
+  private static Long parseLong(String value, @Nullable Long defaultValue) {
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Suspends all requests after the rate limit was exceeded
+   *
+   * @param attempt number of the failed attempt, starting from 1
+   * @param retryAfterSeconds time requested by the API, {@code null} if not provided
+   */
+  public void backoff(int attempt, @Nullable Integer retryAfterSeconds) {
+    throttledResponses.incrementAndGet();
+    long delay = getBackoffMillis(attempt, retryAfterSeconds);
+    LOG.debug("API rate limit exceeded on attempt {}, requests are suspended for {} ms", attempt, delay);
+    synchronized (this) {
+      suspendedUntilNanos = Math.max(suspendedUntilNanos, ticker.read() + TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+  }
+
+  long getBackoffMillis(int attempt, @Nullable Integer retryAfterSeconds) {
+    long exponential = INITIAL_BACKOFF_MILLIS << Math.min(attempt - 1, 16);
+    // random jitter prevents concurrent clients from retrying at the same moment
+    long delay = Math.min(MAX_BACKOFF_MILLIS, exponential / 2 + (long) (random.nextDouble() * exponential / 2));
+    if (retryAfterSeconds != null) {
+      delay = Math.max(delay, TimeUnit.SECONDS.toMillis(retryAfterSeconds));
+    }
+    return delay;
+  }
+
+  /**
+   * Number of requests scheduled
+   */
+  public long getRequests() {
+    return requests.get();
+  }
+
+  /**
+   * Number of requests, which were delayed by the scheduler
+   */
+  public long getDelayedRequests() {
+    return delayedRequests.get();
+  }
+
+  /**
+   * Total time requests were waiting for the permit
+   */
+  public long getWaitTime(TimeUnit unit) {
+    return unit.convert(waitNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Number of responses, which reported exceeded rate limit
+   */
+  public long getThrottledResponses() {
+    return throttledResponses.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("requests: %d (%d delayed, %d ms waiting), throttled responses: %d", getRequests(),
+                         getDelayedRequests(), getWaitTime(TimeUnit.MILLISECONDS), getThrottledResponses());
+  }
+}
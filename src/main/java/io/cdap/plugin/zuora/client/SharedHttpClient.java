@@ -0,0 +1,122 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client with the pool of connections, shared by all clients of the same tenant in the JVM.
+ *
+ * Clients are reference counted, the pool is closed once the last client is released. All pools share the same
+ * SSL context, so TLS sessions are resumed when new connections are opened. Compressed responses are accepted,
+ * they are decompressed by {@link ContentEncoding}.
+ */
+final class SharedHttpClient {
+  private static final String CLIENT_NAME = "cdap-zuora plugin/1.0";
+  // validate connection before reuse, if it was not used for this time
+  private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+  private static final Registry<ConnectionSocketFactory> SOCKET_FACTORIES = RegistryBuilder
+    .<ConnectionSocketFactory>create()
+    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+    .register("https", SSLConnectionSocketFactory.getSocketFactory())
+    .build();
+  private static final Map<String, SharedHttpClient> CLIENTS = new HashMap<>();
+
+  private final String key;
+  private final CloseableHttpClient client;
+  private int references = 0;
+
+  private SharedHttpClient(String key, ConnectionSettings settings) {
+    this.key = key;
+
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(SOCKET_FACTORIES);
+    connectionManager.setMaxTotal(settings.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(settings.getMaxConnections());
+    connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+
+    long keepAliveMillis = TimeUnit.SECONDS.toMillis(settings.getKeepAliveSeconds());
+    ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+      long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+      return (duration > 0) ? Math.min(duration, keepAliveMillis) : keepAliveMillis;
+    };
+
+    this.client = HttpClients.custom()
+      .setConnectionManager(connectionManager)
+      .setKeepAliveStrategy(keepAliveStrategy)
+      .disableContentCompression()
+      .evictExpiredConnections()
+      .evictIdleConnections((long) settings.getIdleTimeoutSeconds(), TimeUnit.SECONDS)
+      .setUserAgent(CLIENT_NAME)
+      .setDefaultHeaders(Lists.newArrayList(
+        new BasicHeader("zuora-version", ZuoraRestClient.REST_ZUORA_VERSION),
+        new BasicHeader(ContentEncoding.ACCEPT_ENCODING_HEADER, ContentEncoding.ACCEPTED_ENCODINGS)
+      ))
+      .build();
+  }
+
+  /**
+   * Provides shared client, which must be released by {@link #release()}
+   *
+   * @param apiEndpoint API endpoint
+   * @param clientId client id or login of the tenant
+   * @param clientSecret client secret or password of the tenant
+   * @param settings settings of the connections pool
+   */
+  static synchronized SharedHttpClient acquire(String apiEndpoint, String clientId, String clientSecret,
+                                               ConnectionSettings settings) {
+    String secretHash = Hashing.sha256().hashString(String.valueOf(clientSecret), Charsets.UTF_8).toString();
+    String key = String.format("%s|%s|%s|%d|%d|%d", apiEndpoint, clientId, secretHash, settings.getMaxConnections(),
+                               settings.getKeepAliveSeconds(), settings.getIdleTimeoutSeconds());
+
+    SharedHttpClient sharedClient = CLIENTS.computeIfAbsent(key, x -> new SharedHttpClient(x, settings));
+    sharedClient.references++;
+    return sharedClient;
+  }
+
+  CloseableHttpClient getClient() {
+    return client;
+  }
+
+  /**
+   * Releases the client, connections are closed if the client is not used anymore
+   */
+  void release() throws IOException {
+    synchronized (SharedHttpClient.class) {
+      if (--references > 0) {
+        return;
+      }
+      CLIENTS.remove(key);
+    }
+    client.close();
+  }
+}
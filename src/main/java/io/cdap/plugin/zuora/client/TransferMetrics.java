@@ -0,0 +1,116 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Amount of data transferred by the client. Bodies are compressed on the wire, so transferred bytes differ from
+ * the size of the bodies.
+ */
+public class TransferMetrics {
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong compressedRequests = new AtomicLong();
+  private final AtomicLong requestBytes = new AtomicLong();
+  private final AtomicLong transferredRequestBytes = new AtomicLong();
+
+  private final AtomicLong responses = new AtomicLong();
+  private final AtomicLong compressedResponses = new AtomicLong();
+  private final AtomicLong responseBytes = new AtomicLong();
+  private final AtomicLong transferredResponseBytes = new AtomicLong();
+
+  void recordRequest(boolean compressed, long bodyBytes, long transferredBytes) {
+    requests.incrementAndGet();
+    if (compressed) {
+      compressedRequests.incrementAndGet();
+    }
+    requestBytes.addAndGet(bodyBytes);
+    transferredRequestBytes.addAndGet(transferredBytes);
+  }
+
+  void recordResponse(boolean compressed, long bodyBytes, long transferredBytes) {
+    responses.incrementAndGet();
+    if (compressed) {
+      compressedResponses.incrementAndGet();
+    }
+    responseBytes.addAndGet(bodyBytes);
+    transferredResponseBytes.addAndGet(transferredBytes);
+  }
+
+  /**
+   * Number of requests sent with a body
+   */
+  public long getRequests() {
+    return requests.get();
+  }
+
+  /**
+   * Number of requests, which body was compressed
+   */
+  public long getCompressedRequests() {
+    return compressedRequests.get();
+  }
+
+  /**
+   * Total size of the request bodies before compression
+   */
+  public long getRequestBytes() {
+    return requestBytes.get();
+  }
+
+  /**
+   * Total size of the request bodies sent over the wire
+   */
+  public long getTransferredRequestBytes() {
+    return transferredRequestBytes.get();
+  }
+
+  /**
+   * Number of response bodies read
+   */
+  public long getResponses() {
+    return responses.get();
+  }
+
+  /**
+   * Number of response bodies, which were compressed by the API
+   */
+  public long getCompressedResponses() {
+    return compressedResponses.get();
+  }
+
+  /**
+   * Total size of the read response bodies after decompression
+   */
+  public long getResponseBytes() {
+    return responseBytes.get();
+  }
+
+  /**
+   * Total size of the read response bodies received over the wire
+   */
+  public long getTransferredResponseBytes() {
+    return transferredResponseBytes.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("requests: %d (%d compressed, %d of %d bytes sent), " +
+                           "responses: %d (%d compressed, %d of %d bytes received)",
+                         getRequests(), getCompressedRequests(), getTransferredRequestBytes(), getRequestBytes(),
+                         getResponses(), getCompressedResponses(), getTransferredResponseBytes(), getResponseBytes());
+  }
+}
@@ -17,9 +17,10 @@ package io.cdap.plugin.zuora.client;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -30,30 +31,38 @@ import io.cdap.plugin.zuora.plugin.common.BaseConfig;
 import io.cdap.plugin.zuora.restobjects.ObjectHelper;
 import io.cdap.plugin.zuora.restobjects.ObjectInfo;
 import io.cdap.plugin.zuora.restobjects.SendObject;
+import io.cdap.plugin.zuora.restobjects.ZoqlQuery;
 import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
 import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import io.cdap.plugin.zuora.restobjects.objects.ObjectImportResult;
+import io.cdap.plugin.zuora.restobjects.objects.UsageImportResult;
 import org.apache.commons.lang.text.StrSubstitutor;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
-import org.apache.http.client.entity.EntityBuilder;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicNameValuePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
@@ -61,15 +70,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
 
 /**
- * Zuora Rest Client based on {@link HttpClients} with added support for OAuth2 authorization and
+ * Zuora Rest Client based on {@link SharedHttpClient} with added support for OAuth2 authorization and
  * possibility go through pagination logic of the API
  */
-public class ZuoraRestClient {
+public class ZuoraRestClient implements Closeable {
   public static final String DESCRIBE_API = "describe";
   public static final String REST_API_VERSION = "v1";
   public static final String REST_API_PROTOCOL = "https";
@@ -79,67 +86,127 @@ public class ZuoraRestClient {
   private static final String OAUTH_URL = "oauth/token";
   private static final String OAUTH_GRANT_TYPE = "client_credentials";
   private static final String OAUTH_TOKEN_TYPE = "bearer";
-  private static final String CLIENT_NAME = "cdap-zuora plugin/1.0";
   private static final String HTTP_AUTH_HEADER = "Authorization";
   private static final String CONNECTION_CHECK_ENDPOINT = "v1/catalog/products";
+  private static final String QUERY_API = "action/query";
+  private static final String QUERY_MORE_API = "action/queryMore";
+  private static final String QUERY_ROOT_ELEMENT = "records";
+  private static final String USAGE_API = "usage";
+  private static final String OBJECT_IMPORT_API = "object/import";
+  private static final ContentType CSV_CONTENT_TYPE = ContentType.create("text/csv", StandardCharsets.UTF_8);
+  private static final ContentType ZIP_CONTENT_TYPE = ContentType.create("application/zip");
   private static final String VAR_OPEN_CHAR = "{";
   private static final String VAR_CLOSE_CHAR = "}";
   private static final int HTTP_OK_STATUS = 200;
-  private static final int HTTP_ACCEPTED_STATUS = 201;
+  private static final int HTTP_CREATED_STATUS = 201;
+  private static final int HTTP_ACCEPTED_STATUS = 202;
+  private static final int HTTP_NO_CONTENT_STATUS = 204;
   private static final int HTTP_AUTH_REQUIRED = 401;
   private static final int HTTP_AUTH_FORBIDDEN = 403;
   private static final int HTTP_NOT_FOUND = 404;
   private static final int HTTP_RATE_LIMIT = 429;
-  private static final int HTTP_RATE_RETRY_TIME = 120;
+  private static final int MAX_RATE_LIMIT_ATTEMPTS = 10;
+  private static final Logger LOG = LoggerFactory.getLogger(ZuoraRestClient.class);
   private static final Gson GSON = new GsonBuilder().create();
 
-  private static String authToken = null;
-
   private String apiEnpoint;
   private String clientId;
   private String clientSecret;
   private boolean basicAuth;
-  private Unmarshaller jaxbUnmarshaller;
+  private String basicAuthToken;
+  private OAuthTokenManager tokenManager;
+  private SharedHttpClient sharedClient;
   private CloseableHttpClient client;
+  private boolean closed = false;
+  private RequestScheduler scheduler;
+  private final TransferMetrics transferMetrics = new TransferMetrics();
+  private boolean requestCompression = false;
 
   public ZuoraRestClient(String apiEndpoint, String clientId, String clientSecret, boolean basicAuth) {
+    this(apiEndpoint, clientId, clientSecret, basicAuth, ConnectionSettings.getDefault());
+  }
+
+  /**
+   * Client must be closed to release connections, see {@link SharedHttpClient}
+   */
+  public ZuoraRestClient(String apiEndpoint, String clientId, String clientSecret, boolean basicAuth,
+                         ConnectionSettings connectionSettings) {
     this.apiEnpoint = (apiEndpoint == null) ? REST_API : apiEndpoint;
     this.clientId = clientId;
     this.clientSecret = clientSecret;
     this.basicAuth = basicAuth;
-    this.client = HttpClients.custom()
-      .setUserAgent(CLIENT_NAME)
-      .setDefaultHeaders(Lists.newArrayList(
-        new BasicHeader("zuora-version", REST_ZUORA_VERSION)
-      ))
-      .build();
-
-    try {
-      JAXBContext jaxbContext = JAXBContext.newInstance(ZuoraDefinitions.class, ZuoraObjectSchema.class);
-      this.jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-    } catch (JAXBException e) {
-      throw new RuntimeException("Invalid XML format", e);
+    if (basicAuth) {
+      this.basicAuthToken = Base64.getEncoder().encodeToString(
+        String.format("%s:%s", clientId, clientSecret).getBytes(StandardCharsets.UTF_8));
+    } else {
+      this.tokenManager = OAuthTokenManager.getInstance(this.apiEnpoint, clientId, clientSecret);
     }
+    this.scheduler = RequestScheduler.getInstance(this.apiEnpoint, clientId);
+    this.sharedClient = SharedHttpClient.acquire(this.apiEnpoint, clientId, clientSecret, connectionSettings);
+    this.client = sharedClient.getClient();
   }
 
   public ZuoraRestClient(BaseConfig config) {
     this(config.getApiEndpoint(), config.getAuthUsername(), config.getAuthPassword(),
-      config.getAuthType() == AuthType.BASIC);
+      config.getAuthType() == AuthType.BASIC, new ConnectionSettings(config.getMaxConnections(),
+        config.getConnectionKeepAlive(), config.getConnectionIdleTimeout()));
+  }
+
+  /**
+   * Releases the connections, client is not usable after that
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    LOG.debug("Client of '{}' transferred {}", apiEnpoint, transferMetrics);
+    // scheduler is shared by the clients of the tenant, so its totals are reported
+    if (scheduler.getDelayedRequests() > 0 || scheduler.getThrottledResponses() > 0) {
+      LOG.info("Requests to '{}' were limited by the API rate limit, {}", apiEnpoint, scheduler);
+    } else {
+      LOG.debug("Requests to '{}' were not limited, {}", apiEnpoint, scheduler);
+    }
+    sharedClient.release();
+  }
+
+  /**
+   * Enables gzip compression of the large request bodies, must be set before any request is sent
+   */
+  public void setRequestCompression(boolean requestCompression) {
+    this.requestCompression = requestCompression;
+  }
+
+  /**
+   * Amount of data transferred by this client
+   */
+  public TransferMetrics getTransferMetrics() {
+    return transferMetrics;
   }
 
 
   private String readFromStream(InputStream stream) throws IOException {
-    try (InputStreamReader reader = new InputStreamReader(stream)) {
-      return new BufferedReader(reader).lines().collect(Collectors.joining());
+    try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+      return readFromReader(reader);
     }
   }
 
-  private String getOAuth2Token() throws IOException {
-    if (basicAuth) {
-      authToken = Base64.getEncoder().encodeToString((String.format("%s:%s", clientId, clientSecret).getBytes()));
-      return authToken;
-    }
+  private String readFromReader(Reader reader) {
+    return new BufferedReader(reader).lines().collect(Collectors.joining());
+  }
+
+  /**
+   * Scheduler pacing requests of this client, provides wait time metrics
+   */
+  public RequestScheduler getRequestScheduler() {
+    return scheduler;
+  }
 
+  /**
+   * Requests new access token from the OAuth API
+   */
+  private OAuthHttpResponse requestOAuth2Token() throws IOException {
     HttpPost post = new HttpPost(String.format("%s/%s", apiEnpoint, OAUTH_URL));
     List<NameValuePair> params = new ArrayList<>();
     params.add(new BasicNameValuePair("client_id", this.clientId));
@@ -164,30 +231,35 @@ public class ZuoraRestClient {
       }
 
       OAuthHttpResponse oAuthResponse;
-      try (InputStream stream = httpEntity.getContent();
-           InputStreamReader reader = new InputStreamReader(stream)) {
+      try (InputStream stream = ContentEncoding.decode(httpEntity, transferMetrics, post.getURI().toString());
+           InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
 
         oAuthResponse = GSON.fromJson(reader, OAuthHttpResponse.class);
       }
 
-      if (oAuthResponse == null || !oAuthResponse.getTokenType().equals(OAUTH_TOKEN_TYPE)) {
+      if (oAuthResponse == null || !OAUTH_TOKEN_TYPE.equals(oAuthResponse.getTokenType())) {
         throw new IOException("Blank response from OAuth API or wrong token type");
       }
-      return oAuthResponse.getAccessToken();
+      return oAuthResponse;
     }
   }
 
-  private String getOAuth2Token(HttpUriRequest request, boolean update) throws IOException {
-    if (authToken == null || update) {
-      authToken = getOAuth2Token();
-    }
+  /**
+   * Adds authorization header to the request
+   *
+   * @param rejectedToken token rejected by the API for this request, {@code null} on the first attempt
+   * @return token used for the request
+   */
+  private String authorize(HttpUriRequest request, @Nullable String rejectedToken) throws IOException {
     request.removeHeaders(HTTP_AUTH_HEADER);
     if (basicAuth) {
-      request.addHeader(HTTP_AUTH_HEADER, "Basic " + authToken);
-    } else {
-      request.addHeader(HTTP_AUTH_HEADER, "Bearer " + authToken);
+      request.addHeader(HTTP_AUTH_HEADER, "Basic " + basicAuthToken);
+      return basicAuthToken;
     }
-    return authToken;
+
+    String token = tokenManager.getToken(this::requestOAuth2Token, rejectedToken);
+    request.addHeader(HTTP_AUTH_HEADER, "Bearer " + token);
+    return token;
   }
 
   /**
@@ -200,8 +272,11 @@ public class ZuoraRestClient {
       .put("page", "0")
       .put("pageSize", "1");
 
-    String response = makeApiRequest(Method.GET, CONNECTION_CHECK_ENDPOINT, args.build(), null);
-    BaseResult<BaseObject> result = fetchObject("BaseObject", BaseObject.class, response);
+    BaseResult<BaseObject> result;
+    try (PageCursor cursor = openCursor("BaseObject", BaseObject.class, "result",
+      openApiRequest(Method.GET, CONNECTION_CHECK_ENDPOINT, args.build(), null))) {
+      result = cursor.readAll();
+    }
     if (!result.isSuccess()) {
       if (result.getHttpCode() == 401) {
         throw new IOException(String.format("Please check authentication data: %s", result.getReason(true)));
@@ -211,37 +286,43 @@ public class ZuoraRestClient {
     }
   }
 
+  /**
+   * Executes the request once allowed by the {@link RequestScheduler}, retries the request while the API reports
+   * exceeded rate limit.
+   *
+   * @throws InterruptedIOException if the thread is interrupted while waiting
+   */
   private CloseableHttpResponse requestWithRetry(HttpUriRequest request) throws IOException {
-    while (true) {
-      try {
-        CloseableHttpResponse response = client.execute(request);
-        int responseCode = response.getStatusLine().getStatusCode();
-        if (responseCode == HTTP_RATE_LIMIT) {
-          int retryAfter;
-          Header header = response.getLastHeader("Retry-After");
-          try {
-            retryAfter = (header == null) ? HTTP_RATE_RETRY_TIME : Integer.parseInt(header.getValue());
-          } catch (NumberFormatException e) {
-            retryAfter = HTTP_RATE_RETRY_TIME;
-          }
-          retryAfter += 5; // give more time to API for drop the limits
-          try {
-            response.close();
-          } catch (IOException e) {
-            //no-op
-          }
-          Thread.sleep(retryAfter * 1000);
-        } else {
-          return response;
+    for (int attempt = 1; ; attempt++) {
+      scheduler.acquire();
+      CloseableHttpResponse response = client.execute(request);
+      scheduler.update(response);
+      if (response.getStatusLine().getStatusCode() != HTTP_RATE_LIMIT) {
+        return response;
+      }
+
+      Integer retryAfter = null;
+      Header header = response.getLastHeader("Retry-After");
+      if (header != null) {
+        try {
+          retryAfter = Integer.parseInt(header.getValue().trim());
+        } catch (NumberFormatException e) {
+          // no-op, backoff time is used
         }
-      } catch (InterruptedException e) {
-        // no-op
       }
+      response.close();
+
+      if (attempt >= MAX_RATE_LIMIT_ATTEMPTS) {
+        throw new IOException(String.format("API rate limit exceeded, request '%s' was rejected %d times",
+          request.getURI(), attempt));
+      }
+      scheduler.backoff(attempt, retryAfter);
     }
   }
 
-  private String formatExceptionJsonFromString(InputStream message, Integer responseCode) throws IOException {
-    String data = readFromStream(message);
+  private String formatExceptionJsonFromString(@Nullable HttpEntity message, Integer responseCode, String uri)
+    throws IOException {
+    String data = (message == null) ? null : readFromStream(ContentEncoding.decode(message, transferMetrics, uri));
     return String.format(
       "{\"success\": false, \"httpCode\": %s, \"reasons\": [{\"code\": \"%s\", \"message\": \"%s\"}]}",
       responseCode,
@@ -249,36 +330,66 @@ public class ZuoraRestClient {
       (data == null) ? "" : data.replace("\"", "'"));
   }
 
-  private String requestWithTokenRefresh(HttpUriRequest request) throws IOException {
-    getOAuth2Token(request, false);
+  private ApiResponse errorResponse(CloseableHttpResponse response, int responseCode, String uri)
+    throws IOException {
+    try {
+      return new ApiResponse(null, new StringReader(
+        formatExceptionJsonFromString(response.getEntity(), responseCode, uri)));
+    } finally {
+      response.close();
+    }
+  }
+
+  private ApiResponse openResponse(CloseableHttpResponse response, String uri) throws IOException {
+    try {
+      HttpEntity entity = response.getEntity();
+      if (entity == null) {
+        return new ApiResponse(response, new StringReader(""));
+      }
+      Charset charset = ContentType.getLenientOrDefault(entity).getCharset();
+      return new ApiResponse(response, new InputStreamReader(ContentEncoding.decode(entity, transferMetrics, uri),
+        (charset == null) ? StandardCharsets.UTF_8 : charset));
+    } catch (IOException | RuntimeException e) {
+      response.close();
+      throw e;
+    }
+  }
 
-    try (CloseableHttpResponse response = requestWithRetry(request)) {
-      int responseCode = response.getStatusLine().getStatusCode();
-      if (responseCode == HTTP_AUTH_REQUIRED || responseCode == HTTP_AUTH_FORBIDDEN) {
-        if (basicAuth) {
-          return formatExceptionJsonFromString(response.getEntity().getContent(), responseCode);
-        } else {
-          getOAuth2Token(request, true);
-        }
-      } else if (responseCode == HTTP_NOT_FOUND) {
-        throw new IllegalArgumentException(String.format("Requested resource '%s' not found",
-          request.getURI().toString()));
-      } else if (responseCode == HTTP_OK_STATUS || responseCode == HTTP_ACCEPTED_STATUS) {
-        return readFromStream(response.getEntity().getContent());
-      } else {
-        return formatExceptionJsonFromString(response.getEntity().getContent(), responseCode);
+  /**
+   * Executes the request, refreshing access token if required. Body of the successful response is not
+   * buffered and have to be read from the returned {@link ApiResponse}, which must be closed by the caller.
+   */
+  private ApiResponse requestWithTokenRefresh(HttpUriRequest request) throws IOException {
+    String uri = request.getURI().toString();
+    String token = authorize(request, null);
+
+    CloseableHttpResponse response = requestWithRetry(request);
+    int responseCode = response.getStatusLine().getStatusCode();
+    if (responseCode == HTTP_AUTH_REQUIRED || responseCode == HTTP_AUTH_FORBIDDEN) {
+      if (basicAuth) {
+        return errorResponse(response, responseCode, uri);
       }
+      response.close();
+      authorize(request, token);
+    } else if (responseCode == HTTP_NOT_FOUND) {
+      response.close();
+      throw new IllegalArgumentException(String.format("Requested resource '%s' not found",
+        request.getURI().toString()));
+    } else if (responseCode == HTTP_OK_STATUS || responseCode == HTTP_CREATED_STATUS
+      || responseCode == HTTP_ACCEPTED_STATUS || responseCode == HTTP_NO_CONTENT_STATUS) {
+      return openResponse(response, uri);
+    } else {
+      return errorResponse(response, responseCode, uri);
     }
 
     // situation, when access token was expired and need to be refreshed
-    try (CloseableHttpResponse response = requestWithRetry(request)) {
-      int responseCode = response.getStatusLine().getStatusCode();
-      if (responseCode == HTTP_AUTH_REQUIRED || responseCode == HTTP_AUTH_FORBIDDEN) {
-        throw new IOException("Failed to obtain OAuth2 token, check used credentials");
-      } else {
-        return readFromStream(response.getEntity().getContent());
-      }
+    response = requestWithRetry(request);
+    responseCode = response.getStatusLine().getStatusCode();
+    if (responseCode == HTTP_AUTH_REQUIRED || responseCode == HTTP_AUTH_FORBIDDEN) {
+      response.close();
+      throw new IOException("Failed to obtain OAuth2 token, check used credentials");
     }
+    return openResponse(response, uri);
   }
 
   /**
@@ -296,13 +407,46 @@ public class ZuoraRestClient {
    */
   private String makeApiRequest(Method method, String endpoint, @Nullable Map<String, String> arguments,
                                 @Nullable String data) throws IOException {
-    RequestBuilder builder = RequestBuilder.create(method.name());
+    try (ApiResponse response = openApiRequest(method, endpoint, arguments, data)) {
+      return readFromReader(response.getReader());
+    }
+  }
+
+  /**
+   * Same as {@link #makeApiRequest(Method, String, Map, String)}, but provides not buffered response,
+   * which must be closed by the caller.
+   */
+  private ApiResponse openApiRequest(Method method, String endpoint, @Nullable Map<String, String> arguments,
+                                     @Nullable String data) throws IOException {
+    return openApiRequest(method, endpoint, arguments, data, null);
+  }
 
+  /**
+   * Same as {@link #openApiRequest(Method, String, Map, String)}, request can be aborted with {@code abortHandle}
+   */
+  private ApiResponse openApiRequest(Method method, String endpoint, @Nullable Map<String, String> arguments,
+                                     @Nullable String data, @Nullable RequestAbortHandle abortHandle)
+    throws IOException {
+    HttpEntity entity = null;
     if (method == Method.POST || method == Method.PUT) {
-      HttpEntity entity = EntityBuilder
-        .create()
-        .setText(data)
-        .build();
+      entity = ContentEncoding.encode(Strings.nullToEmpty(data), requestCompression, transferMetrics);
+    }
+    return openEntityRequest(method, endpoint, arguments, entity, abortHandle);
+  }
+
+  /**
+   * Same as {@link #openApiRequest(Method, String, Map, String)}, but sends prepared request body
+   */
+  private ApiResponse openEntityRequest(Method method, String endpoint, @Nullable Map<String, String> arguments,
+                                        @Nullable HttpEntity entity) throws IOException {
+    return openEntityRequest(method, endpoint, arguments, entity, null);
+  }
+
+  private ApiResponse openEntityRequest(Method method, String endpoint, @Nullable Map<String, String> arguments,
+                                        @Nullable HttpEntity entity, @Nullable RequestAbortHandle abortHandle)
+    throws IOException {
+    RequestBuilder builder = RequestBuilder.create(method.name());
+    if (entity != null) {
       builder.setEntity(entity);
     }
     String uri = endpoint;
@@ -315,8 +459,13 @@ public class ZuoraRestClient {
     }
 
     builder.setUri(String.format("%s/%s", apiEnpoint, uri));
-    return requestWithTokenRefresh(builder.build());
+    HttpUriRequest request = builder.build();
+    if (abortHandle != null) {
+      abortHandle.attach(request);
+    }
+    return requestWithTokenRefresh(request);
   }
+
   /**
    * Verify all incoming arguments for the query object
    *
@@ -337,21 +486,12 @@ public class ZuoraRestClient {
       List<String> exceptions = new ArrayList<>();
 
       objectInfo.getRequiredArguments().forEach(x -> {
-        try {
-          if (Strings.isNullOrEmpty(x)) {
-            return;
-          }
-
-          arguments.keySet().stream()
-            .filter(x::equals)
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException(String.format(
-              "Object '%s' requires '%s' argument, but nothing provided",
-              objectInfo.getCdapObjectName(),
-              x
-            )));
-        } catch (IllegalArgumentException e) {
-          exceptions.add(e.getMessage());
+        if (!Strings.isNullOrEmpty(x) && !arguments.containsKey(x)) {
+          exceptions.add(String.format(
+            "Object '%s' requires '%s' argument, but nothing provided",
+            objectInfo.getCdapObjectName(),
+            x
+          ));
         }
       });
       if (!exceptions.isEmpty()) {
@@ -363,7 +503,7 @@ public class ZuoraRestClient {
   public ZuoraDefinitions getObjectList() throws IOException {
     String data = makeApiRequest(Method.GET, REST_API_VERSION + "/" + DESCRIBE_API, null, null);
     try (StringReader reader = new StringReader(data)) {
-      return (ZuoraDefinitions) jaxbUnmarshaller.unmarshal(reader);
+      return DescribeUnmarshaller.unmarshalDefinitions(reader);
     } catch (JAXBException e) {
       throw new IOException("Invalid XML Format", e);
     }
@@ -373,98 +513,69 @@ public class ZuoraRestClient {
     String data = makeApiRequest(Method.GET, String.format("%s/%s/%s", REST_API_VERSION, DESCRIBE_API, name),
       null, null);
     try (StringReader reader = new StringReader(data)) {
-      return (ZuoraObjectSchema) jaxbUnmarshaller.unmarshal(reader);
+      return DescribeUnmarshaller.unmarshalObjectSchema(reader);
     }
   }
 
   /**
-   * Converts per-object response structure to generic
-   *
-   *
-   * Example:
-   *   {
-   *     "myobjectname": [
-   *      {
-   *        "object field: "object value",
-   *        ....
-   *      },
-   *      ......
-   *     ],
-   *     "responseField: "value",
-   *     ....
-   *   }
-   *
-   * @param objectInfo object information
-   * @param data raw Json
-   * @return modified json
-   */
-  private static String adaptJson(ObjectInfo objectInfo, String data) {
-    JsonParser parser = new JsonParser();
-    JsonObject object = parser.parse(data).getAsJsonObject();
-    JsonElement mainJson = object.get(objectInfo.getResponseRootElement());
-    object.remove(objectInfo.getResponseRootElement());
-    object.add("result", mainJson);
-    return object.toString();
-  }
-
-  /**
-   * Convert prepared json to the result object
-   * @param objectInfo Object Definition
-   * @param json prepared JSON
+   * Opens lazy cursor over the response records
+   * @param cdapObjectName object name
+   * @param clazz Object Definition
+   * @param rootElement name of the response element holding the records, {@code null} if there are no records
+   * @param response API response, closed together with the cursor
    */
-  private BaseResult<BaseObject> fetchObject(ObjectInfo objectInfo, String json) {
-    Class clazz = objectInfo.getObjectClass();
-    json = adaptJson(objectInfo, json);
-
-    return fetchObject(objectInfo.getCdapObjectName(), clazz, json);
+  private PageCursor openCursor(@Nullable String cdapObjectName, Class clazz, @Nullable String rootElement,
+                                ApiResponse response) throws IOException {
+    return openCursor(cdapObjectName, PageCursor.classDecoder(clazz), rootElement, response);
   }
 
   /**
-   * Convert prepared json to the result object
+   * Opens lazy cursor over the response records
    * @param cdapObjectName object name
-   * @param clazz Object Definition
-   * @param json prepared JSON
-   * @return
+   * @param decoder decoder of the records
+   * @param rootElement name of the response element holding the records, {@code null} if there are no records
+   * @param response API response, closed together with the cursor
    */
-  private BaseResult<BaseObject> fetchObject(String cdapObjectName, Class clazz, String json) {
-    Type typeToken = new ParameterizedType() {
-      @Override
-      public Type[] getActualTypeArguments() {
-        return new Type[] { clazz };
-      }
-
-      @Override
-      public Type getRawType() {
-        return BaseResult.class;
-      }
-
-      @Override
-      public Type getOwnerType() {
-        return null;
-      }
-    };
-
-    BaseResult<BaseObject> result = GSON.fromJson(json, typeToken);
-    result.setCdapObjectName(cdapObjectName);
-    result.setRestApiEndpoint(apiEnpoint);
+  private PageCursor openCursor(@Nullable String cdapObjectName, PageCursor.RecordDecoder decoder,
+                                @Nullable String rootElement, ApiResponse response) throws IOException {
+    PageCursor cursor;
+    try {
+      cursor = new PageCursor(response.getReader(), rootElement, decoder, response);
+    } catch (IOException | RuntimeException e) {
+      response.close();
+      throw e;
+    }
+    cursor.getPage().setCdapObjectName(cdapObjectName);
+    cursor.getPage().setRestApiEndpoint(apiEnpoint);
 
-    return result;
+    return cursor;
   }
 
   /**
    * Post object to the API
    * @param sendObject object to send
+   * @return result of the request, {@link BaseResult#isSuccess()} tells if the object was accepted. Object accepted
+   *         without response body is considered successful
    */
-  public void sendObject(SendObject sendObject) throws IOException {
+  public BaseResult<BaseObject> sendObject(SendObject sendObject) throws IOException {
     Map<String, String> arguments = new HashMap<>(sendObject.getArguments());
     arguments.remove("body");
 
-    makeApiRequest(
+    String response = makeApiRequest(
       Method.POST,
       REST_API_VERSION + "/" + sendObject.getApiUrl(),
       arguments,
       sendObject.getBody()
     );
+    if (response.trim().isEmpty()) {
+      BaseResult<BaseObject> result = new BaseResult<>();
+      result.setSuccess(true);
+      return result;
+    }
+
+    try (PageCursor cursor = new PageCursor(new StringReader(response), null, BaseObject.class, null)) {
+      return cursor.readAll();
+    }
   }
 
   /**
@@ -476,12 +587,38 @@ public class ZuoraRestClient {
    * @throws IOException if any issue with query the API happen
    */
   public BaseResult<BaseObject> getObject(ObjectInfo objectInfo, Map<String, String> arguments) throws IOException {
+    return getObject(objectInfo, arguments, null);
+  }
+
+  /**
+   * Same as {@link #getObject(ObjectInfo, Map)}, request can be aborted from another thread with {@code abortHandle}
+   */
+  public BaseResult<BaseObject> getObject(ObjectInfo objectInfo, Map<String, String> arguments,
+                                          @Nullable RequestAbortHandle abortHandle) throws IOException {
+    try (PageCursor cursor = openObject(objectInfo, arguments, abortHandle)) {
+      return cursor.readAll();
+    }
+  }
+
+  /**
+   * Query API using plugin meta objects, records are decoded while they are read from the response
+   *
+   * @param objectInfo objects definition
+   * @param arguments query arguments
+   * @return cursor over the first page records, have to be closed by the caller
+   * @throws IOException if any issue with query the API happen
+   */
+  public PageCursor openObject(ObjectInfo objectInfo, Map<String, String> arguments) throws IOException {
+    return openObject(objectInfo, arguments, null);
+  }
+
+  private PageCursor openObject(ObjectInfo objectInfo, Map<String, String> arguments,
+                                @Nullable RequestAbortHandle abortHandle) throws IOException {
     checkIncomingArguments(objectInfo, arguments);
 
     String endpoint = objectInfo.getRestAPIUrl();
-    String response = makeApiRequest(Method.GET, REST_API_VERSION + "/" + endpoint, arguments, null);
-
-    return fetchObject(objectInfo, response);
+    return openCursor(objectInfo.getCdapObjectName(), objectInfo.getObjectClass(), objectInfo.getResponseRootElement(),
+      openApiRequest(Method.GET, REST_API_VERSION + "/" + endpoint, arguments, null, abortHandle));
   }
 
   /**
@@ -493,17 +630,202 @@ public class ZuoraRestClient {
    */
   @Nullable
   public BaseResult<BaseObject> nextPage(BaseResult<BaseObject> previousResult) throws IOException {
+    return nextPage(previousResult, null);
+  }
+
+  /**
+   * Same as {@link #nextPage(BaseResult)}, request can be aborted from another thread with {@code abortHandle}
+   */
+  @Nullable
+  public BaseResult<BaseObject> nextPage(BaseResult<BaseObject> previousResult,
+                                         @Nullable RequestAbortHandle abortHandle) throws IOException {
+    try (PageCursor cursor = openNextPage(previousResult, abortHandle)) {
+      return (cursor == null) ? null : cursor.readAll();
+    }
+  }
+
+  /**
+   * Query nextPage of the previous request, records are decoded while they are read from the response
+   *
+   * @param previousResult the result of the previous query, see {@link PageCursor#getPage()}
+   * @return cursor over the page records, have to be closed by the caller
+   * @throws IOException if any issue with query the API happen
+   */
+  @Nullable
+  public PageCursor openNextPage(BaseResult<BaseObject> previousResult) throws IOException {
+    return openNextPage(previousResult, null);
+  }
+
+  @Nullable
+  private PageCursor openNextPage(BaseResult<BaseObject> previousResult, @Nullable RequestAbortHandle abortHandle)
+    throws IOException {
     if (previousResult.getNextPage() == null || previousResult.getCdapObjectName() == null) {
       return null;
     }
 
-    String response = makeApiRequest(Method.GET, previousResult.getNextPage(),
-      previousResult.getNextPageArguments(), null);
-
     ObjectInfo objectInfo = ObjectHelper.getObjectInfo(previousResult.getCdapObjectName());
     if (objectInfo == null) {
       return null;
     }
-    return fetchObject(objectInfo, response);
+
+    return openCursor(objectInfo.getCdapObjectName(), objectInfo.getObjectClass(), objectInfo.getResponseRootElement(),
+      openApiRequest(Method.GET, previousResult.getNextPage(), previousResult.getNextPageArguments(), null,
+                     abortHandle));
+  }
+
+  /**
+   * Executes ZOQL query, records are decoded while they are read from the response
+   *
+   * @param query ZOQL query
+   * @return cursor over the first batch of the records, have to be closed by the caller. If the result is not
+   *         complete, {@link BaseResult#getQueryLocator()} of the exhausted cursor page points to the next batch
+   * @throws IOException if any issue with query the API happen
+   */
+  public PageCursor openQuery(ZoqlQuery query) throws IOException {
+    return openQueryCursor(query, QUERY_API, ImmutableMap.of("queryString", query.getQuery()));
+  }
+
+  /**
+   * Requests next batch of the ZOQL query records
+   *
+   * @param query ZOQL query
+   * @param queryLocator locator, returned with the previous batch
+   * @return cursor over the batch records, have to be closed by the caller
+   * @throws IOException if any issue with query the API happen
+   */
+  public PageCursor openQueryMore(ZoqlQuery query, String queryLocator) throws IOException {
+    return openQueryCursor(query, QUERY_MORE_API, ImmutableMap.of("queryLocator", queryLocator));
+  }
+
+  private PageCursor openQueryCursor(ZoqlQuery query, String endpoint, Map<String, String> body) throws IOException {
+    JsonParser parser = new JsonParser();
+    return openCursor(query.getObjectName(), reader -> query.toRecord(parser.parse(reader).getAsJsonObject()),
+      QUERY_ROOT_ELEMENT, openApiRequest(Method.POST, REST_API_VERSION + "/" + endpoint, null, GSON.toJson(body)));
+  }
+
+  /**
+   * Uploads file with usage records to be imported by Zuora
+   *
+   * @param file CSV file, which columns are named according to the usage import template
+   * @return upload result, {@link UsageImportResult#getCheckImportStatus()} points to the status of the import
+   * @throws IOException if any issue with the API happen
+   */
+  public UsageImportResult importUsage(File file) throws IOException {
+    HttpEntity entity = MultipartEntityBuilder.create()
+      .addBinaryBody("file", file, CSV_CONTENT_TYPE, file.getName())
+      .build();
+    transferMetrics.recordRequest(false, entity.getContentLength(), entity.getContentLength());
+
+    try (ApiResponse response = openEntityRequest(Method.POST, REST_API_VERSION + "/" + USAGE_API, null, entity)) {
+      return readUsageImportResult(response);
+    }
+  }
+
+  /**
+   * Requests status of the usage import
+   *
+   * @param checkImportStatus path of the status resource, returned by {@link #importUsage(File)}
+   * @throws IOException if any issue with the API happen
+   */
+  public UsageImportResult getUsageImportStatus(String checkImportStatus) throws IOException {
+    String endpoint = checkImportStatus.startsWith(apiEnpoint)
+      ? checkImportStatus.substring(apiEnpoint.length())
+      : checkImportStatus;
+    while (endpoint.startsWith("/")) {
+      endpoint = endpoint.substring(1);
+    }
+
+    try (ApiResponse response = openApiRequest(Method.GET, endpoint, null, null)) {
+      return readUsageImportResult(response);
+    }
+  }
+
+  private UsageImportResult readUsageImportResult(ApiResponse response) throws IOException {
+    UsageImportResult result;
+    try {
+      result = GSON.fromJson(response.getReader(), UsageImportResult.class);
+    } catch (JsonParseException e) {
+      throw new IOException(String.format("Unexpected API response structure: %s", e.getMessage()), e);
+    }
+    if (result == null) {
+      throw new IOException("Blank response from the usage import API");
+    }
+    return result;
+  }
+
+  /**
+   * Submits file with the objects to be imported by Zuora
+   *
+   * @param file CSV file or ZIP archive with the CSV file, which columns are named according to the import type
+   * @param importType type of the imported objects, for example {@code Usage} or {@code Payment}
+   * @param name name of the import
+   * @return submitted import, {@link ObjectImportResult#getId()} identifies the import
+   * @throws IOException if any issue with the API happen
+   */
+  public ObjectImportResult importObjects(File file, String importType, String name) throws IOException {
+    ContentType contentType = file.getName().endsWith(".zip") ? ZIP_CONTENT_TYPE : CSV_CONTENT_TYPE;
+    HttpEntity entity = MultipartEntityBuilder.create()
+      .addTextBody("ImportType", importType)
+      .addTextBody("Name", name)
+      .addBinaryBody("File", file, contentType, file.getName())
+      .build();
+    transferMetrics.recordRequest(false, entity.getContentLength(), entity.getContentLength());
+
+    try (ApiResponse response = openEntityRequest(Method.POST, REST_API_VERSION + "/" + OBJECT_IMPORT_API, null,
+                                                  entity)) {
+      return readObjectImportResult(response);
+    }
+  }
+
+  /**
+   * Requests status of the object import
+   *
+   * @param id import id, returned by {@link #importObjects(File, String, String)}
+   * @throws IOException if any issue with the API happen
+   */
+  public ObjectImportResult getObjectImportStatus(String id) throws IOException {
+    try (ApiResponse response = openApiRequest(Method.GET,
+                                               String.format("%s/%s/%s", REST_API_VERSION, OBJECT_IMPORT_API, id),
+                                               null, null)) {
+      return readObjectImportResult(response);
+    }
+  }
+
+  private ObjectImportResult readObjectImportResult(ApiResponse response) throws IOException {
+    ObjectImportResult result;
+    try {
+      JsonElement json = new JsonParser().parse(response.getReader());
+      if (!json.isJsonObject()) {
+        throw new IOException("Blank response from the object import API");
+      }
+      result = GSON.fromJson(toLowerCamelCase(json), ObjectImportResult.class);
+    } catch (JsonParseException | IllegalStateException e) {
+      throw new IOException(String.format("Unexpected API response structure: %s", e.getMessage()), e);
+    }
+    if (result.getErrors() != null && !result.getErrors().isEmpty()) {
+      result.setReasons(result.getErrors());
+    }
+    return result;
+  }
+
+  /**
+   * Converts capitalized field names of the object API responses to lower camel case
+   */
+  private static JsonElement toLowerCamelCase(JsonElement element) {
+    if (element.isJsonArray()) {
+      JsonArray array = new JsonArray();
+      element.getAsJsonArray().forEach(x -> array.add(toLowerCamelCase(x)));
+      return array;
+    }
+    if (!element.isJsonObject()) {
+      return element;
+    }
+    JsonObject object = new JsonObject();
+    element.getAsJsonObject().entrySet().forEach(x -> {
+      String name = x.getKey().isEmpty() ? x.getKey()
+        : Character.toLowerCase(x.getKey().charAt(0)) + x.getKey().substring(1);
+      object.add(name, toLowerCamelCase(x.getValue()));
+    });
+    return object;
   }
 }
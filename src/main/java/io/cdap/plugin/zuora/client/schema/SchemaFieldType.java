@@ -16,6 +16,7 @@
 
 package io.cdap.plugin.zuora.client.schema;
 
+import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -58,6 +59,15 @@ public class SchemaFieldType {
     }
   }
 
+  private static final Map<Class, Object> DEFAULT_VALUES = ImmutableMap.<Class, Object>builder()
+    .put(Integer.class, 0)
+    .put(String.class, "")
+    .put(Double.class, 0d)
+    .put(Boolean.class, false)
+    .put(List.class, Collections.EMPTY_LIST)
+    .put(Map.class, Collections.EMPTY_MAP)
+    .build();
+
   private String type;
   private String subtype;
 
@@ -130,22 +140,15 @@ public class SchemaFieldType {
     return variableName;
   }
 
+  /**
+   * Provides value of the absent field. Values of simple and collection types are immutable and shared,
+   * other types are instantiated on every call.
+   *
+   * @param type type of the field
+   */
   public static Object getDefaultValue(Class type) throws IllegalAccessException, InstantiationException {
-    if (type == Integer.class) {
-      return  0;
-    } else if (type == String.class) {
-      return  "";
-    } else if (type == Double.class) {
-      return  0d;
-    } else if (type == Boolean.class) {
-      return false;
-    } else if (type == List.class) {
-      return Collections.EMPTY_LIST;
-    } else if (type == Map.class) {
-      return Collections.EMPTY_MAP;
-    } else {
-      return type.newInstance();
-    }
+    Object value = DEFAULT_VALUES.get(type);
+    return (value == null) ? type.newInstance() : value;
   }
 
   public static SchemaFieldType fromString(String type) {
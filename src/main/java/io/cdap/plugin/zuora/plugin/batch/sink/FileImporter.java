@@ -0,0 +1,53 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Uploads files to one of the import APIs and tracks status of the imports
+ */
+interface FileImporter extends Closeable {
+
+  /**
+   * Name of the imported data, used in the messages
+   */
+  String getName();
+
+  /**
+   * @return {@code true} if files are uploaded as zip archives
+   */
+  boolean isCompressed();
+
+  /**
+   * Uploads the file to be imported
+   *
+   * @param file file to import
+   * @param arguments arguments shared by all records of the file
+   * @return id of the started import
+   * @throws IOException if the file was not accepted
+   */
+  String submit(File file, Map<String, String> arguments) throws IOException;
+
+  /**
+   * @param importId id of the import, returned by {@link #submit(File, Map)}
+   * @throws IOException if status could not be requested
+   */
+  ImportStatus getStatus(String importId) throws IOException;
+}
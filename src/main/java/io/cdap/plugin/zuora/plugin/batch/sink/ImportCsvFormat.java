@@ -0,0 +1,112 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Formats records as rows of the imported CSV files. Columns are named after the input schema fields, which have
+ * to match columns of the import template, for example ACCOUNT_ID, UOM, QTY, STARTDATE, etc. for the usage.
+ */
+public final class ImportCsvFormat {
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+  private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+
+  private ImportCsvFormat() {
+  }
+
+  /**
+   * Checks, that every field of the schema could be written to the CSV file
+   *
+   * @param excludedField field, which is not written to the file, {@code null} if all fields are written
+   * @throws IllegalArgumentException if schema contains complex fields
+   */
+  public static void validateSchema(Schema schema, @Nullable String excludedField) {
+    List<String> unsupported = getFields(schema, excludedField).stream()
+      .filter(x -> !x.getSchema().isSimpleOrNullableSimple() || getType(x.getSchema()) == Schema.Type.BYTES)
+      .map(Schema.Field::getName)
+      .collect(Collectors.toList());
+    if (!unsupported.isEmpty()) {
+      throw new IllegalArgumentException(String.format("Import supports only columns of simple types, " +
+                                                         "unsupported columns: %s", String.join(", ", unsupported)));
+    }
+  }
+
+  public static String formatHeader(Schema schema, @Nullable String excludedField) {
+    return getFields(schema, excludedField).stream()
+      .map(x -> escape(x.getName()))
+      .collect(Collectors.joining(","));
+  }
+
+  public static String formatRow(StructuredRecord record, @Nullable String excludedField) {
+    List<Schema.Field> fields = getFields(record.getSchema(), excludedField);
+    StringBuilder row = new StringBuilder();
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) {
+        row.append(',');
+      }
+      String value = formatValue(record, fields.get(i));
+      if (value != null) {
+        row.append(escape(value));
+      }
+    }
+    return row.toString();
+  }
+
+  private static List<Schema.Field> getFields(Schema schema, @Nullable String excludedField) {
+    List<Schema.Field> fields = Objects.requireNonNull(schema.getFields());
+    if (excludedField == null) {
+      return fields;
+    }
+    return fields.stream().filter(x -> !x.getName().equals(excludedField)).collect(Collectors.toList());
+  }
+
+  private static Schema.Type getType(Schema schema) {
+    return schema.isNullable() ? schema.getNonNullable().getType() : schema.getType();
+  }
+
+  private static String formatValue(StructuredRecord record, Schema.Field field) {
+    if (record.get(field.getName()) == null) {
+      return null;
+    }
+
+    Schema schema = field.getSchema().isNullable() ? field.getSchema().getNonNullable() : field.getSchema();
+    Schema.LogicalType logicalType = schema.getLogicalType();
+    if (logicalType == Schema.LogicalType.DATE) {
+      return DATE_FORMAT.format(record.getDate(field.getName()));
+    }
+    if (logicalType == Schema.LogicalType.TIMESTAMP_MILLIS || logicalType == Schema.LogicalType.TIMESTAMP_MICROS) {
+      return TIMESTAMP_FORMAT.format(record.getTimestamp(field.getName()));
+    }
+    return String.valueOf((Object) record.get(field.getName()));
+  }
+
+  /**
+   * Quotes the value, if it contains separators, quotes or line breaks
+   */
+  static String escape(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.cdap.plugin.zuora.restobjects.SendObject;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Imports records as files.
+ *
+ * Records, formatted as CSV rows by {@link ImportCsvFormat}, are grouped by their arguments, e.g. import type, and
+ * every group is written to own local file, zipped if {@link FileImporter#isCompressed()}. File is uploaded by the
+ * {@link FileImporter} once it holds {@link ZuoraSinkConfig#getImportChunkSize()} records. Up to
+ * {@link ZuoraSinkConfig#getMaxConcurrentRequests()} files are uploaded and imported in parallel, status of every
+ * import is polled until it is finished. Files, which were not imported, are reported on {@link #close}.
+ */
+public class ImportRecordWriter extends RecordWriter<NullWritable, SendObject> {
+  private static final Logger LOG = LoggerFactory.getLogger(ImportRecordWriter.class);
+  private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+    .setNameFormat("zuora-import-%d")
+    .setDaemon(true)
+    .build();
+  private static final long INITIAL_POLL_INTERVAL_MILLIS = 2000;
+  private static final long MAX_POLL_INTERVAL_MILLIS = 30000;
+  private static final int MAX_REPORTED_FAILURES = 10;
+
+  private final FileImporter importer;
+  private final String header;
+  private final int chunkSize;
+  private final long timeoutMillis;
+  private final long initialPollIntervalMillis;
+  private final Semaphore permits;
+  private final ExecutorService executor;
+
+  private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger failedChunks = new AtomicInteger();
+  private final AtomicLong failedRecords = new AtomicLong();
+  private final List<File> files = Collections.synchronizedList(new ArrayList<>());
+
+  // records arguments -> file being written
+  private final Map<Map<String, String>, Chunk> openChunks = new HashMap<>();
+  private int chunks = 0;
+  private long totalRecords = 0;
+
+  ImportRecordWriter(FileImporter importer, ZuoraSinkConfig config, String header) {
+    this(importer, header, config.getImportChunkSize(), config.getMaxConcurrentRequests(),
+         TimeUnit.MINUTES.toMillis(config.getImportTimeout()), INITIAL_POLL_INTERVAL_MILLIS);
+  }
+
+  ImportRecordWriter(FileImporter importer, String header, int chunkSize, int maxConcurrentUploads,
+                     long timeoutMillis, long initialPollIntervalMillis) {
+    this.importer = importer;
+    this.header = header;
+    this.chunkSize = chunkSize;
+    this.timeoutMillis = timeoutMillis;
+    this.initialPollIntervalMillis = initialPollIntervalMillis;
+    this.permits = new Semaphore(maxConcurrentUploads);
+    this.executor = Executors.newFixedThreadPool(maxConcurrentUploads, THREAD_FACTORY);
+  }
+
+  @Override
+  public void write(NullWritable nullWritable, SendObject sendObject) throws IOException {
+    Map<String, String> arguments = sendObject.getArguments();
+    Chunk chunk = openChunks.get(arguments);
+    if (chunk == null) {
+      chunk = openChunk(arguments);
+      openChunks.put(arguments, chunk);
+    }
+
+    chunk.writer.write(sendObject.getBody());
+    chunk.writer.write('\n');
+    chunk.records++;
+    totalRecords++;
+    if (chunk.records >= chunkSize) {
+      openChunks.remove(arguments);
+      submitChunk(chunk);
+    }
+  }
+
+  private Chunk openChunk(Map<String, String> arguments) throws IOException {
+    File file = File.createTempFile("zuora-" + importer.getName() + "-",
+                                    importer.isCompressed() ? ".zip" : ".csv");
+    files.add(file);
+
+    OutputStream stream = new BufferedOutputStream(new FileOutputStream(file));
+    if (importer.isCompressed()) {
+      ZipOutputStream zipStream = new ZipOutputStream(stream);
+      String name = file.getName();
+      zipStream.putNextEntry(new ZipEntry(name.substring(0, name.lastIndexOf('.')) + ".csv"));
+      stream = zipStream;
+    }
+
+    Chunk chunk = new Chunk(++chunks, file, arguments,
+                            new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+    chunk.writer.write(header);
+    chunk.writer.write('\n');
+    return chunk;
+  }
+
+  /**
+   * Closes the file and submits it to be imported
+   */
+  private void submitChunk(Chunk chunk) throws IOException {
+    chunk.writer.close();
+
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(String.format("Interrupted while waiting for the %s file to be uploaded",
+                                                     importer.getName()));
+    }
+
+    try {
+      executor.submit(() -> importChunk(chunk));
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void importChunk(Chunk chunk) {
+    try {
+      String importId = importer.submit(chunk.file, chunk.arguments);
+      LOG.debug("{} file {} with {} records uploaded, import: {}", importer.getName(), chunk.number, chunk.records,
+                importId);
+      waitForImport(chunk, importId);
+    } catch (IOException | RuntimeException e) {
+      addFailure(chunk, e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      addFailure(chunk, "interrupted while waiting for the import");
+    } finally {
+      permits.release();
+      delete(chunk.file);
+      files.remove(chunk.file);
+    }
+  }
+
+  /**
+   * Polls status of the import with growing interval, until the import is finished or timed out
+   */
+  private void waitForImport(Chunk chunk, String importId) throws IOException, InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    long interval = initialPollIntervalMillis;
+    while (true) {
+      long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      Thread.sleep(Math.max(0, Math.min(interval, remaining)));
+
+      ImportStatus status = importer.getStatus(importId);
+      if (status.isCompleted()) {
+        LOG.debug("{} file {} with {} records imported", importer.getName(), chunk.number, chunk.records);
+        return;
+      }
+      if (status.isFinished()) {
+        addFailure(chunk, status.getDescription());
+        return;
+      }
+      if (System.nanoTime() - deadline >= 0) {
+        addFailure(chunk, String.format("import was not finished in %d seconds, last status '%s'",
+                                        TimeUnit.MILLISECONDS.toSeconds(timeoutMillis), status.getDescription()));
+        return;
+      }
+      interval = Math.min(interval * 2, MAX_POLL_INTERVAL_MILLIS);
+    }
+  }
+
+  private void addFailure(Chunk chunk, String message) {
+    failedChunks.incrementAndGet();
+    failedRecords.addAndGet(chunk.records);
+    if (failures.size() < MAX_REPORTED_FAILURES) {
+      failures.add(String.format("file %d (%d records): %s", chunk.number, chunk.records, message));
+    }
+  }
+
+  private void delete(File file) {
+    if (file.exists() && !file.delete()) {
+      LOG.warn("Unable to delete temporary {} file '{}'", importer.getName(), file);
+    }
+  }
+
+  /**
+   * Uploads the last files and waits for all imports to finish
+   *
+   * @throws IOException if any of the files was not imported
+   */
+  @Override
+  public void close(TaskAttemptContext taskAttemptContext) throws IOException, InterruptedException {
+    try {
+      Iterator<Chunk> remaining = openChunks.values().iterator();
+      while (remaining.hasNext()) {
+        Chunk chunk = remaining.next();
+        remaining.remove();
+        submitChunk(chunk);
+      }
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } finally {
+      executor.shutdownNow();
+      for (Chunk chunk : openChunks.values()) {
+        chunk.writer.close();
+      }
+      files.forEach(this::delete);
+      importer.close();
+    }
+
+    if (failedChunks.get() > 0) {
+      throw new IOException(String.format("Failed to import %d of %d %s files (%d of %d records) to Zuora: %s",
+                                          failedChunks.get(), chunks, importer.getName(), failedRecords.get(),
+                                          totalRecords, String.join("; ", failures)));
+    }
+  }
+
+  /**
+   * File with the records of the same arguments
+   */
+  private static class Chunk {
+    private final int number;
+    private final File file;
+    private final Map<String, String> arguments;
+    private final Writer writer;
+    private int records = 0;
+
+    Chunk(int number, File file, Map<String, String> arguments, Writer writer) {
+      this.number = number;
+      this.file = file;
+      this.arguments = arguments;
+      this.writer = writer;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+/**
+ * Status of the file import
+ */
+final class ImportStatus {
+  private static final ImportStatus COMPLETED = new ImportStatus(true, true, "Completed");
+
+  private final boolean finished;
+  private final boolean completed;
+  private final String description;
+
+  private ImportStatus(boolean finished, boolean completed, String description) {
+    this.finished = finished;
+    this.completed = completed;
+    this.description = description;
+  }
+
+  static ImportStatus inProgress(String status) {
+    return new ImportStatus(false, false, status);
+  }
+
+  static ImportStatus completed() {
+    return COMPLETED;
+  }
+
+  static ImportStatus failed(String reason) {
+    return new ImportStatus(true, false, reason);
+  }
+
+  /**
+   * @return {@code true} if import is not in progress anymore
+   */
+  boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * @return {@code true} if all records were imported
+   */
+  boolean isCompleted() {
+    return completed;
+  }
+
+  /**
+   * Status of the import in progress or reason of the failure
+   */
+  String getDescription() {
+    return description;
+  }
+}
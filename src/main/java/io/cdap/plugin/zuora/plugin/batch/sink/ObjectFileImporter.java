@@ -0,0 +1,88 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import com.google.common.base.Strings;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.restobjects.objects.ObjectImportResult;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Imports zipped CSV files with the objects through the object import API. Import type is taken from the
+ * {@link #IMPORT_TYPE_ARGUMENT} argument of the records.
+ */
+class ObjectFileImporter implements FileImporter {
+  static final String IMPORT_TYPE_ARGUMENT = "ImportType";
+
+  private final ZuoraRestClient client;
+
+  ObjectFileImporter(ZuoraRestClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public String getName() {
+    return "object";
+  }
+
+  @Override
+  public boolean isCompressed() {
+    return true;
+  }
+
+  @Override
+  public String submit(File file, Map<String, String> arguments) throws IOException {
+    String importType = arguments.get(IMPORT_TYPE_ARGUMENT);
+    String name = file.getName().substring(0, file.getName().lastIndexOf('.'));
+
+    ObjectImportResult result = client.importObjects(file, importType, name);
+    if (Boolean.FALSE.equals(result.isSuccess()) || Strings.isNullOrEmpty(result.getId())) {
+      throw new IOException(String.format("upload of '%s' import failed with http code %s, %s", importType,
+                                          result.getHttpCode(), result.getReason(false)));
+    }
+    return result.getId();
+  }
+
+  @Override
+  public ImportStatus getStatus(String importId) throws IOException {
+    ObjectImportResult status = client.getObjectImportStatus(importId);
+    if (Boolean.FALSE.equals(status.isSuccess())) {
+      throw new IOException(String.format("import status request failed with http code %s, %s",
+                                          status.getHttpCode(), status.getReason(false)));
+    }
+    if (status.isImportCompleted()) {
+      if (status.getTotalCount() != null && status.getImportedCount() != null
+        && status.getImportedCount() < status.getTotalCount()) {
+        return ImportStatus.failed(String.format("import %s: imported %d of %d records, results: %s", importId,
+                                                 status.getImportedCount(), status.getTotalCount(),
+                                                 status.getResultResourceUrl()));
+      }
+      return ImportStatus.completed();
+    }
+    if (status.isImportFinished()) {
+      return ImportStatus.failed(String.format("import %s finished with status '%s': %s", importId,
+                                               status.getStatus(), Strings.nullToEmpty(status.getStatusReason())));
+    }
+    return ImportStatus.inProgress(status.getStatus());
+  }
+
+  @Override
+  public void close() throws IOException {
+    client.close();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import com.google.common.base.Strings;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.restobjects.objects.UsageImportResult;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Imports CSV files with the usage records through the usage import API
+ */
+class UsageFileImporter implements FileImporter {
+  private final ZuoraRestClient client;
+
+  UsageFileImporter(ZuoraRestClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public String getName() {
+    return "usage";
+  }
+
+  @Override
+  public boolean isCompressed() {
+    return false;
+  }
+
+  @Override
+  public String submit(File file, Map<String, String> arguments) throws IOException {
+    UsageImportResult result = client.importUsage(file);
+    if (!Boolean.TRUE.equals(result.isSuccess()) || Strings.isNullOrEmpty(result.getCheckImportStatus())) {
+      throw new IOException(String.format("upload failed with http code %s, %s", result.getHttpCode(),
+                                          result.getReason(false)));
+    }
+    return result.getCheckImportStatus();
+  }
+
+  @Override
+  public ImportStatus getStatus(String importId) throws IOException {
+    UsageImportResult status = client.getUsageImportStatus(importId);
+    if (!Boolean.TRUE.equals(status.isSuccess())) {
+      throw new IOException(String.format("import status request failed with http code %s, %s",
+                                          status.getHttpCode(), status.getReason(false)));
+    }
+    if (status.isImportCompleted()) {
+      return ImportStatus.completed();
+    }
+    if (status.isImportFinished()) {
+      return ImportStatus.failed(String.format("import finished with status '%s': %s", status.getImportStatus(),
+                                               Strings.nullToEmpty(status.getMessage())));
+    }
+    return ImportStatus.inProgress(status.getImportStatus());
+  }
+
+  @Override
+  public void close() throws IOException {
+    client.close();
+  }
+}
@@ -63,7 +63,7 @@ public class ZuoraBatchSink extends BatchSink<StructuredRecord, NullWritable, Se
     Schema inputSchema = batchSinkContext.getInputSchema();
     config.validate(inputSchema);
 
-    batchSinkContext.addOutput(Output.of(config.referenceName, new ZuoraOutputFormatProvider(config)));
+    batchSinkContext.addOutput(Output.of(config.referenceName, new ZuoraOutputFormatProvider(config, inputSchema)));
 
     LineageRecorder lineageRecorder = new LineageRecorder(batchSinkContext, config.referenceName);
     lineageRecorder.createExternalDataset(inputSchema);
@@ -32,7 +32,18 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 public class ZuoraOutputFormat  extends OutputFormat<NullWritable, SendObject> {
   @Override
   public RecordWriter<NullWritable, SendObject> getRecordWriter(TaskAttemptContext taskAttemptContext) {
-    return new ZuoraRecordWriter(taskAttemptContext);
+    ZuoraSinkConfig config = ZuoraRecordWriter.createConfig(taskAttemptContext);
+    String importHeader = taskAttemptContext.getConfiguration().get(ZuoraOutputFormatProvider.PROPERTY_IMPORT_HEADER);
+    switch (config.getWriteMode()) {
+      case USAGE_IMPORT:
+        return new ImportRecordWriter(new UsageFileImporter(ZuoraRecordWriter.createClient(config)), config,
+                                      importHeader);
+      case OBJECT_IMPORT:
+        return new ImportRecordWriter(new ObjectFileImporter(ZuoraRecordWriter.createClient(config)), config,
+                                      importHeader);
+      default:
+        return new ZuoraRecordWriter(config);
+    }
   }
 
   @Override
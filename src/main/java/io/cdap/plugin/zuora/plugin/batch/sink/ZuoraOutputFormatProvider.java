@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import io.cdap.cdap.api.data.batch.OutputFormatProvider;
+import io.cdap.cdap.api.data.schema.Schema;
 import java.util.Map;
 
 /**
@@ -27,13 +28,18 @@ import java.util.Map;
  */
 public class ZuoraOutputFormatProvider implements OutputFormatProvider {
   public static final String PROPERTY_CONFIG_JSON = "cdap.zuora.config";
+  public static final String PROPERTY_IMPORT_HEADER = "cdap.zuora.import.header";
   private static final Gson gson = new GsonBuilder().create();
   private final Map<String, String> conf;
 
-  ZuoraOutputFormatProvider(ZuoraSinkConfig config) {
-    this.conf = new ImmutableMap.Builder<String, String>()
-      .put(PROPERTY_CONFIG_JSON, gson.toJson(config))
-      .build();
+  ZuoraOutputFormatProvider(ZuoraSinkConfig config, Schema inputSchema) {
+    ImmutableMap.Builder<String, String> builder = new ImmutableMap.Builder<String, String>()
+      .put(PROPERTY_CONFIG_JSON, gson.toJson(config));
+    if (config.getWriteMode().isImport()) {
+      builder.put(PROPERTY_IMPORT_HEADER,
+                  ImportCsvFormat.formatHeader(inputSchema, config.getImportExcludedColumn()));
+    }
+    this.conf = builder.build();
   }
 
   @Override
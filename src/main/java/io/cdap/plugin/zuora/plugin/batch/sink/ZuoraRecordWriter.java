@@ -13,40 +13,229 @@
  *  License for the specific language governing permissions and limitations under
  *  the License.
  */
-
 package io.cdap.plugin.zuora.plugin.batch.sink;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import io.cdap.plugin.zuora.client.ZuoraRestClient;
 import io.cdap.plugin.zuora.restobjects.SendObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
 
 /**
  * Writes {@link SendObject} into batches and submit them to Zuora send API
+ *
+ * Requests are sent by the pool of {@link ZuoraSinkConfig#getMaxConcurrentRequests()} threads, {@link #write}
+ * blocks while all of them are busy. Records of the objects, which accept collections, are packed up to
+ * {@link ZuoraSinkConfig#getBatchSize()} records per request. Failed records are reported on {@link #close}.
  */
 public class ZuoraRecordWriter  extends RecordWriter<NullWritable, SendObject> {
   private static final Gson gson = new GsonBuilder().create();
-  private ZuoraRestClient client;
+  private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+    .setNameFormat("zuora-sink-writer-%d")
+    .setDaemon(true)
+    .build();
+  private static final int MAX_REPORTED_FAILURES = 10;
+
+  // API url -> element of the body, which holds collection of the objects
+  private static final Map<String, String> COLLECTION_ELEMENTS = ImmutableMap.of(
+    "debitmemos/{debitMemoId}/taxationitems", "taxationItems"
+  );
+
+  private final ZuoraRestClient client;
+  private final int batchSize;
+  private final Semaphore permits;
+  private final ExecutorService executor;
+
+  private final List<SendObject> batch = new ArrayList<>();
+  private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger failedRecords = new AtomicInteger();
+  private int totalRecords = 0;
 
   public ZuoraRecordWriter(TaskAttemptContext taskAttemptContext) {
+    this(createConfig(taskAttemptContext));
+  }
+
+  ZuoraRecordWriter(ZuoraSinkConfig config) {
+    this(createClient(config), config.getMaxConcurrentRequests(), config.getBatchSize());
+  }
+
+  static ZuoraRestClient createClient(ZuoraSinkConfig config) {
+    ZuoraRestClient client = new ZuoraRestClient(config);
+    client.setRequestCompression(config.isCompressRequests());
+    return client;
+  }
+
+  ZuoraRecordWriter(ZuoraRestClient client, int maxConcurrentRequests, int batchSize) {
+    this.client = client;
+    this.batchSize = batchSize;
+    this.permits = new Semaphore(maxConcurrentRequests);
+    this.executor = Executors.newFixedThreadPool(maxConcurrentRequests, THREAD_FACTORY);
+  }
+
+  static ZuoraSinkConfig createConfig(TaskAttemptContext taskAttemptContext) {
     Configuration conf = taskAttemptContext.getConfiguration();
     String serializedConfig = conf.get(ZuoraOutputFormatProvider.PROPERTY_CONFIG_JSON);
-    ZuoraSinkConfig sgConfig  = gson.fromJson(serializedConfig, ZuoraSinkConfig.class);
-
-    client = new ZuoraRestClient(sgConfig);
+    return gson.fromJson(serializedConfig, ZuoraSinkConfig.class);
   }
+
   @Override
   public void write(NullWritable nullWritable, SendObject sendObject) throws IOException {
-    client.sendObject(sendObject);
+    totalRecords++;
+    if (batchSize <= 1 || !COLLECTION_ELEMENTS.containsKey(sendObject.getApiUrl())) {
+      submit(sendObject, 1);
+      return;
+    }
+
+    if (!batch.isEmpty() && !isSameRequest(batch.get(0), sendObject)) {
+      flush();
+    }
+    batch.add(sendObject);
+    if (batch.size() >= batchSize) {
+      flush();
+    }
   }
 
+  private static boolean isSameRequest(SendObject first, SendObject second) {
+    return first.getApiUrl().equals(second.getApiUrl()) && first.getArguments().equals(second.getArguments());
+  }
+
+  /**
+   * Submits packed records of the current batch
+   */
+  private void flush() throws IOException {
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<SendObject> objects = new ArrayList<>(batch);
+    batch.clear();
+
+    SendObject packed = (objects.size() == 1) ? objects.get(0) : pack(objects);
+    if (packed != null) {
+      submit(packed, objects.size());
+      return;
+    }
+    // bodies are not in expected format, let API report the errors for every record
+    for (SendObject object : objects) {
+      submit(object, 1);
+    }
+  }
+
+  /**
+   * Packs the objects into one request by joining collections of their bodies
+   *
+   * @param objects objects sharing the same API url and arguments
+   * @return packed object, {@code null} if any of the bodies does not hold a collection
+   */
+  @Nullable
+  static SendObject pack(List<SendObject> objects) {
+    SendObject first = objects.get(0);
+    String element = COLLECTION_ELEMENTS.get(first.getApiUrl());
+    JsonParser parser = new JsonParser();
+
+    JsonObject body = null;
+    JsonArray collection = new JsonArray();
+    try {
+      for (SendObject object : objects) {
+        JsonObject json = parser.parse(object.getBody()).getAsJsonObject();
+        JsonElement items = json.get(element);
+        if (items == null || !items.isJsonArray()) {
+          return null;
+        }
+        for (JsonElement item : items.getAsJsonArray()) {
+          collection.add(item);
+        }
+        if (body == null) {
+          body = json;
+        }
+      }
+    } catch (JsonParseException | IllegalStateException e) {
+      return null;
+    }
+    body.add(element, collection);
+    return new SendObject(first.getApiUrl(), body.toString(), first.getArguments());
+  }
+
+  private void submit(SendObject sendObject, int records) throws IOException {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the request to be sent");
+    }
+
+    try {
+      executor.submit(() -> send(sendObject, records));
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void send(SendObject sendObject, int records) {
+    try {
+      BaseResult<BaseObject> result = client.sendObject(sendObject);
+      if (Boolean.FALSE.equals(result.isSuccess())) {
+        addFailure(sendObject, records, String.format("http code %s, %s", result.getHttpCode(),
+                                                      result.getReason(false)));
+      }
+    } catch (IOException | RuntimeException e) {
+      addFailure(sendObject, records, e.getMessage());
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void addFailure(SendObject sendObject, int records, String message) {
+    failedRecords.addAndGet(records);
+    if (failures.size() < MAX_REPORTED_FAILURES) {
+      failures.add(String.format("'%s' (%d record(s)): %s", sendObject.getApiUrl(), records, message));
+    }
+  }
+
+  /**
+   * Sends remaining records and waits for all requests to complete
+   *
+   * @throws IOException if any of the records was not accepted by the API
+   */
   @Override
-  public void close(TaskAttemptContext taskAttemptContext) {
-    //no-op
+  public void close(TaskAttemptContext taskAttemptContext) throws IOException, InterruptedException {
+    try {
+      flush();
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } finally {
+      executor.shutdownNow();
+      client.close();
+    }
+
+    if (failedRecords.get() > 0) {
+      throw new IOException(String.format("Failed to write %d of %d records to Zuora: %s", failedRecords.get(),
+                                          totalRecords, String.join("; ", failures)));
+    }
   }
 }
@@ -23,6 +23,7 @@ import io.cdap.cdap.api.annotation.Macro;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.etl.api.FailureCollector;
+import io.cdap.plugin.zuora.client.ConnectionSettings;
 import io.cdap.plugin.zuora.plugin.common.BaseConfig;
 import java.util.Arrays;
 import java.util.Map;
@@ -36,10 +37,59 @@ public class ZuoraSinkConfig extends BaseConfig {
   public static final String PROPERTY_BODY_COLUMN = "bodyColumnName";
   public static final String PROPERTY_REQUEST_ARGUMENTS_SOURCE = "requestArgumentsSource";
   public static final String PROPERTY_REQUEST_ARGUMENTS = "requestArguments";
+  public static final String PROPERTY_MAX_CONCURRENT_REQUESTS = "maxConcurrentRequests";
+  public static final String PROPERTY_BATCH_SIZE = "batchSize";
+  public static final String PROPERTY_COMPRESS_REQUESTS = "compressRequests";
+  public static final String PROPERTY_WRITE_MODE = "writeMode";
+  public static final String PROPERTY_IMPORT_CHUNK_SIZE = "importChunkSize";
+  public static final String PROPERTY_IMPORT_TIMEOUT = "importTimeout";
+  public static final String PROPERTY_IMPORT_TYPE = "importType";
+  public static final String PROPERTY_IMPORT_TYPE_COLUMN = "importTypeColumn";
+  public static final int MAX_CONCURRENT_REQUESTS = ConnectionSettings.DEFAULT_MAX_CONNECTIONS;
+  public static final int MAX_BATCH_SIZE = 50;
+  public static final int DEFAULT_IMPORT_CHUNK_SIZE = 50000;
+  public static final int DEFAULT_IMPORT_TIMEOUT_MINUTES = 60;
 
   public static final String TO_TYPE_INPUT = "input";
   public static final String TO_TYPE_CONFIG = "config";
 
+  public static final String WRITE_MODE_RECORDS = "records";
+  public static final String WRITE_MODE_USAGE_IMPORT = "usageImport";
+  public static final String WRITE_MODE_OBJECT_IMPORT = "objectImport";
+
+  /**
+   * Ways to send the records
+   */
+  public enum WriteMode {
+    RECORDS,
+    USAGE_IMPORT,
+    OBJECT_IMPORT;
+
+    /**
+     * @return {@code true} if records are imported as files
+     */
+    public boolean isImport() {
+      return this != RECORDS;
+    }
+
+    public static WriteMode fromString(@Nullable String writeMode) {
+      if (Strings.isNullOrEmpty(writeMode)) {
+        return RECORDS;
+      }
+      switch (writeMode) {
+        case WRITE_MODE_RECORDS:
+          return WriteMode.RECORDS;
+        case WRITE_MODE_USAGE_IMPORT:
+          return WriteMode.USAGE_IMPORT;
+        case WRITE_MODE_OBJECT_IMPORT:
+          return WriteMode.OBJECT_IMPORT;
+        default:
+          throw new IllegalArgumentException(String.format("Unknown write mode '%s', allowed: '%s', '%s', '%s'",
+            writeMode, WRITE_MODE_RECORDS, WRITE_MODE_USAGE_IMPORT, WRITE_MODE_OBJECT_IMPORT));
+      }
+    }
+  }
+
   /**
    * Available sources for recipient addresses
    */
@@ -60,13 +110,22 @@ public class ZuoraSinkConfig extends BaseConfig {
     }
   }
 
+  @Name(PROPERTY_WRITE_MODE)
+  @Description("Whether every record is sent as a separate object or records are imported as usage or object " +
+    "import files")
+  @Nullable
+  @Macro
+  private String writeMode;
+
   @Name(PROPERTY_OBJECT_NAME)
   @Description("Object name to write")
+  @Nullable
   @Macro
   private String objectName;
 
   @Name(PROPERTY_BODY_COLUMN)
   @Description("JSON content of the object")
+  @Nullable
   @Macro
   private String bodyColumnName;
 
@@ -81,6 +140,48 @@ public class ZuoraSinkConfig extends BaseConfig {
   @Macro
   private String requestArguments;
 
+  @Name(PROPERTY_MAX_CONCURRENT_REQUESTS)
+  @Description("Maximum number of requests sent to Zuora in parallel by every writer")
+  @Nullable
+  @Macro
+  private Integer maxConcurrentRequests;
+
+  @Name(PROPERTY_BATCH_SIZE)
+  @Description("Maximum number of records packed into one request for the objects, which accept collections")
+  @Nullable
+  @Macro
+  private Integer batchSize;
+
+  @Name(PROPERTY_COMPRESS_REQUESTS)
+  @Description("Whether large request bodies are compressed with gzip")
+  @Nullable
+  @Macro
+  private Boolean compressRequests;
+
+  @Name(PROPERTY_IMPORT_CHUNK_SIZE)
+  @Description("Maximum number of records in one uploaded import file")
+  @Nullable
+  @Macro
+  private Integer importChunkSize;
+
+  @Name(PROPERTY_IMPORT_TIMEOUT)
+  @Description("Time in minutes to wait for the import of the uploaded file to finish")
+  @Nullable
+  @Macro
+  private Integer importTimeout;
+
+  @Name(PROPERTY_IMPORT_TYPE)
+  @Description("Object import type, such as 'Account' or 'Subscription', of all records")
+  @Nullable
+  @Macro
+  private String importType;
+
+  @Name(PROPERTY_IMPORT_TYPE_COLUMN)
+  @Description("Input column, which provides object import type of every record. Not written to the import files")
+  @Nullable
+  @Macro
+  private String importTypeColumn;
+
   public ZuoraSinkConfig(String referenceName) {
     super(referenceName);
   }
@@ -118,7 +219,19 @@ public class ZuoraSinkConfig extends BaseConfig {
       throw new IllegalArgumentException("Input schema cannot be empty");
     }
 
-    validateField(schema, bodyColumnName);;
+    if (getWriteMode() == WriteMode.USAGE_IMPORT) {
+      ImportCsvFormat.validateSchema(schema, null);
+      return;
+    }
+    if (getWriteMode() == WriteMode.OBJECT_IMPORT) {
+      if (!Strings.isNullOrEmpty(importTypeColumn)) {
+        validateField(schema, importTypeColumn);
+      }
+      ImportCsvFormat.validateSchema(schema, getImportExcludedColumn());
+      return;
+    }
+
+    validateField(schema, bodyColumnName);
 
     if (getArgumentsSource() == ToArgumentsSource.INPUT) {
       getRequestArguments().keySet().forEach(x -> {
@@ -127,6 +240,10 @@ public class ZuoraSinkConfig extends BaseConfig {
     }
   }
 
+  public WriteMode getWriteMode() {
+    return WriteMode.fromString(writeMode);
+  }
+
   public ToArgumentsSource getArgumentsSource() {
     return ToArgumentsSource.fromString(requestArgumentsSource);
   }
@@ -152,4 +269,42 @@ public class ZuoraSinkConfig extends BaseConfig {
     return argumentsBuilder.build();
   }
 
+  public int getMaxConcurrentRequests() {
+    return (maxConcurrentRequests == null) ? 1 : maxConcurrentRequests;
+  }
+
+  public int getBatchSize() {
+    return (batchSize == null) ? 1 : batchSize;
+  }
+
+  public boolean isCompressRequests() {
+    return Boolean.TRUE.equals(compressRequests);
+  }
+
+  public int getImportChunkSize() {
+    return (importChunkSize == null) ? DEFAULT_IMPORT_CHUNK_SIZE : importChunkSize;
+  }
+
+  public int getImportTimeout() {
+    return (importTimeout == null) ? DEFAULT_IMPORT_TIMEOUT_MINUTES : importTimeout;
+  }
+
+  @Nullable
+  public String getImportType() {
+    return Strings.emptyToNull(importType);
+  }
+
+  @Nullable
+  public String getImportTypeColumn() {
+    return Strings.emptyToNull(importTypeColumn);
+  }
+
+  /**
+   * @return input column, which is not written to the import files, or {@code null} if all columns are written
+   */
+  @Nullable
+  public String getImportExcludedColumn() {
+    return (getWriteMode() == WriteMode.OBJECT_IMPORT) ? getImportTypeColumn() : null;
+  }
+
 }
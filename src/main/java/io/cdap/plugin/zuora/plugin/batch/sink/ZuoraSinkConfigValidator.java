@@ -36,6 +36,23 @@ public class ZuoraSinkConfigValidator extends BaseConfigValidator {
   public void doValidation() {
     IdUtils.validateReferenceName(config.referenceName, failureCollector);
 
+    if (!config.containsMacro(ZuoraSinkConfig.PROPERTY_WRITE_MODE)) {
+      ZuoraSinkConfig.WriteMode writeMode;
+      try {
+        writeMode = config.getWriteMode();
+      } catch (IllegalArgumentException e) {
+        failureCollector.addFailure(e.getMessage(), null).withConfigProperty(ZuoraSinkConfig.PROPERTY_WRITE_MODE);
+        return;
+      }
+      if (writeMode == ZuoraSinkConfig.WriteMode.OBJECT_IMPORT) {
+        checkImportType();
+      }
+      if (writeMode.isImport()) {
+        checkImport();
+        return;
+      }
+    }
+
     if (!config.containsMacro(ZuoraSinkConfig.PROPERTY_OBJECT_NAME)) {
       if (Strings.isNullOrEmpty(config.getObjectName())) {
         failureCollector.addFailure("Object name should be set", "")
@@ -49,5 +66,60 @@ public class ZuoraSinkConfigValidator extends BaseConfigValidator {
           .withConfigProperty(ZuoraSinkConfig.PROPERTY_BODY_COLUMN);
       }
     }
+
+    checkConcurrentRequests();
+
+    if (!config.containsMacro(ZuoraSinkConfig.PROPERTY_BATCH_SIZE)) {
+      int batchSize = config.getBatchSize();
+      if (batchSize < 1 || batchSize > ZuoraSinkConfig.MAX_BATCH_SIZE) {
+        failureCollector.addFailure(String.format("Batch size should be in range from 1 to %d",
+                                                  ZuoraSinkConfig.MAX_BATCH_SIZE), null)
+          .withConfigProperty(ZuoraSinkConfig.PROPERTY_BATCH_SIZE);
+      }
+    }
+  }
+
+  private void checkConcurrentRequests() {
+    if (!config.containsMacro(ZuoraSinkConfig.PROPERTY_MAX_CONCURRENT_REQUESTS)) {
+      int maxConcurrentRequests = config.getMaxConcurrentRequests();
+      if (maxConcurrentRequests < 1 || maxConcurrentRequests > ZuoraSinkConfig.MAX_CONCURRENT_REQUESTS) {
+        failureCollector.addFailure(String.format("Number of concurrent requests should be in range from 1 to %d",
+                                                  ZuoraSinkConfig.MAX_CONCURRENT_REQUESTS), null)
+          .withConfigProperty(ZuoraSinkConfig.PROPERTY_MAX_CONCURRENT_REQUESTS);
+      } else if (!config.containsMacro(ZuoraSinkConfig.PROPERTY_MAX_CONNECTIONS)
+        && maxConcurrentRequests > config.getMaxConnections()) {
+        failureCollector.addFailure("Number of concurrent requests exceeds maximum number of connections",
+                                    "Increase maximum number of connections")
+          .withConfigProperty(ZuoraSinkConfig.PROPERTY_MAX_CONCURRENT_REQUESTS)
+          .withConfigProperty(ZuoraSinkConfig.PROPERTY_MAX_CONNECTIONS);
+      }
+    }
+  }
+
+  private void checkImportType() {
+    if (config.containsMacro(ZuoraSinkConfig.PROPERTY_IMPORT_TYPE)
+      || config.containsMacro(ZuoraSinkConfig.PROPERTY_IMPORT_TYPE_COLUMN)) {
+      return;
+    }
+    if ((config.getImportType() == null) == (config.getImportTypeColumn() == null)) {
+      failureCollector.addFailure("Either import type or import type column should be set",
+                                  "Set the import type for all records or the column, which provides it")
+        .withConfigProperty(ZuoraSinkConfig.PROPERTY_IMPORT_TYPE)
+        .withConfigProperty(ZuoraSinkConfig.PROPERTY_IMPORT_TYPE_COLUMN);
+    }
+  }
+
+  private void checkImport() {
+    if (!config.containsMacro(ZuoraSinkConfig.PROPERTY_IMPORT_CHUNK_SIZE) && config.getImportChunkSize() < 1) {
+      failureCollector.addFailure("Number of records in the import file should be positive", null)
+        .withConfigProperty(ZuoraSinkConfig.PROPERTY_IMPORT_CHUNK_SIZE);
+    }
+
+    if (!config.containsMacro(ZuoraSinkConfig.PROPERTY_IMPORT_TIMEOUT) && config.getImportTimeout() < 1) {
+      failureCollector.addFailure("Import timeout should be positive", null)
+        .withConfigProperty(ZuoraSinkConfig.PROPERTY_IMPORT_TIMEOUT);
+    }
+
+    checkConcurrentRequests();
   }
 }
@@ -16,6 +16,7 @@
 
 package io.cdap.plugin.zuora.plugin.batch.sink;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
@@ -30,8 +31,11 @@ import java.util.Map;
  * {@link StructuredRecord} to {@link BaseObject}
  */
 public class ZuoraSinkTransformer {
+  // body of the usage and object import records is a CSV row
+  static final String USAGE_API_URL = "usage";
+  static final String OBJECT_IMPORT_API_URL = "object/import";
 
-  private static Object readRecordField(StructuredRecord record, String fieldName, Schema.Type fieldType) {
+  private static void checkRecordField(StructuredRecord record, String fieldName, Schema.Type fieldType) {
     Schema.Field field = record.getSchema().getField(fieldName);
     if (field == null) {
       throw new IllegalArgumentException(String.format("Input schema does not provide column '%s'", fieldName));
@@ -47,6 +51,10 @@ public class ZuoraSinkTransformer {
       throw new IllegalArgumentException(String.format("Column '%s' does not belong to type '%s'''",
         fieldName, fieldType.name()));
     }
+  }
+
+  private static Object readRecordField(StructuredRecord record, String fieldName, Schema.Type fieldType) {
+    checkRecordField(record, fieldName, fieldType);
     Object objRecipients = record.get(fieldName);
     if (objRecipients == null) {
       throw new IllegalArgumentException("Record provided empty list of recipients");
@@ -54,7 +62,29 @@ public class ZuoraSinkTransformer {
     return objRecipients;
   }
 
+  private static String readImportType(StructuredRecord record, String importTypeColumn) {
+    checkRecordField(record, importTypeColumn, Schema.Type.STRING);
+    String importType = record.get(importTypeColumn);
+    if (Strings.isNullOrEmpty(importType)) {
+      throw new IllegalArgumentException(String.format("Record provided empty import type in column '%s'",
+                                                       importTypeColumn));
+    }
+    return importType;
+  }
+
   public static SendObject transform(ZuoraSinkConfig config, StructuredRecord record) {
+    if (config.getWriteMode() == ZuoraSinkConfig.WriteMode.USAGE_IMPORT) {
+      return new SendObject(USAGE_API_URL, ImportCsvFormat.formatRow(record, null), ImmutableMap.of());
+    }
+    if (config.getWriteMode() == ZuoraSinkConfig.WriteMode.OBJECT_IMPORT) {
+      String importTypeColumn = config.getImportTypeColumn();
+      String importType = (importTypeColumn == null)
+        ? config.getImportType()
+        : readImportType(record, importTypeColumn);
+      return new SendObject(OBJECT_IMPORT_API_URL, ImportCsvFormat.formatRow(record, importTypeColumn),
+                            ImmutableMap.of(ObjectFileImporter.IMPORT_TYPE_ARGUMENT, importType));
+    }
+
     ObjectInfo objectInfo = ObjectHelper.getObjectInfo(config.getObjectName());
 
     if (objectInfo == null) {
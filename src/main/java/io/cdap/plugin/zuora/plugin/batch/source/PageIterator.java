@@ -16,87 +16,208 @@
 
 package io.cdap.plugin.zuora.plugin.batch.source;
 
+import io.cdap.plugin.zuora.client.PageCursor;
 import io.cdap.plugin.zuora.client.ZuoraRestClient;
 import io.cdap.plugin.zuora.restobjects.ObjectInfo;
 import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
 import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
 
 /**
  * Iterates over ever object on every page.
+ *
+ * By default, records are provided as soon as they are read from the response, so only one record of the page
+ * is kept in memory at a time. If prefetching is enabled, pages are requested in the background ahead of
+ * the consumer, see {@link PagePrefetcher}.
  */
-public class PageIterator {
+public class PageIterator implements Closeable {
   private final ObjectInfo objectInfo;
   private final Map<String, String> arguments;
   private final ZuoraRestClient client;
+  private final int prefetchPages;
 
-  private BaseResult<BaseObject> currentPage;
+  private PageCursor currentPage;
   private BaseResult<BaseObject> prevPage;
-  private Iterator<BaseObject> recordIterator;
   private int iteratorPosition;
 
+  // used only if pages are prefetched
+  private PagePrefetcher prefetcher;
+  private BaseResult<BaseObject> prefetchedPage;
+  private Iterator<BaseObject> prefetchedRecords;
+
   public PageIterator(ZuoraRestClient client, ObjectInfo objectInfo, Map<String, String> arguments) throws IOException {
+    this(client, objectInfo, arguments, 0);
+  }
+
+  /**
+   * @param prefetchPages number of pages to fetch in the background ahead of the consumer,
+   *                      {@code 0} to stream records of the single page at a time
+   */
+  public PageIterator(ZuoraRestClient client, ObjectInfo objectInfo, Map<String, String> arguments,
+                      int prefetchPages) throws IOException {
+    this(client, objectInfo, arguments, prefetchPages, null);
+  }
+
+  /**
+   * @param position position of the previous iterator to continue from, {@code null} to start from the first record
+   */
+  public PageIterator(ZuoraRestClient client, ObjectInfo objectInfo, Map<String, String> arguments,
+                      int prefetchPages, @Nullable Position position) throws IOException {
     this.client = client;
     this.objectInfo = objectInfo;
     this.arguments = arguments;
-    gotoNextPage(null);
+    this.prefetchPages = prefetchPages;
+    if (position == null) {
+      gotoPage(null);
+    } else {
+      gotoPosition(position);
+    }
+  }
+
+  /**
+   * Position after the last provided record, page of the record is requested once more to continue from it
+   */
+  public static class Position {
+    private final BaseResult<BaseObject> previousPage;
+    private final int offset;
+
+    private Position(@Nullable BaseResult<BaseObject> previousPage, int offset) {
+      this.previousPage = previousPage;
+      this.offset = offset;
+    }
   }
 
   public boolean hasNext() throws IOException {
-    if (!recordIterator.hasNext()) {
-      BaseResult<BaseObject> page = client.nextPage(currentPage);
-      if (page != null) {
-        prevPage = currentPage;
-        currentPage = page;
+    if (prefetcher != null) {
+      while (!prefetchedRecords.hasNext()) {
+        if (!takePrefetchedPage()) {
+          return false;
+        }
+      }
+      return true;
+    }
 
-        gotoNextPage(currentPage);
+    while (!currentPage.hasNext()) {
+      BaseResult<BaseObject> page = checkPage(currentPage.getPage());
+      PageCursor nextPage = client.openNextPage(page);
+      if (nextPage == null) {
+        return false;
       }
+      prevPage = page;
+      currentPage = nextPage;
+      iteratorPosition = 0;
     }
+    return true;
+  }
 
-    return (currentPage != null && recordIterator.hasNext());
+  /**
+   * @return {@code true} if the page of the last provided record has more records, {@code false} if the next record,
+   *         if any, belongs to the next page
+   */
+  public boolean hasNextOnPage() throws IOException {
+    return (prefetcher != null) ? prefetchedRecords.hasNext() : currentPage.hasNext();
   }
 
   public BaseObject next() throws IOException {
     if (hasNext()) {
       iteratorPosition++;
-      return recordIterator.next();
+      return (prefetcher != null) ? prefetchedRecords.next() : currentPage.next();
     } else {
       throw new NoSuchElementException("No more objects present.");
     }
   }
 
+  /**
+   * @return position after the last provided record
+   */
+  public Position getPosition() {
+    return new Position(prevPage, iteratorPosition);
+  }
+
+  /**
+   * Requests current page once more and skips already provided records
+   */
   public void reloadCurrentPage() throws IOException {
-    int iteratorPosition = this.iteratorPosition;
-    gotoNextPage(prevPage);
-    setIteratorPosition(iteratorPosition);
+    Position position = getPosition();
+    close();
+    gotoPosition(position);
   }
 
-  private void gotoNextPage(BaseResult<BaseObject> page) throws IOException {
-    if (page == null) {
-      currentPage = client.getObject(objectInfo, arguments);
-    } else {
-      currentPage = client.nextPage(prevPage);
+  private void gotoPosition(Position position) throws IOException {
+    prevPage = position.previousPage;
+    gotoPage(position.previousPage);
+    setIteratorPosition(position.offset);
+  }
+
+  private void gotoPage(BaseResult<BaseObject> previousPage) throws IOException {
+    iteratorPosition = 0;
+    if (prefetchPages > 0) {
+      prefetcher = new PagePrefetcher(client, objectInfo, arguments, previousPage, prefetchPages);
+      prefetchedPage = null;
+      takePrefetchedPage();
+      return;
     }
 
-    if (!currentPage.isSuccess()) {
-      throw new RuntimeException(String.format("API exception of the query id %s: %s",
-                                               currentPage.getProcessId(), currentPage.getReason(false)));
+    PageCursor page = (previousPage == null) ? null : client.openNextPage(previousPage);
+    currentPage = (page == null) ? client.openObject(objectInfo, arguments) : page;
+  }
+
+  /**
+   * Switches to the next prefetched page
+   *
+   * @return {@code false} if there are no more pages
+   */
+  private boolean takePrefetchedPage() throws IOException {
+    BaseResult<BaseObject> page = prefetcher.take();
+    if (page == null) {
+      prefetchedRecords = Collections.emptyIterator();
+      return false;
     }
+    checkPage(page);
 
+    if (prefetchedPage != null) {
+      prevPage = prefetchedPage;
+    }
+    prefetchedPage = page;
+    prefetchedRecords = (page.getResult() == null) ? Collections.emptyIterator() : page.getResult().iterator();
     iteratorPosition = 0;
-    recordIterator = currentPage.getResult().iterator();
+    return true;
+  }
+
+  private static BaseResult<BaseObject> checkPage(BaseResult<BaseObject> page) {
+    if (!page.isSuccess()) {
+      throw new RuntimeException(String.format("API exception of the query id %s: %s",
+                                               page.getProcessId(), page.getReason(false)));
+    }
+    return page;
   }
 
   private void setIteratorPosition(int iteratorPosition) throws IOException {
     for (int i = 0; i < iteratorPosition; i++) {
-      if (recordIterator.hasNext()) {
-        next();
+      if (prefetcher != null && prefetchedRecords.hasNext()) {
+        prefetchedRecords.next();
+      } else if (prefetcher == null && currentPage.hasNext()) {
+        currentPage.skip();
       } else {
         break;
       }
+      this.iteratorPosition++;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (prefetcher != null) {
+      prefetcher.close();
+    }
+    if (currentPage != null) {
+      currentPage.close();
     }
   }
 }
@@ -0,0 +1,167 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.cdap.plugin.zuora.client.RequestAbortHandle;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.restobjects.ObjectInfo;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Fetches pages in the background thread, so next pages are requested while the current one is processed.
+ *
+ * No more than {@code depth} pages are requested or kept in memory ahead of the consumer.
+ */
+class PagePrefetcher implements Closeable {
+  private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+    .setNameFormat("zuora-page-prefetch-%d")
+    .setDaemon(true)
+    .build();
+
+  private final ZuoraRestClient client;
+  private final ObjectInfo objectInfo;
+  private final Map<String, String> arguments;
+  private final Semaphore permits;
+  private final BlockingQueue<FetchedPage> pages = new LinkedBlockingQueue<>();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(THREAD_FACTORY);
+  private final RequestAbortHandle abortHandle = new RequestAbortHandle();
+  private boolean finished = false;
+
+  /**
+   * Fetched page or failure, page is {@code null} if there are no more pages
+   */
+  private static class FetchedPage {
+    private final BaseResult<BaseObject> page;
+    private final Exception error;
+
+    FetchedPage(@Nullable BaseResult<BaseObject> page, @Nullable Exception error) {
+      this.page = page;
+      this.error = error;
+    }
+  }
+
+  /**
+   * @param previousPage page, after which pages have to be fetched, {@code null} to start from the first page
+   * @param depth number of pages to fetch ahead
+   */
+  PagePrefetcher(ZuoraRestClient client, ObjectInfo objectInfo, Map<String, String> arguments,
+                 @Nullable BaseResult<BaseObject> previousPage, int depth) {
+    this.client = client;
+    this.objectInfo = objectInfo;
+    this.arguments = arguments;
+    this.permits = new Semaphore(depth);
+
+    executor.submit(() -> fetch(previousPage));
+  }
+
+  private void fetch(@Nullable BaseResult<BaseObject> previousPage) {
+    try {
+      permits.acquire();
+      BaseResult<BaseObject> page = (previousPage == null)
+        ? client.getObject(objectInfo, arguments, abortHandle)
+        : client.nextPage(previousPage, abortHandle);
+
+      while (page != null && !Thread.currentThread().isInterrupted()) {
+        pages.add(new FetchedPage(page, null));
+        if (!Boolean.TRUE.equals(page.isSuccess())) {
+          break;  // consumer fails on this page
+        }
+        permits.acquire();
+        page = client.nextPage(page, abortHandle);
+      }
+      pages.add(new FetchedPage(null, null));
+    } catch (InterruptedException e) {
+      // prefetching is cancelled
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      if (!abortHandle.isAborted()) {
+        pages.add(new FetchedPage(null, e));
+      }
+    }
+  }
+
+  /**
+   * Waits for the next page
+   *
+   * @return next page or {@code null} if there are no more pages
+   */
+  @Nullable
+  BaseResult<BaseObject> take() throws IOException {
+    if (finished) {
+      return null;
+    }
+
+    FetchedPage fetched;
+    try {
+      fetched = pages.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the next page");
+    } finally {
+      permits.release();
+    }
+
+    if (fetched.error != null) {
+      finished = true;
+      if (fetched.error instanceof IOException) {
+        throw (IOException) fetched.error;
+      }
+      if (fetched.error instanceof RuntimeException) {
+        throw (RuntimeException) fetched.error;
+      }
+      throw new IOException("Failed to fetch the page", fetched.error);
+    }
+    if (fetched.page == null) {
+      finished = true;
+    }
+    return fetched.page;
+  }
+
+  /**
+   * Cancels fetching of the next pages, request in progress is aborted
+   */
+  @Override
+  public void close() {
+    finished = true;
+    abortHandle.abort();
+    executor.shutdownNow();
+    pages.clear();
+  }
+
+  /**
+   * Waits until the background thread stops after {@link #close()}
+   *
+   * @return {@code true} if the thread is stopped
+   */
+  boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return executor.awaitTermination(timeout, unit);
+  }
+}
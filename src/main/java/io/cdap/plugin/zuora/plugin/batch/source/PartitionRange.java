@@ -0,0 +1,158 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Date range of the object records, read by the single split.
+ *
+ * Range is passed to the API as filter arguments: {@code <field>.GE=<lowerBound>&<field>.LT=<upperBound>}. The API
+ * ignores filters on the fields, which are not filterable for the object, so the records are also checked with
+ * {@link #contains(Object)}.
+ */
+public class PartitionRange {
+  public static final String LOWER_BOUND_OPERATOR = "GE";
+  public static final String UPPER_BOUND_OPERATOR = "LT";
+  private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+  private final String field;
+  private final String lowerBound;
+  private final String upperBound;
+
+  // parsed bounds, not serialized with the split
+  private transient LocalDateTime lowerDateTime;
+  private transient LocalDateTime upperDateTime;
+
+  public PartitionRange(String field, String lowerBound, String upperBound) {
+    this.field = field;
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
+  }
+
+  /**
+   * Splits date range on the equal sub-ranges
+   *
+   * @param field date field to filter records by
+   * @param start inclusive start of the range
+   * @param end exclusive end of the range
+   * @param partitions desired number of the sub-ranges, could be decreased to avoid sub-ranges shorter
+   *                   than a second
+   */
+  public static List<PartitionRange> split(String field, LocalDateTime start, LocalDateTime end, int partitions) {
+    long seconds = Duration.between(start, end).getSeconds();
+    if (seconds <= 0) {
+      throw new IllegalArgumentException(String.format("Partition range start '%s' should be before the end '%s'",
+                                                       start, end));
+    }
+    if (partitions < 1) {
+      throw new IllegalArgumentException("Number of partitions should be positive");
+    }
+
+    int count = (int) Math.min(partitions, seconds);
+    long step = seconds / count;
+
+    List<PartitionRange> ranges = new ArrayList<>(count);
+    LocalDateTime lower = start;
+    for (int i = 1; i <= count; i++) {
+      LocalDateTime upper = (i == count) ? end : start.plusSeconds(step * i);
+      ranges.add(new PartitionRange(field, FORMAT.format(lower), FORMAT.format(upper)));
+      lower = upper;
+    }
+    return ranges;
+  }
+
+  /**
+   * Parses date ("2019-01-31") or date-time ("2019-01-31T10:15:30") in ISO format
+   *
+   * @throws IllegalArgumentException if value could not be parsed
+   */
+  public static LocalDateTime parseDateTime(String value) {
+    try {
+      return (value.contains("T")) ? LocalDateTime.parse(value) : LocalDate.parse(value).atStartOfDay();
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException(String.format("'%s' is not a date or date-time in ISO format", value), e);
+    }
+  }
+
+  /**
+   * Parses date field value, returned by the API, such as {@code 2019-01-31}, {@code 2019-01-31 10:15:30} or
+   * {@code 2019-01-31T10:15:30.000+01:00}. Offset is dropped, as the filter arguments use the same local time.
+   *
+   * @throws IllegalArgumentException if value could not be parsed
+   */
+  public static LocalDateTime parseFieldValue(String value) {
+    String normalized = value.trim().replace(' ', 'T');
+    LocalDateTime dateTime;
+    try {
+      dateTime = OffsetDateTime.parse(normalized).toLocalDateTime();
+    } catch (DateTimeParseException e) {
+      dateTime = parseDateTime(normalized);
+    }
+    return dateTime.truncatedTo(ChronoUnit.SECONDS);
+  }
+
+  /**
+   * @param value value of the partition field of the record
+   * @return {@code true} if the value is within {@code [lowerBound, upperBound)}, records without the value are
+   *         out of any range
+   */
+  public boolean contains(@Nullable Object value) {
+    if (value == null || value.toString().isEmpty()) {
+      return false;
+    }
+    if (lowerDateTime == null) {
+      lowerDateTime = parseDateTime(lowerBound);
+      upperDateTime = parseDateTime(upperBound);
+    }
+    LocalDateTime dateTime = parseFieldValue(value.toString());
+    return !dateTime.isBefore(lowerDateTime) && dateTime.isBefore(upperDateTime);
+  }
+
+  public String getField() {
+    return field;
+  }
+
+  public String getLowerBound() {
+    return lowerBound;
+  }
+
+  public String getUpperBound() {
+    return upperBound;
+  }
+
+  /**
+   * API filter arguments, limiting records to the range
+   */
+  public Map<String, String> toArguments() {
+    return new ImmutableMap.Builder<String, String>()
+      .put(String.format("%s.%s", field, LOWER_BOUND_OPERATOR), lowerBound)
+      .put(String.format("%s.%s", field, UPPER_BOUND_OPERATOR), upperBound)
+      .build();
+  }
+}
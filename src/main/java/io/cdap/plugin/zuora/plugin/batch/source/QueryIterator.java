@@ -0,0 +1,79 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.common.base.Strings;
+import io.cdap.plugin.zuora.client.PageCursor;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.restobjects.ZoqlQuery;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over every record of the ZOQL query result.
+ *
+ * Records are streamed from the response of {@code action/query}, following batches are requested with
+ * {@code action/queryMore} using {@code queryLocator} of the previous one.
+ */
+public class QueryIterator implements Closeable {
+  private final ZuoraRestClient client;
+  private final ZoqlQuery query;
+
+  private PageCursor currentPage;
+
+  public QueryIterator(ZuoraRestClient client, ZoqlQuery query) throws IOException {
+    this.client = client;
+    this.query = query;
+    this.currentPage = client.openQuery(query);
+  }
+
+  public boolean hasNext() throws IOException {
+    while (!currentPage.hasNext()) {
+      BaseResult<BaseObject> page = checkPage(currentPage.getPage());
+      String queryLocator = page.getQueryLocator();
+      if (Boolean.TRUE.equals(page.isDone()) || Strings.isNullOrEmpty(queryLocator)) {
+        return false;
+      }
+      currentPage = client.openQueryMore(query, queryLocator);
+    }
+    return true;
+  }
+
+  public BaseObject next() throws IOException {
+    if (hasNext()) {
+      return currentPage.next();
+    } else {
+      throw new NoSuchElementException("No more objects present.");
+    }
+  }
+
+  private static BaseResult<BaseObject> checkPage(BaseResult<BaseObject> page) {
+    // query responses do not provide success flag, unless the request failed
+    if (Boolean.FALSE.equals(page.isSuccess())) {
+      throw new RuntimeException(String.format("API exception of the query id %s: %s",
+                                               page.getProcessId(), page.getReason(false)));
+    }
+    return page;
+  }
+
+  @Override
+  public void close() throws IOException {
+    currentPage.close();
+  }
+}
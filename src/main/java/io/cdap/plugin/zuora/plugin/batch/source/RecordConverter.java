@@ -0,0 +1,225 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.common.base.Strings;
+import com.google.gson.annotations.SerializedName;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.client.schema.SchemaFieldType;
+import io.cdap.plugin.zuora.restobjects.annotations.ObjectFieldDefinition;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * {@link BaseObject} to {@link StructuredRecord} converter, compiled once for the object class and output schema.
+ *
+ * Every schema field is resolved upfront to the annotated object field, which is read directly, the same way
+ * generated {@link BaseObject#addFields()} adds it, including default value of the absent field. Other fields are
+ * read from {@link BaseObject#getCustomField(String)}, and only if not added there, from {@link BaseObject#asMap()},
+ * e.g. fields of {@link io.cdap.plugin.zuora.restobjects.objects.QueryRecord}. Nested objects are converted by the
+ * converters of their own classes.
+ */
+final class RecordConverter {
+  private final Class<?> objectClass;
+  private final Schema schema;
+  private final FieldConverter[] fields;
+
+  private RecordConverter(Class<?> objectClass, Schema schema, FieldConverter[] fields) {
+    this.objectClass = objectClass;
+    this.schema = schema;
+    this.fields = fields;
+  }
+
+  /**
+   * Resolves fields of the schema to the fields of the object class.
+   *
+   * @param objectClass class of the converted objects
+   * @param schema output schema
+   */
+  static RecordConverter compile(Class<? extends BaseObject> objectClass, Schema schema) {
+    Map<String, Field> declaredFields = getAnnotatedFields(objectClass);
+
+    List<FieldConverter> converters = new ArrayList<>();
+    for (Schema.Field field : Objects.requireNonNull(schema.getFields())) {
+      converters.add(new FieldConverter(field, declaredFields.get(field.getName())));
+    }
+    return new RecordConverter(objectClass, schema, converters.toArray(new FieldConverter[0]));
+  }
+
+  StructuredRecord convert(BaseObject object) {
+    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+    for (FieldConverter field : fields) {
+      field.write(object, builder);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Object fields by the names, object is exposed with by {@link BaseObject#asMap()}
+   */
+  private static Map<String, Field> getAnnotatedFields(Class<?> objectClass) {
+    Map<String, Field> fields = new HashMap<>();
+    for (Class<?> current = objectClass; current != BaseObject.class && current != null;
+         current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        ObjectFieldDefinition definition = field.getAnnotation(ObjectFieldDefinition.class);
+        SerializedName serializedName = field.getAnnotation(SerializedName.class);
+        if (definition == null || (definition.FieldName().isEmpty() && serializedName == null)) {
+          continue;
+        }
+
+        String name = definition.FieldName().isEmpty() ? serializedName.value() : definition.FieldName();
+        if (!Strings.isNullOrEmpty(name) && !fields.containsKey(name) && makeAccessible(field)) {
+          fields.put(name, field);
+        }
+      }
+    }
+    return fields;
+  }
+
+  private static boolean makeAccessible(Field field) {
+    try {
+      field.setAccessible(true);
+      return true;
+    } catch (SecurityException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Writes value of the single schema field
+   */
+  private static final class FieldConverter {
+    private final String name;
+    private final Schema.Type type;
+    private final Schema valueSchema;
+    @Nullable
+    private final Field accessor;
+    @Nullable
+    private final Object defaultValue;
+    // converter of the last seen nested object class
+    private volatile RecordConverter nested;
+
+    FieldConverter(Schema.Field field, @Nullable Field accessor) {
+      Schema fieldSchema = getNonNullable(field.getSchema());
+
+      this.name = field.getName();
+      this.type = fieldSchema.getType();
+      this.valueSchema = (type == Schema.Type.ARRAY) ? getNonNullable(fieldSchema.getComponentSchema()) : fieldSchema;
+
+      Object defaultValue = (accessor == null) ? null : getDefaultValue(accessor.getType());
+      this.accessor = (defaultValue == null) ? null : accessor;
+      this.defaultValue = defaultValue;
+    }
+
+    @Nullable
+    private static Schema getNonNullable(@Nullable Schema schema) {
+      return (schema != null && schema.isNullable()) ? schema.getNonNullable() : schema;
+    }
+
+    /**
+     * Immutable default value of the absent field, {@code null} if field is not of a simple or collection type
+     * and should be read from the object map
+     */
+    @Nullable
+    private static Object getDefaultValue(Class<?> type) {
+      try {
+        Object value = SchemaFieldType.getDefaultValue(type);
+        return (value instanceof BaseObject) ? null : value;
+      } catch (IllegalAccessException | InstantiationException | RuntimeException e) {
+        return null;
+      }
+    }
+
+    void write(BaseObject object, StructuredRecord.Builder builder) {
+      Object value;
+      if (accessor != null) {
+        try {
+          value = accessor.get(object);
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException(String.format("Unable to read field '%s' of '%s'",
+                                                        name, object.getClass().getName()), e);
+        }
+        if (value == null) {
+          value = defaultValue;
+        }
+      } else {
+        value = object.getCustomField(name);
+        if (value == null) {
+          value = object.asMap().get(name);
+        }
+        if (value == null) {
+          return;  // absent field
+        }
+      }
+
+      switch (type) {
+        case RECORD:
+          builder.set(name, convertRecord(value));
+          break;
+        case ARRAY:
+          builder.set(name, convertArray(value));
+          break;
+        default:
+          builder.set(name, value);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object convertRecord(Object value) {
+      if (value instanceof BaseObject) {
+        return getNested((BaseObject) value).convert((BaseObject) value);
+      }
+      if (value instanceof Map) {
+        return ZuoraSourceTransformer.transform((Map<String, Object>) value, valueSchema);
+      }
+      return value;
+    }
+
+    private Object convertArray(Object value) {
+      if (!(value instanceof List)) {
+        return value;
+      }
+      if (valueSchema == null) {
+        throw new IllegalArgumentException(String.format("Unable to extract schema for the field '%s'", name));
+      }
+
+      List<?> items = (List<?>) value;
+      List<Object> records = new ArrayList<>(items.size());
+      for (Object item : items) {
+        records.add(convertRecord(item));
+      }
+      return records;
+    }
+
+    private RecordConverter getNested(BaseObject object) {
+      RecordConverter converter = nested;
+      if (converter == null || converter.objectClass != object.getClass()) {
+        converter = ZuoraSourceTransformer.getConverter(object.getClass(), valueSchema);
+        nested = converter;
+      }
+      return converter;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ObjectSchema;
+import java.io.IOException;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps parsed output schemas of the source stage, so records of the same object do not pay
+ * for {@link Schema#parseJson(String)} or {@link ObjectHelper#buildSchema(String, java.util.List)}
+ * on every emitted record.
+ *
+ * Entries are keyed by the object name plus fingerprint of the schema json.
+ */
+public class SchemaCache {
+  private static final String GENERATED_SCHEMA_FINGERPRINT = "generated";
+  private static final int MAX_ENTRIES = 1000;
+  private static final Cache<String, Schema> SCHEMAS = CacheBuilder.newBuilder()
+    .maximumSize(MAX_ENTRIES)
+    .build();
+
+  /**
+   * Provides parsed schema for the object.
+   *
+   * @param objectName the name, provided via {@link ObjectHelper#getObjectInfo(String)}
+   * @param schemaJson schema json, if {@code null} default object schema would be generated
+   * @return parsed schema
+   * @throws IOException if schema json could not be parsed
+   */
+  public static Schema get(String objectName, @Nullable String schemaJson) throws IOException {
+    String fingerprint = getFingerprint(schemaJson);
+    String key = getKey(objectName, fingerprint);
+    Schema schema = SCHEMAS.getIfPresent(key);
+
+    if (schema == null) {
+      // generated schema is shared with the ObjectHelper, so it is not parsed again
+      ObjectSchema generated = ObjectHelper.getObjectSchema(objectName, null);
+      schema = (schemaJson == null || generated.getFingerprint().equals(fingerprint))
+        ? generated.getSchema()
+        : Schema.parseJson(schemaJson);
+      SCHEMAS.put(key, schema);
+    }
+    return schema;
+  }
+
+  /**
+   * Registers already constructed schema, so it would not be parsed from the json again.
+   *
+   * @param objectName object name
+   * @param schemaJson json representation of the {@code schema}
+   * @param schema schema to cache
+   */
+  public static void put(String objectName, String schemaJson, Schema schema) {
+    SCHEMAS.put(getKey(objectName, getFingerprint(schemaJson)), schema);
+  }
+
+  private static String getFingerprint(@Nullable String schemaJson) {
+    return (schemaJson == null) ? GENERATED_SCHEMA_FINGERPRINT : ObjectSchema.fingerprint(schemaJson);
+  }
+
+  private static String getKey(String objectName, String fingerprint) {
+    return String.format("%s:%s", objectName, fingerprint);
+  }
+}
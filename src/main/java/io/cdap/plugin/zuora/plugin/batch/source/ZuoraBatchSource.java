@@ -31,7 +31,6 @@ import io.cdap.cdap.etl.api.batch.BatchSource;
 import io.cdap.cdap.etl.api.batch.BatchSourceContext;
 import io.cdap.plugin.common.LineageRecorder;
 import io.cdap.plugin.zuora.plugin.common.BaseConfig;
-import io.cdap.plugin.zuora.restobjects.ObjectHelper;
 import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
 import java.io.IOException;
 import java.util.stream.Collectors;
@@ -77,11 +76,7 @@ public class ZuoraBatchSource extends BatchSource<ZuoraSplitArgument, BaseObject
   public void transform(KeyValue<ZuoraSplitArgument, BaseObject> input, Emitter<StructuredRecord> emitter)
     throws IOException {
 
-    Schema schema = (input.getKey().getObjectSchema() == null)
-    ? ObjectHelper.buildSchema(input.getKey().getObjectName(), null)
-    : Schema.parseJson(input.getKey().getObjectSchema());
-
-    emitter.emit(ZuoraSourceTransformer.transform(input.getValue(), schema));
+    emitter.emit(ZuoraSourceTransformer.transform(input.getValue(), input.getKey().getSchema()));
   }
 
   @SuppressWarnings("ThrowableNotThrown")
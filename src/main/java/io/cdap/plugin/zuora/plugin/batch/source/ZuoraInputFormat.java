@@ -38,12 +38,17 @@ public class ZuoraInputFormat extends InputFormat {
    *
    * Minimal unit for the parallelization is an object.
    *
-   * In the single-object mode would be always only one split, as REST API does not
+   * In the single-object mode would be only one split, as REST API does not
    * provide information on amount of records returned.
    *
    * In multi-object mode, amount of splits would be the same as amount of
    * the objects selected by the user.
    *
+   * ZOQL query is always read by the single split, as query results can only be read sequentially.
+   *
+   * If partitioning by date field is configured, each object is additionally split
+   * on the configured number of date ranges.
+   *
    * @param jobContext context of the job
    * @return splits
    */
@@ -55,8 +60,8 @@ public class ZuoraInputFormat extends InputFormat {
       ZuoraSourceConfig.class
     );
 
-    return conf.getObjectsWithSchema()
-      .parallelStream()
+    return conf.getSplitArguments()
+      .stream()
       .map(ZuoraSourceSplit::new)
       .collect(Collectors.toList());
   }
@@ -73,6 +78,9 @@ public class ZuoraInputFormat extends InputFormat {
 
     ZuoraSourceSplit sourceSplit = (ZuoraSourceSplit) inputSplit;
 
+    if (conf.isQueryMode()) {
+      return new ZuoraQueryRecordReader(sourceSplit.getArguments());
+    }
     return (conf.isSingleObjectMode())
       ? new ZuoraRecordReader(sourceSplit.getArguments())
       : new ZuoraRecordMultiReader(sourceSplit.getArguments());
@@ -0,0 +1,90 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.gson.Gson;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import java.io.IOException;
+
+/**
+ * RecordReader implementation, which reads records of the ZOQL query result from Zuora API
+ */
+public class ZuoraQueryRecordReader extends RecordReader<ZuoraSplitArgument, BaseObject> {
+  private static final Gson gson = new Gson();
+
+  private ZuoraSplitArgument arguments;
+  private ZuoraRestClient client;
+  private QueryIterator queryIterator;
+  private BaseObject currentRecord;
+
+  public ZuoraQueryRecordReader(ZuoraSplitArgument arguments) {
+    this.arguments = arguments;
+  }
+
+  @Override
+  public void initialize(InputSplit inputSplit, TaskAttemptContext taskAttemptContext) throws IOException {
+    Configuration configuration = taskAttemptContext.getConfiguration();
+    ZuoraSourceConfig conf = gson.fromJson(
+      configuration.get(ZuoraSourceConfig.PROPERTY_CONFIG_JSON),
+      ZuoraSourceConfig.class
+    );
+    client = new ZuoraRestClient(conf);
+    queryIterator = new QueryIterator(client, conf.getZoqlQuery());
+  }
+
+  @Override
+  public boolean nextKeyValue() throws IOException {
+    if (!queryIterator.hasNext()) {
+      return false;
+    }
+
+    currentRecord = queryIterator.next();
+    return true;
+  }
+
+  @Override
+  public ZuoraSplitArgument getCurrentKey() {
+    return arguments;
+  }
+
+  @Override
+  public BaseObject getCurrentValue() {
+    return currentRecord;
+  }
+
+  @Override
+  public float getProgress() {
+    return 0.0f;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if (queryIterator != null) {
+        queryIterator.close();
+      }
+    } finally {
+      if (client != null) {
+        client.close();
+      }
+    }
+  }
+}
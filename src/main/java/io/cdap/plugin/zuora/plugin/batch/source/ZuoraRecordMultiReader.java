@@ -33,12 +33,12 @@ public class ZuoraRecordMultiReader extends ZuoraRecordReader {
   public ZuoraRecordMultiReader(ZuoraSplitArgument arguments) throws IOException {
     super(arguments);
 
-    Schema schema = Schema.parseJson(arguments.getObjectSchema());
+    Schema schema = arguments.getSchema();
     List<Pair<String, Schema.Type>> multiObjectFields = new ArrayList<>();
     multiObjectFields.add(new Pair<>(BaseConfig.OBJECT_NAME_FIELD, Schema.Type.STRING));
 
     schema = ObjectHelper.alterSchema(arguments.getObjectName(), schema, multiObjectFields);
-    this.arguments = new ZuoraSplitArgument(arguments.getObjectName(), schema.toString());
+    this.arguments = new ZuoraSplitArgument(arguments.getObjectName(), schema, arguments.getPartition());
   }
 
   @Override
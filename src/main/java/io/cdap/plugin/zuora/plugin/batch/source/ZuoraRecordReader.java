@@ -17,6 +17,7 @@
 package io.cdap.plugin.zuora.plugin.batch.source;
 
 import com.google.gson.Gson;
+import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.plugin.zuora.client.ZuoraRestClient;
 import io.cdap.plugin.zuora.restobjects.ObjectHelper;
 import io.cdap.plugin.zuora.restobjects.ObjectInfo;
@@ -26,9 +27,13 @@ import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.RecordReader;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import java.io.IOException;
+import javax.annotation.Nullable;
 
 /**
- * RecordReader implementation, which reads {@link BaseObject} instances from Zuora API
+ * RecordReader implementation, which reads {@link BaseObject} instances from Zuora API.
+ *
+ * Records of the partitioned split are checked against its {@link PartitionRange}, as the API ignores filters on the
+ * fields, which are not filterable for the object, and would return all the records to every split.
  */
 public class ZuoraRecordReader extends RecordReader<ZuoraSplitArgument, BaseObject> {
   private static final Gson gson = new Gson();
@@ -39,6 +44,10 @@ public class ZuoraRecordReader extends RecordReader<ZuoraSplitArgument, BaseObje
   protected BaseObject currentRecord;
   protected PageIterator pageIterator;
 
+  // single partition field of the object, null if the split is not partitioned
+  @Nullable
+  private Schema partitionSchema;
+
   public ZuoraRecordReader(ZuoraSplitArgument arguments) {
     this.arguments = arguments;
   }
@@ -52,17 +61,38 @@ public class ZuoraRecordReader extends RecordReader<ZuoraSplitArgument, BaseObje
     );
     client = new ZuoraRestClient(conf);
     ObjectInfo objectInfo = ObjectHelper.getObjectInfo(arguments.getObjectName());
-    pageIterator = new PageIterator(client, objectInfo, conf.getArguments());
+    pageIterator = new PageIterator(client, objectInfo, arguments.getRequestArguments(conf.getArguments()),
+                                    conf.getPrefetchPages());
+
+    PartitionRange partition = arguments.getPartition();
+    if (partition != null) {
+      Schema.Field field = ObjectHelper.buildSchema(objectInfo.getCdapObjectName(), null)
+        .getField(partition.getField());
+      partitionSchema = Schema.recordOf("partition", (field == null)
+        ? Schema.Field.of(partition.getField(), Schema.nullableOf(Schema.of(Schema.Type.STRING)))
+        : field);
+    }
   }
 
   @Override
   public boolean nextKeyValue() throws IOException {
-    if (!pageIterator.hasNext()) {
-      return false;
+    while (pageIterator.hasNext()) {
+      BaseObject record = pageIterator.next();
+      if (isInPartition(record)) {
+        currentRecord = record;
+        return true;
+      }
     }
+    return false;
+  }
 
-    currentRecord = pageIterator.next();
-    return true;
+  private boolean isInPartition(BaseObject record) {
+    if (partitionSchema == null) {
+      return true;
+    }
+    PartitionRange partition = arguments.getPartition();
+    Object value = ZuoraSourceTransformer.transform(record, partitionSchema).get(partition.getField());
+    return partition.contains(value);
   }
 
   @Override
@@ -81,7 +111,15 @@ public class ZuoraRecordReader extends RecordReader<ZuoraSplitArgument, BaseObje
   }
 
   @Override
-  public void close() {
-    //no-op
+  public void close() throws IOException {
+    try {
+      if (pageIterator != null) {
+        pageIterator.close();
+      }
+    } finally {
+      if (client != null) {
+        client.close();
+      }
+    }
   }
 }
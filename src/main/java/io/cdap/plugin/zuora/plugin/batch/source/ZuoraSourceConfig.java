@@ -16,6 +16,7 @@
 
 package io.cdap.plugin.zuora.plugin.batch.source;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Macro;
@@ -24,6 +25,8 @@ import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.plugin.zuora.plugin.common.BaseConfig;
 import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ZoqlQuery;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -34,6 +37,13 @@ import javax.annotation.Nullable;
  */
 public class ZuoraSourceConfig extends BaseConfig {
   public static final String PROPERTY_BASE_OBJECTS_TO_PULL = "baseObjects";
+  public static final String PROPERTY_QUERY = "query";
+  public static final String PROPERTY_PREFETCH_PAGES = "prefetchPages";
+  public static final int MAX_PREFETCH_PAGES = 16;
+  public static final String PROPERTY_PARTITION_FIELD = "partitionField";
+  public static final String PROPERTY_PARTITION_START = "partitionStart";
+  public static final String PROPERTY_PARTITION_END = "partitionEnd";
+  public static final String PROPERTY_NUM_PARTITIONS = "numPartitions";
 
 
   @Macro
@@ -42,6 +52,47 @@ public class ZuoraSourceConfig extends BaseConfig {
   @Nullable
   private String baseObjectsToPull;
 
+  @Macro
+  @Name(PROPERTY_QUERY)
+  @Description("ZOQL query to read records with, for example \"select Id, Name from Account where Status = "
+    + "'Active'\". Selected objects are ignored, if set.")
+  @Nullable
+  private String query;
+
+  @Macro
+  @Name(PROPERTY_PREFETCH_PAGES)
+  @Description("Number of pages requested in the background ahead of the processed one. "
+    + "0 disables prefetching, records of the single page are streamed.")
+  @Nullable
+  private Integer prefetchPages;
+
+  @Macro
+  @Name(PROPERTY_PARTITION_FIELD)
+  @Description("Date field used to split reading of every object on the date ranges, "
+    + "for example 'updatedDate'. Reading is not split, if not set.")
+  @Nullable
+  private String partitionField;
+
+  @Macro
+  @Name(PROPERTY_PARTITION_START)
+  @Description("Inclusive start of the partitioned date range in ISO format, for example '2019-01-01' "
+    + "or '2019-01-01T00:00:00'")
+  @Nullable
+  private String partitionStart;
+
+  @Macro
+  @Name(PROPERTY_PARTITION_END)
+  @Description("Exclusive end of the partitioned date range in ISO format, for example '2020-01-01' "
+    + "or '2020-01-01T00:00:00'")
+  @Nullable
+  private String partitionEnd;
+
+  @Macro
+  @Name(PROPERTY_NUM_PARTITIONS)
+  @Description("Number of the equal date ranges, the partitioned range is split on")
+  @Nullable
+  private Integer numPartitions;
+
 
   public ZuoraSourceConfig(String referenceName) {
     super(referenceName);
@@ -56,6 +107,9 @@ public class ZuoraSourceConfig extends BaseConfig {
    * Determines plugin working mode
    */
   public boolean isSingleObjectMode() {
+    if (isQueryMode()) {
+      return true;
+    }
     List<String> objects = getObjects();
     return objects == null || objects.size() <= 1;
   }
@@ -66,6 +120,9 @@ public class ZuoraSourceConfig extends BaseConfig {
    * @return user configured schema
    */
   public Schema getSchema(boolean forceGeneration) {
+    if (isQueryMode()) {
+      return getZoqlQuery().getSchema();
+    }
     List<String> objects = getObjects();
 
     if (objects == null || objects.size() == 0) {
@@ -87,8 +144,80 @@ public class ZuoraSourceConfig extends BaseConfig {
   }
 
   public List<ZuoraSplitArgument> getObjectsWithSchema() {
+    if (isQueryMode()) {
+      ZoqlQuery zoqlQuery = getZoqlQuery();
+      return Collections.singletonList(new ZuoraSplitArgument(zoqlQuery.getObjectName(),
+                                                              zoqlQuery.getSchema().toString()));
+    }
     return getObjects().stream()
-      .map(x -> new ZuoraSplitArgument(x, ObjectHelper.buildSchema(x, null).toString()))
+      .map(x -> new ZuoraSplitArgument(x, ObjectHelper.getObjectSchema(x, null).getJson()))
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Determines if records are read with ZOQL query instead of the selected objects
+   */
+  public boolean isQueryMode() {
+    return !Strings.isNullOrEmpty(query);
+  }
+
+  @Nullable
+  public String getQuery() {
+    return query;
+  }
+
+  /**
+   * @throws IllegalArgumentException if query is not set or not supported
+   */
+  public ZoqlQuery getZoqlQuery() {
+    if (!isQueryMode()) {
+      throw new IllegalArgumentException("ZOQL query is not set");
+    }
+    return ZoqlQuery.parse(query);
+  }
+
+  public int getPrefetchPages() {
+    return (prefetchPages == null) ? 0 : prefetchPages;
+  }
+
+  public boolean isPartitioned() {
+    return !Strings.isNullOrEmpty(partitionField);
+  }
+
+  @Nullable
+  public String getPartitionField() {
+    return partitionField;
+  }
+
+  @Nullable
+  public String getPartitionStart() {
+    return partitionStart;
+  }
+
+  @Nullable
+  public String getPartitionEnd() {
+    return partitionEnd;
+  }
+
+  public int getNumPartitions() {
+    return (numPartitions == null) ? 1 : numPartitions;
+  }
+
+  /**
+   * Arguments of the splits to read. One split per object, or, if partitioning is configured,
+   * {@link #getNumPartitions()} splits per object.
+   */
+  public List<ZuoraSplitArgument> getSplitArguments() {
+    List<ZuoraSplitArgument> objects = getObjectsWithSchema();
+    if (!isPartitioned()) {
+      return objects;
+    }
+
+    List<PartitionRange> ranges = PartitionRange.split(partitionField, PartitionRange.parseDateTime(partitionStart),
+                                                       PartitionRange.parseDateTime(partitionEnd), getNumPartitions());
+    return objects.stream()
+      .flatMap(object -> ranges.stream()
+        .map(range -> new ZuoraSplitArgument(object.getObjectName(), object.getObjectSchema(), range)))
       .collect(Collectors.toList());
   }
 
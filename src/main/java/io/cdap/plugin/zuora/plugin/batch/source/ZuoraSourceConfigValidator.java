@@ -16,9 +16,14 @@
 
 package io.cdap.plugin.zuora.plugin.batch.source;
 
+import com.google.common.base.Strings;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.plugin.common.IdUtils;
 import io.cdap.plugin.zuora.plugin.common.BaseConfigValidator;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ObjectInfo;
+import java.time.LocalDateTime;
+import javax.annotation.Nullable;
 
 /**
  * Source config validator
@@ -38,12 +43,98 @@ public class ZuoraSourceConfigValidator extends BaseConfigValidator {
     }
   }
 
+  private void checkQuery() {
+    try {
+      config.getZoqlQuery();
+    } catch (IllegalArgumentException e) {
+      failureCollector.addFailure(e.getMessage(), "Use 'select <field>, ... from <object> [where <condition>]' form")
+        .withConfigProperty(ZuoraSourceConfig.PROPERTY_QUERY);
+    }
+    if (!config.containsMacro(ZuoraSourceConfig.PROPERTY_PARTITION_FIELD) && config.isPartitioned()) {
+      failureCollector.addFailure("Partitioning is not supported for ZOQL query",
+                                  "Add date range condition to the query instead")
+        .withConfigProperty(ZuoraSourceConfig.PROPERTY_PARTITION_FIELD);
+    }
+  }
+
+  private void checkPrefetchPages() {
+    int prefetchPages = config.getPrefetchPages();
+    if (prefetchPages < 0 || prefetchPages > ZuoraSourceConfig.MAX_PREFETCH_PAGES) {
+      failureCollector.addFailure(String.format("Number of prefetched pages should be in range from 0 to %d",
+                                                ZuoraSourceConfig.MAX_PREFETCH_PAGES), null)
+        .withConfigProperty(ZuoraSourceConfig.PROPERTY_PREFETCH_PAGES);
+    }
+  }
+
+  private boolean partitioningContainsMacro() {
+    return config.containsMacro(ZuoraSourceConfig.PROPERTY_PARTITION_FIELD)
+      || config.containsMacro(ZuoraSourceConfig.PROPERTY_PARTITION_START)
+      || config.containsMacro(ZuoraSourceConfig.PROPERTY_PARTITION_END)
+      || config.containsMacro(ZuoraSourceConfig.PROPERTY_NUM_PARTITIONS)
+      || config.containsMacro(ZuoraSourceConfig.PROPERTY_BASE_OBJECTS_TO_PULL);
+  }
+
+  @Nullable
+  private LocalDateTime checkPartitionBound(String value, String property) {
+    if (Strings.isNullOrEmpty(value)) {
+      failureCollector.addFailure("Partition range bound is not set", null)
+        .withConfigProperty(property);
+      return null;
+    }
+    try {
+      return PartitionRange.parseDateTime(value);
+    } catch (IllegalArgumentException e) {
+      failureCollector.addFailure(e.getMessage(), "Use 'yyyy-MM-dd' or 'yyyy-MM-ddTHH:mm:ss' format")
+        .withConfigProperty(property);
+      return null;
+    }
+  }
+
+  private void checkPartitioning() {
+    String field = config.getPartitionField();
+
+    config.getObjects().forEach(object -> {
+      ObjectInfo objectInfo = ObjectHelper.getObjectInfo(object);
+      if (objectInfo != null && objectInfo.getFieldDefinition(field) == null) {
+        failureCollector.addFailure(String.format("Object '%s' does not provide field '%s'", object, field), null)
+          .withConfigProperty(ZuoraSourceConfig.PROPERTY_PARTITION_FIELD);
+      }
+    });
+
+    LocalDateTime start = checkPartitionBound(config.getPartitionStart(), ZuoraSourceConfig.PROPERTY_PARTITION_START);
+    LocalDateTime end = checkPartitionBound(config.getPartitionEnd(), ZuoraSourceConfig.PROPERTY_PARTITION_END);
+    if (start != null && end != null && !start.isBefore(end)) {
+      failureCollector.addFailure("Partition range start should be before the end", null)
+        .withConfigProperty(ZuoraSourceConfig.PROPERTY_PARTITION_START)
+        .withConfigProperty(ZuoraSourceConfig.PROPERTY_PARTITION_END);
+    }
+
+    if (config.getNumPartitions() < 1) {
+      failureCollector.addFailure("Number of partitions should be positive", null)
+        .withConfigProperty(ZuoraSourceConfig.PROPERTY_NUM_PARTITIONS);
+    }
+  }
+
   @Override
   public void doValidation() {
     IdUtils.validateReferenceName(config.referenceName, failureCollector);
 
+    if (config.containsMacro(ZuoraSourceConfig.PROPERTY_QUERY)) {
+      return;
+    }
+    if (config.isQueryMode()) {
+      checkQuery();
+      return;
+    }
+
     if (!config.containsMacro(ZuoraSourceConfig.PROPERTY_BASE_OBJECTS_TO_PULL)) {
       checkObjects();
     }
+    if (!config.containsMacro(ZuoraSourceConfig.PROPERTY_PREFETCH_PAGES)) {
+      checkPrefetchPages();
+    }
+    if (!partitioningContainsMacro() && config.isPartitioned()) {
+      checkPartitioning();
+    }
   }
 }
@@ -23,7 +23,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 
 /**
- * Basic split on per-object basis
+ * Basic split on per-object basis, optionally limited to the date range of the object records
  */
 public class ZuoraSourceSplit extends InputSplit implements Writable {
   private ZuoraSplitArgument arguments;
@@ -41,13 +41,26 @@ public class ZuoraSourceSplit extends InputSplit implements Writable {
   public void write(DataOutput dataOutput) throws IOException {
    dataOutput.writeUTF(arguments.getObjectName());
    dataOutput.writeUTF(arguments.getObjectSchema());
+
+   PartitionRange partition = arguments.getPartition();
+   dataOutput.writeBoolean(partition != null);
+   if (partition != null) {
+     dataOutput.writeUTF(partition.getField());
+     dataOutput.writeUTF(partition.getLowerBound());
+     dataOutput.writeUTF(partition.getUpperBound());
+   }
   }
 
   @Override
   public void readFields(DataInput dataInput) throws IOException {
     String name = dataInput.readUTF();
     String schema = dataInput.readUTF();
-    arguments = new ZuoraSplitArgument(name, schema);
+
+    PartitionRange partition = null;
+    if (dataInput.readBoolean()) {
+      partition = new PartitionRange(dataInput.readUTF(), dataInput.readUTF(), dataInput.readUTF());
+    }
+    arguments = new ZuoraSplitArgument(name, schema, partition);
   }
 
   @Override
@@ -23,12 +23,15 @@ import io.cdap.plugin.zuora.restobjects.objects.EmptyObject;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * {@link BaseObject} to {@link StructuredRecord} transformer
  */
 public class ZuoraSourceTransformer {
+  // object class -> output schema -> converter
+  private static final Map<Class<?>, Map<Schema, RecordConverter>> CONVERTERS = new ConcurrentHashMap<>();
 
   @SuppressWarnings("unchecked")
   private static void transformValue(String k, Object v, Schema schema, StructuredRecord.Builder builder) {
@@ -64,12 +67,15 @@ public class ZuoraSourceTransformer {
     return builder.build();
   }
 
+  /**
+   * Transforms object with the converter, compiled on the first object of the same class and schema.
+   */
   public static StructuredRecord transform(BaseObject object, Schema schema) {
-    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
-
-    object.asFilteredMap(schema)
-      .forEach((k, v) -> transformValue(k, v, schema, builder));
+    return getConverter(object.getClass(), schema).convert(object);
+  }
 
-    return builder.build();
+  static RecordConverter getConverter(Class<? extends BaseObject> objectClass, Schema schema) {
+    return CONVERTERS.computeIfAbsent(objectClass, x -> new ConcurrentHashMap<>())
+      .computeIfAbsent(schema, x -> RecordConverter.compile(objectClass, schema));
   }
 }
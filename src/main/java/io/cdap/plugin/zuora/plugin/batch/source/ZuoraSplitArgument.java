@@ -16,16 +16,44 @@
 
 package io.cdap.plugin.zuora.plugin.batch.source;
 
+import io.cdap.cdap.api.data.schema.Schema;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
 /**
  * Represents split argument POJO class
  */
 public class ZuoraSplitArgument {
   private String objectName;
   private String objectSchema;
+  private PartitionRange partition;
+
+  // resolved once per split and reused for every record of the split
+  private transient Schema schema;
 
   public ZuoraSplitArgument(String name, String schema) {
+    this(name, schema, null);
+  }
+
+  /**
+   * @param partition range of the records to read, {@code null} to read all records of the object
+   */
+  public ZuoraSplitArgument(String name, String schema, @Nullable PartitionRange partition) {
     this.objectName = name;
     this.objectSchema = schema;
+    this.partition = partition;
+  }
+
+  public ZuoraSplitArgument(String name, Schema schema) {
+    this(name, schema, null);
+  }
+
+  public ZuoraSplitArgument(String name, Schema schema, @Nullable PartitionRange partition) {
+    this(name, schema.toString(), partition);
+    this.schema = schema;
+    SchemaCache.put(name, objectSchema, schema);
   }
 
   public String getObjectName() {
@@ -35,4 +63,35 @@ public class ZuoraSplitArgument {
   public String getObjectSchema() {
     return objectSchema;
   }
+
+  @Nullable
+  public PartitionRange getPartition() {
+    return partition;
+  }
+
+  /**
+   * API request arguments of the split
+   *
+   * @param arguments arguments, common for all splits
+   * @return arguments extended with partition filter arguments
+   */
+  @Nullable
+  public Map<String, String> getRequestArguments(@Nullable Map<String, String> arguments) {
+    if (partition == null) {
+      return arguments;
+    }
+    Map<String, String> requestArguments = (arguments == null) ? new HashMap<>() : new HashMap<>(arguments);
+    requestArguments.putAll(partition.toArguments());
+    return requestArguments;
+  }
+
+  /**
+   * Parsed representation of the {@link #getObjectSchema()}, generated schema used if no schema provided.
+   */
+  public Schema getSchema() throws IOException {
+    if (schema == null) {
+      schema = SchemaCache.get(objectName, objectSchema);
+    }
+    return schema;
+  }
 }
@@ -21,6 +21,7 @@ import io.cdap.cdap.api.annotation.Macro;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.plugin.common.ReferencePluginConfig;
+import io.cdap.plugin.zuora.client.ConnectionSettings;
 import javax.annotation.Nullable;
 
 /**
@@ -38,6 +39,9 @@ public abstract class BaseConfig extends ReferencePluginConfig {
   public static final String PROPERTY_CLIENT_ID = "authClientId";
   public static final String PROPERTY_CLIENT_SECRET = "authClientSecret";
   public static final String PROPERTY_REST_API = "apiEndpoint";
+  public static final String PROPERTY_MAX_CONNECTIONS = "maxConnections";
+  public static final String PROPERTY_CONNECTION_KEEP_ALIVE = "connectionKeepAlive";
+  public static final String PROPERTY_CONNECTION_IDLE_TIMEOUT = "connectionIdleTimeout";
   private static final String EMPTY_STRING = "";
 
   @Macro
@@ -74,6 +78,24 @@ public abstract class BaseConfig extends ReferencePluginConfig {
   @Description("REST API Endpoint")
   private String apiEndpoint;
 
+  @Macro
+  @Name(PROPERTY_MAX_CONNECTIONS)
+  @Description("Maximum number of connections to the API, shared by all tasks running in the same JVM")
+  @Nullable
+  private Integer maxConnections;
+
+  @Macro
+  @Name(PROPERTY_CONNECTION_KEEP_ALIVE)
+  @Description("Time in seconds to keep the connection open for reuse, unless the API requires shorter time")
+  @Nullable
+  private Integer connectionKeepAlive;
+
+  @Macro
+  @Name(PROPERTY_CONNECTION_IDLE_TIMEOUT)
+  @Description("Time in seconds, after which unused connection is closed")
+  @Nullable
+  private Integer connectionIdleTimeout;
+
 
   public BaseConfig(String referenceName) {
     super(referenceName);
@@ -119,4 +141,16 @@ public abstract class BaseConfig extends ReferencePluginConfig {
   public String getApiEndpoint() {
     return apiEndpoint;
   }
+
+  public int getMaxConnections() {
+    return (maxConnections == null) ? ConnectionSettings.DEFAULT_MAX_CONNECTIONS : maxConnections;
+  }
+
+  public int getConnectionKeepAlive() {
+    return (connectionKeepAlive == null) ? ConnectionSettings.DEFAULT_KEEP_ALIVE_SECONDS : connectionKeepAlive;
+  }
+
+  public int getConnectionIdleTimeout() {
+    return (connectionIdleTimeout == null) ? ConnectionSettings.DEFAULT_IDLE_TIMEOUT_SECONDS : connectionIdleTimeout;
+  }
 }
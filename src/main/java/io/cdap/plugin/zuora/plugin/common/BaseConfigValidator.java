@@ -19,6 +19,7 @@ package io.cdap.plugin.zuora.plugin.common;
 import com.google.common.base.Strings;
 import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.cdap.etl.api.validation.ValidationFailure;
+import io.cdap.plugin.zuora.client.ConnectionSettings;
 import io.cdap.plugin.zuora.client.ZuoraRestClient;
 import java.io.IOException;
 
@@ -44,8 +45,8 @@ public abstract class BaseConfigValidator {
     }
   }
 
-  private void checkAuthData() {
-    boolean tryToLogin = true;
+  private void checkAuthData(boolean validConnectionSettings) {
+    boolean tryToLogin = validConnectionSettings;
 
     if (Strings.isNullOrEmpty(config.getAuthUsername())) {
       failureCollector.addFailure("User name is not set", null)
@@ -59,10 +60,22 @@ public abstract class BaseConfigValidator {
     }
 
     if (tryToLogin) {
-      client = new ZuoraRestClient(config);
+      client = createClient();
     }
   }
 
+  /**
+   * Connection settings, which are macros, are known only at runtime, so the client, used to check connectivity,
+   * is constructed with the default ones
+   */
+  private ZuoraRestClient createClient() {
+    if (connectionSettingsContainsMacro()) {
+      return new ZuoraRestClient(config.getApiEndpoint(), config.getAuthUsername(), config.getAuthPassword(),
+                                 config.getAuthType() == AuthType.BASIC, ConnectionSettings.getDefault());
+    }
+    return new ZuoraRestClient(config);
+  }
+
   private void checkClientConnectivity() {
     try {
       client.checkConnection();
@@ -83,6 +96,37 @@ public abstract class BaseConfigValidator {
     }
   }
 
+  private boolean checkPositive(String property, int value, String name) {
+    if (config.containsMacro(property)) {
+      return true;
+    }
+    if (value < 1) {
+      failureCollector.addFailure(String.format("%s should be positive", name), null)
+        .withConfigProperty(property);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * @return {@code true} if client could be constructed with the connection settings, settings, which are macros,
+   *         are not checked
+   */
+  private boolean checkConnectionSettings() {
+    // all checks are performed to report every failure
+    return checkPositive(BaseConfig.PROPERTY_MAX_CONNECTIONS, config.getMaxConnections(),
+                         "Maximum number of connections")
+      & checkPositive(BaseConfig.PROPERTY_CONNECTION_KEEP_ALIVE, config.getConnectionKeepAlive(), "Keep-alive time")
+      & checkPositive(BaseConfig.PROPERTY_CONNECTION_IDLE_TIMEOUT, config.getConnectionIdleTimeout(),
+                      "Idle connection timeout");
+  }
+
+  private boolean connectionSettingsContainsMacro() {
+    return config.containsMacro(BaseConfig.PROPERTY_MAX_CONNECTIONS)
+      || config.containsMacro(BaseConfig.PROPERTY_CONNECTION_KEEP_ALIVE)
+      || config.containsMacro(BaseConfig.PROPERTY_CONNECTION_IDLE_TIMEOUT);
+  }
+
   private boolean authContainsMacro() {
     return config.containsMacro(BaseConfig.PROPERTY_USERNAMENAME)
       || config.containsMacro(BaseConfig.PROPERTY_PASSWORD)
@@ -102,15 +146,31 @@ public abstract class BaseConfigValidator {
       checkAuthType();
     }
 
+    boolean validConnectionSettings = checkConnectionSettings();
     if (!authContainsMacro()) {
-      checkAuthData();
+      checkAuthData(validConnectionSettings);
     }
 
     doValidation();
 
     // client could be not constructed, if any of checkAuth tests failed
-    if (client != null && !authContainsMacro()) {
-      checkClientConnectivity();
+    if (client != null) {
+      try {
+        if (!authContainsMacro()) {
+          checkClientConnectivity();
+        }
+      } finally {
+        closeClient();
+      }
     }
   }
+
+  private void closeClient() {
+    try {
+      client.close();
+    } catch (IOException e) {
+      // no-op, connections are released anyway
+    }
+    client = null;
+  }
 }
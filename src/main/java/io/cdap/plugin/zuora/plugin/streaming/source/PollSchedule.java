@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.cdap.plugin.zuora.plugin.streaming.source;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Delays between polls of the object.
+ *
+ * Fixed schedule polls every {@code interval}. Adaptive schedule starts with {@code minInterval}, halves the delay
+ * after the poll, which received changes, and doubles it after the idle poll, up to {@code interval}. Poll, which was
+ * slowed down by the API rate limit, is treated as idle, so polling backs off when the tenant quota runs low.
+ */
+public class PollSchedule implements Serializable {
+  private static final Pattern INTERVAL = Pattern.compile(
+    "(\\d+)\\s*(s|sec|secs|second|seconds|m|min|mins|minute|minutes|h|hour|hours)");
+
+  private final long intervalSeconds;
+  private final long minIntervalSeconds;
+  private final boolean adaptive;
+
+  private PollSchedule(long intervalSeconds, long minIntervalSeconds, boolean adaptive) {
+    this.intervalSeconds = intervalSeconds;
+    this.minIntervalSeconds = minIntervalSeconds;
+    this.adaptive = adaptive;
+  }
+
+  public static PollSchedule fixed(long intervalSeconds) {
+    return new PollSchedule(intervalSeconds, intervalSeconds, false);
+  }
+
+  /**
+   * @param minIntervalSeconds delay while polls receive changes
+   * @param maxIntervalSeconds delay while polls are idle
+   */
+  public static PollSchedule adaptive(long minIntervalSeconds, long maxIntervalSeconds) {
+    if (minIntervalSeconds > maxIntervalSeconds) {
+      throw new IllegalArgumentException(String.format("Minimum interval of %d seconds exceeds maximum of %d seconds",
+                                                       minIntervalSeconds, maxIntervalSeconds));
+    }
+    return new PollSchedule(maxIntervalSeconds, minIntervalSeconds, true);
+  }
+
+  /**
+   * Parses interval, such as {@code 30 sec}, {@code 15 min} or {@code 1 hour}
+   *
+   * @return interval in seconds
+   * @throws IllegalArgumentException if value could not be parsed or is not positive
+   */
+  public static long parseSeconds(String value) {
+    Matcher matcher = INTERVAL.matcher(value.trim().toLowerCase(Locale.ROOT));
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException(String.format(
+        "Unexpected interval '%s', expected number of seconds, minutes or hours, such as '30 sec' or '15 min'",
+        value));
+    }
+
+    long amount = Long.parseLong(matcher.group(1));
+    if (amount <= 0) {
+      throw new IllegalArgumentException(String.format("Interval '%s' should be positive", value));
+    }
+    switch (matcher.group(2).charAt(0)) {
+      case 'h':
+        return TimeUnit.HOURS.toSeconds(amount);
+      case 'm':
+        return TimeUnit.MINUTES.toSeconds(amount);
+      default:
+        return amount;
+    }
+  }
+
+  public boolean isAdaptive() {
+    return adaptive;
+  }
+
+  /**
+   * Delay before the first poll after the start of the receiver
+   */
+  public long getInitialDelaySeconds() {
+    return adaptive ? minIntervalSeconds : intervalSeconds;
+  }
+
+  /**
+   * @param previousDelaySeconds delay before the poll
+   * @param received number of the records received by the poll
+   * @param throttled whether requests of the poll were delayed by the API rate limit
+   * @return delay before the next poll
+   */
+  public long getNextDelaySeconds(long previousDelaySeconds, long received, boolean throttled) {
+    if (!adaptive) {
+      return intervalSeconds;
+    }
+    long delay = (received > 0 && !throttled) ? previousDelaySeconds / 2 : previousDelaySeconds * 2;
+    return Math.max(minIntervalSeconds, Math.min(intervalSeconds, delay));
+  }
+}
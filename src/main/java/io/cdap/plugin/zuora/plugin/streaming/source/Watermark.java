@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.cdap.plugin.zuora.plugin.streaming.source;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.cdap.plugin.zuora.plugin.batch.source.PartitionRange;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * High-watermark of the object records, received by the streaming source.
+ *
+ * Watermark is the latest value of the date field, such as {@code updatedDate}, of the received records, truncated to
+ * seconds. Records are requested with {@code <field>.GE=<watermark>} filter argument, so records updated in the same
+ * second after the previous poll are not missed. Ids of the records received at the watermark are kept to skip
+ * them when they are returned once more.
+ */
+public class Watermark implements Serializable {
+  private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+  private static final String LOWER_BOUND_OPERATOR = "GE";
+
+  private final String value;
+  private final Set<String> ids;
+
+  public Watermark(@Nullable String value, Set<String> ids) {
+    this.value = value;
+    this.ids = ImmutableSet.copyOf(ids);
+  }
+
+  /**
+   * Watermark of the object, which records were not received yet
+   */
+  public static Watermark empty() {
+    return new Watermark(null, Collections.emptySet());
+  }
+
+  /**
+   * @return latest received date in {@code yyyy-MM-dd'T'HH:mm:ss} format, {@code null} if nothing was received
+   */
+  @Nullable
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * @return ids of the received records, which date is equal to the watermark
+   */
+  public Set<String> getIds() {
+    return ids;
+  }
+
+  /**
+   * API filter arguments, limiting records to the ones, which were not received before the watermark
+   *
+   * @param field date field to filter records by
+   */
+  public Map<String, String> toArguments(String field) {
+    if (value == null) {
+      return Collections.emptyMap();
+    }
+    return ImmutableMap.of(String.format("%s.%s", field, LOWER_BOUND_OPERATOR), value);
+  }
+
+  /**
+   * Starts tracking of the records, received by the next poll
+   */
+  public Tracker track() {
+    return new Tracker(this);
+  }
+
+  /**
+   * Parses date field value, returned by the API, see {@link PartitionRange#parseFieldValue(String)}
+   *
+   * @throws IllegalArgumentException if value could not be parsed
+   */
+  static LocalDateTime parse(String value) {
+    return PartitionRange.parseFieldValue(value);
+  }
+
+  @Override
+  public String toString() {
+    return (value == null) ? "<none>" : String.format("%s (%d records)", value, ids.size());
+  }
+
+  /**
+   * Tracks the latest date of the records, received by the single poll
+   */
+  public static class Tracker {
+    private final Watermark previous;
+    private final LocalDateTime previousValue;
+    private LocalDateTime latest;
+    private final Set<String> latestIds = new HashSet<>();
+
+    private Tracker(Watermark previous) {
+      this.previous = previous;
+      this.previousValue = (previous.value == null) ? null : parse(previous.value);
+      this.latest = previousValue;
+      this.latestIds.addAll(previous.ids);
+    }
+
+    /**
+     * Accounts received record
+     *
+     * @param date value of the watermark field, records without the date do not move the watermark
+     * @param id id of the record, records without id can't be deduplicated and are always accepted
+     * @return {@code false} if the record was already received by the previous poll or is older than its
+     *         watermark, e.g. when the API ignores the filter
+     */
+    public boolean offer(@Nullable Object date, @Nullable Object id) {
+      if (date == null || date.toString().isEmpty()) {
+        return true;
+      }
+      LocalDateTime dateTime = parse(date.toString());
+      String recordId = (id == null) ? null : id.toString();
+
+      if (previousValue != null && dateTime.isBefore(previousValue)) {
+        return false;
+      }
+      if (recordId != null && dateTime.equals(previousValue) && previous.ids.contains(recordId)) {
+        return false;
+      }
+
+      if (latest == null || dateTime.isAfter(latest)) {
+        latest = dateTime;
+        latestIds.clear();
+      }
+      if (dateTime.equals(latest) && recordId != null) {
+        latestIds.add(recordId);
+      }
+      return true;
+    }
+
+    /**
+     * @return watermark, which includes all the accounted records
+     */
+    public Watermark toWatermark() {
+      return (latest == null) ? previous : new Watermark(FORMAT.format(latest), latestIds);
+    }
+  }
+}
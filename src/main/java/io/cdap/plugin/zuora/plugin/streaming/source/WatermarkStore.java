@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.cdap.plugin.zuora.plugin.streaming.source;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nullable;
+
+/**
+ * Persists watermarks of the objects, so receiver continues from the last received records after restart.
+ *
+ * Every object watermark is kept in own {@code <object>.json} file of the directory, accessible through the
+ * Hadoop {@link FileSystem}. New watermark is written to the temporary file first, which replaces the previous one,
+ * so either the previous or the new watermark is found after failure. If directory is not set, watermarks are kept
+ * only in memory.
+ */
+public class WatermarkStore {
+  private static final Logger LOG = LoggerFactory.getLogger(WatermarkStore.class);
+  private static final Gson GSON = new GsonBuilder().create();
+  private static final String EXTENSION = ".json";
+  private static final String TEMPORARY_EXTENSION = EXTENSION + ".tmp";
+
+  private final Path directory;
+  private final Configuration configuration;
+
+  /**
+   * @param directory directory to keep watermarks in, {@code null} to not persist them
+   */
+  public WatermarkStore(@Nullable String directory) {
+    this(directory, new Configuration());
+  }
+
+  WatermarkStore(@Nullable String directory, Configuration configuration) {
+    this.directory = (directory == null) ? null : new Path(directory);
+    this.configuration = configuration;
+  }
+
+  /**
+   * @return persisted watermark of the object or {@link Watermark#empty()} if it was not persisted
+   */
+  public Watermark load(String objectName) throws IOException {
+    if (directory == null) {
+      return Watermark.empty();
+    }
+
+    Path path = new Path(directory, objectName + EXTENSION);
+    FileSystem fileSystem = path.getFileSystem(configuration);
+    if (!fileSystem.exists(path)) {
+      // failed between removal of the previous watermark and rename of the new one
+      path = new Path(directory, objectName + TEMPORARY_EXTENSION);
+      if (!fileSystem.exists(path)) {
+        return Watermark.empty();
+      }
+    }
+    try (Reader reader = new InputStreamReader(fileSystem.open(path), StandardCharsets.UTF_8)) {
+      Watermark watermark = GSON.fromJson(reader, Watermark.class);
+      LOG.debug("Watermark of '{}' loaded: {}", objectName, watermark);
+      return (watermark == null) ? Watermark.empty() : new Watermark(watermark.getValue(), watermark.getIds());
+    } catch (JsonParseException e) {
+      throw new IOException(String.format("Unable to read watermark '%s': %s", path, e.getMessage()), e);
+    }
+  }
+
+  public void save(String objectName, Watermark watermark) throws IOException {
+    if (directory == null) {
+      return;
+    }
+
+    Path path = new Path(directory, objectName + EXTENSION);
+    Path temporary = new Path(directory, objectName + TEMPORARY_EXTENSION);
+    FileSystem fileSystem = path.getFileSystem(configuration);
+    fileSystem.mkdirs(directory);
+    try (Writer writer = new OutputStreamWriter(fileSystem.create(temporary, true), StandardCharsets.UTF_8)) {
+      GSON.toJson(watermark, writer);
+    }
+    if (fileSystem.exists(path)) {
+      fileSystem.delete(path, false);
+    }
+    if (!fileSystem.rename(temporary, path)) {
+      throw new IOException(String.format("Unable to save watermark '%s'", path));
+    }
+  }
+}
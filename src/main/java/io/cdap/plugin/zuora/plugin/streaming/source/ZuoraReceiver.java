@@ -19,6 +19,7 @@ package io.cdap.plugin.zuora.plugin.streaming.source;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.client.RequestScheduler;
 import io.cdap.plugin.zuora.client.ZuoraRestClient;
 import io.cdap.plugin.zuora.plugin.batch.source.PageIterator;
 import io.cdap.plugin.zuora.plugin.batch.source.ZuoraSourceTransformer;
@@ -34,92 +35,265 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 
 /**
- * Implementation of Spark receiver to receive Zuora push topic events
+ * Implementation of Spark receiver to receive Zuora push topic events.
+ *
+ * Every object is polled by own {@link ZuoraStreamingSourceConfig#getPollSchedule()}, up to
+ * {@link ZuoraStreamingSourceConfig#getMaxConcurrentObjects()} objects are polled in parallel, so slow object
+ * does not delay the others. If polling fails, receiver is restarted.
  */
 public class ZuoraReceiver extends Receiver<StructuredRecord> {
   private static final Logger LOG = LoggerFactory.getLogger(ZuoraReceiver.class);
   private static final String RECEIVER_THREAD_NAME = "zuora_api_listener";
+  private static final String ID_FIELD = "id";
   private final ZuoraStreamingSourceConfig config;
+  private final String watermarkDirectory;
+
+  // kept in memory between restarts of the receiver
+  private final Map<String, Watermark> watermarks = new ConcurrentHashMap<>();
+  private final Map<String, PageIterator.Position> positions = new ConcurrentHashMap<>();
 
-  ZuoraReceiver(ZuoraStreamingSourceConfig config) throws IOException {
-    super(StorageLevel.MEMORY_AND_DISK_2());
+  private transient ZuoraRestClient client;
+  private transient WatermarkStore watermarkStore;
+  private transient ScheduledExecutorService executor;
+  private transient Map<String, PageIterator> objectIterators;
+
+  /**
+   * @param storageLevel storage level of the received records
+   * @param watermarkDirectory directory to persist watermarks in, {@code null} to keep them only in memory
+   */
+  ZuoraReceiver(ZuoraStreamingSourceConfig config, StorageLevel storageLevel, @Nullable String watermarkDirectory)
+    throws IOException {
+    super(storageLevel);
     this.config = config;
+    this.watermarkDirectory = watermarkDirectory;
   }
 
   @Override
   public void onStart() {
     ThreadFactory namedThreadFactory = new ThreadFactoryBuilder()
       .setNameFormat(RECEIVER_THREAD_NAME + "-%d")
+      .setDaemon(true)
       .build();
 
-    Executors.newSingleThreadExecutor(namedThreadFactory).submit(this::receive);
+    List<ZuoraSplitArgument> splitArguments = config.getObjectsWithSchema();
+    int threads = Math.max(1, Math.min(splitArguments.size(), config.getMaxConcurrentObjects()));
+    PollSchedule schedule = config.getPollSchedule();
+
+    client = new ZuoraRestClient(config);
+    watermarkStore = new WatermarkStore(watermarkDirectory);
+    objectIterators = new ConcurrentHashMap<>();
+    executor = Executors.newScheduledThreadPool(threads, namedThreadFactory);
+
+    for (ZuoraSplitArgument splitArgument : splitArguments) {
+      executor.execute(new ObjectPoller(splitArgument.getObjectName(), getObjectSchema(splitArgument), schedule));
+    }
+    LOG.debug("Polling {} objects by {} threads", splitArguments.size(), threads);
   }
 
   @Override
   public void onStop() {
-    // There is nothing we can do here as the thread calling receive()
-    // is designed to stop by itself if isStopped() returns false
+    if (executor != null) {
+      executor.shutdownNow();
+      try {
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    try {
+      if (objectIterators != null) {
+        for (PageIterator pageIterator : objectIterators.values()) {
+          pageIterator.close();
+        }
+      }
+      if (client != null) {
+        client.close();
+      }
+    } catch (IOException e) {
+      LOG.warn("Unable to close connections to Zuora", e);
+    }
   }
 
-  private Map<String, PageIterator> objectIterators = new HashMap<>();
-
-  private void receive() {
+  private Schema getObjectSchema(ZuoraSplitArgument splitArgument) {
     try {
-      List<ZuoraSplitArgument> splitArguments = config.getObjectsWithSchema();
-      Integer minutesToSleep = config.getPullFrequency().getMinutesValue();
-      ZuoraRestClient client = new ZuoraRestClient(config);
-
-      while (!isStopped()) {
-        for (ZuoraSplitArgument splitArgument : splitArguments) {
-          String objectName = splitArgument.getObjectName();
-          String objectSchemaString = splitArgument.getObjectSchema();
-
-          Schema objectSchema;
-          if (!config.isSingleObjectMode()) {
-            Schema schema = Schema.parseJson(objectSchemaString);
-            List<Pair<String, Schema.Type>> multiObjectFields = new ArrayList<>();
-            multiObjectFields.add(new Pair<>(BaseConfig.OBJECT_NAME_FIELD, Schema.Type.STRING));
-
-            objectSchema = ObjectHelper.alterSchema(objectName, schema, multiObjectFields);
-          } else {
-            objectSchema = Schema.parseJson(objectSchemaString);
-          }
-
-          if (!objectIterators.containsKey(objectName)) {
-            ObjectInfo objectInfo = ObjectHelper.getObjectInfo(objectName);
-            objectIterators.put(objectName, new PageIterator(client, objectInfo, config.getArguments()));
-          } else {
-            objectIterators.get(objectName).reloadCurrentPage();
-          }
-
-          PageIterator pageIterator = objectIterators.get(objectName);
-
-          while (pageIterator.hasNext()) {
-            BaseObject object = pageIterator.next();
-
-            if (!config.isSingleObjectMode()) {
-              object.addCustomField(BaseConfig.OBJECT_NAME_FIELD, objectName);
-            }
-
-            store(ZuoraSourceTransformer.transform(object, objectSchema));
-          }
+      Schema schema = splitArgument.getSchema();
+      if (config.isSingleObjectMode()) {
+        return schema;
+      }
+
+      List<Pair<String, Schema.Type>> multiObjectFields = new ArrayList<>();
+      multiObjectFields.add(new Pair<>(BaseConfig.OBJECT_NAME_FIELD, Schema.Type.STRING));
+      return ObjectHelper.alterSchema(splitArgument.getObjectName(), schema, multiObjectFields);
+    } catch (IOException e) {
+      throw new IllegalArgumentException(String.format("Unable to parse schema of '%s'",
+                                                       splitArgument.getObjectName()), e);
+    }
+  }
+
+  /**
+   * Polls the object and schedules the next poll by the schedule of the object
+   */
+  private class ObjectPoller implements Runnable {
+    private final String objectName;
+    private final Schema objectSchema;
+    private final PollSchedule schedule;
+    private long delaySeconds;
+
+    ObjectPoller(String objectName, Schema objectSchema, PollSchedule schedule) {
+      this.objectName = objectName;
+      this.objectSchema = objectSchema;
+      this.schedule = schedule;
+      this.delaySeconds = schedule.getInitialDelaySeconds();
+    }
+
+    @Override
+    public void run() {
+      if (isStopped()) {
+        return;
+      }
+      RequestScheduler requestScheduler = client.getRequestScheduler();
+      long delayedRequests = requestScheduler.getDelayedRequests() + requestScheduler.getThrottledResponses();
+
+      int received;
+      try {
+        received = config.isIncremental()
+          ? receiveChanges(objectName, objectSchema)
+          : receiveNewPages(objectName, objectSchema);
+      } catch (Exception e) {
+        if (isStopped()) {
+          return;
+        }
+        String errorMessage = String.format("Exception while receiving '%s' from Zuora", objectName);
+        // Since it's top level method of thread, we need to log the exception or it will be unseen
+        LOG.error(errorMessage, e);
+        restart(errorMessage, e);
+        return;
+      }
+
+      boolean throttled =
+        requestScheduler.getDelayedRequests() + requestScheduler.getThrottledResponses() > delayedRequests;
+      delaySeconds = schedule.getNextDelaySeconds(delaySeconds, received, throttled);
+      LOG.debug("Received {} records of '{}', next poll in {} seconds", received, objectName, delaySeconds);
+      try {
+        executor.schedule(this, delaySeconds, TimeUnit.SECONDS);
+      } catch (RejectedExecutionException e) {
+        // receiver is stopped
+      }
+    }
+  }
+
+  /**
+   * Receives records, created or updated since the watermark, and advances the watermark. Watermark is persisted
+   * only after all records past it are stored, and is not advanced, if receiver was stopped before all records
+   * were received.
+   *
+   * @return number of the received records
+   */
+  private int receiveChanges(String objectName, Schema objectSchema) throws IOException {
+    Watermark watermark = watermarks.get(objectName);
+    if (watermark == null) {
+      watermark = watermarkStore.load(objectName);
+      watermarks.put(objectName, watermark);
+    }
+
+    String field = config.getWatermarkField();
+    Watermark.Tracker tracker = watermark.track();
+    ObjectInfo objectInfo = ObjectHelper.getObjectInfo(objectName);
+    int received = 0;
+
+    List<StructuredRecord> page = new ArrayList<>();
+    try (PageIterator pageIterator = new PageIterator(client, objectInfo, watermark.toArguments(field))) {
+      while (pageIterator.hasNext()) {
+        if (isStopped()) {
+          // records are not ordered by date, so not received records could be before the latest received one
+          return received;
+        }
+        BaseObject object = pageIterator.next();
+
+        if (!config.isSingleObjectMode()) {
+          object.addCustomField(BaseConfig.OBJECT_NAME_FIELD, objectName);
+        }
+
+        // output schema includes all the fields of the object, so watermark field is read from the record
+        StructuredRecord record = ZuoraSourceTransformer.transform(object, objectSchema);
+        if (tracker.offer(record.get(field), record.get(ID_FIELD))) {
+          page.add(record);
+          received++;
+        }
+        if (!pageIterator.hasNextOnPage()) {
+          storePage(page);
         }
-        LOG.debug(String.format("Waiting for '%d' minutes to pull.", minutesToSleep));
-        Thread.sleep(TimeUnit.MINUTES.toMillis(minutesToSleep));
       }
-    } catch (Exception e) {
-      String errorMessage = "Exception while receiving messages from Zuora";
-      // Since it's top level method of thread, we need to log the exception or it will be unseen
-      LOG.error(errorMessage, e);
-      throw new RuntimeException(errorMessage, e);
     }
+    storePage(page);
+
+    if (received > 0) {
+      Watermark next = tracker.toWatermark();
+      watermarkStore.save(objectName, next);
+      watermarks.put(objectName, next);
+      LOG.debug("Watermark of '{}' advanced to {}", objectName, next);
+    }
+    return received;
+  }
+
+  /**
+   * Receives records of the pages, which were not received before. Position after the last stored record is
+   * kept between restarts of the receiver, so records stored before the failure are not received again.
+   *
+   * @return number of the received records
+   */
+  private int receiveNewPages(String objectName, Schema objectSchema) throws IOException {
+    PageIterator pageIterator = objectIterators.get(objectName);
+    if (pageIterator == null) {
+      ObjectInfo objectInfo = ObjectHelper.getObjectInfo(objectName);
+      pageIterator = new PageIterator(client, objectInfo, config.getArguments(), 0, positions.get(objectName));
+      objectIterators.put(objectName, pageIterator);
+    } else {
+      pageIterator.reloadCurrentPage();
+    }
+
+    List<StructuredRecord> page = new ArrayList<>();
+    int received = 0;
+
+    while (pageIterator.hasNext()) {
+      BaseObject object = pageIterator.next();
+
+      if (!config.isSingleObjectMode()) {
+        object.addCustomField(BaseConfig.OBJECT_NAME_FIELD, objectName);
+      }
+
+      page.add(ZuoraSourceTransformer.transform(object, objectSchema));
+      received++;
+      if (!pageIterator.hasNextOnPage()) {
+        storePage(page);
+        positions.put(objectName, pageIterator.getPosition());
+      }
+    }
+    storePage(page);
+    positions.put(objectName, pageIterator.getPosition());
+    return received;
+  }
+
+  /**
+   * Stores records of the page as a single block. Spark returns only when the block is stored with the configured
+   * replication, or fails, so received records are not lost once this method returns.
+   */
+  private void storePage(List<StructuredRecord> page) {
+    if (page.isEmpty()) {
+      return;
+    }
+    store(page.iterator());
+    page.clear();
   }
 }
@@ -16,27 +16,211 @@
 
 package io.cdap.plugin.zuora.plugin.streaming.source;
 
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Macro;
 import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.plugin.zuora.plugin.batch.source.ZuoraSourceConfig;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ObjectInfo;
+import java.util.List;
+import javax.annotation.Nullable;
 
 /**
  * Config for {@link ZuoraStreamingSource}
  */
 public class ZuoraStreamingSourceConfig extends ZuoraSourceConfig {
   public static final String PULL_FREQUENCY = "pullFrequency";
+  public static final String PROPERTY_ADAPTIVE_POLLING = "adaptivePolling";
+  public static final String PROPERTY_MIN_PULL_FREQUENCY = "minPullFrequency";
+  public static final String DEFAULT_MIN_PULL_FREQUENCY = "10 sec";
+  public static final String PROPERTY_WATERMARK_FIELD = "watermarkField";
+  public static final String PROPERTY_WATERMARK_DIRECTORY = "watermarkDirectory";
+  public static final String PROPERTY_MAX_CONCURRENT_OBJECTS = "maxConcurrentObjects";
+  public static final String PROPERTY_STORAGE_LEVEL = "storageLevel";
+  public static final String PROPERTY_STORAGE_REPLICATION = "storageReplication";
+  public static final int DEFAULT_MAX_CONCURRENT_OBJECTS = 4;
+  public static final String DEFAULT_STORAGE_LEVEL = "MEMORY_AND_DISK";
+  public static final int DEFAULT_STORAGE_REPLICATION = 2;
+  public static final int MAX_STORAGE_REPLICATION = 3;
+  // names of the Spark storage levels without replication
+  public static final List<String> STORAGE_LEVELS = ImmutableList.of("MEMORY_ONLY", "MEMORY_ONLY_SER",
+                                                                     "MEMORY_AND_DISK", "MEMORY_AND_DISK_SER",
+                                                                     "DISK_ONLY", "OFF_HEAP");
 
   @Name(PULL_FREQUENCY)
-  @Description("Delay between polling of Zuora API for updates.")
+  @Description("Delay between polling of Zuora API for updates, such as '30 sec', '15 min' or '1 hour'. Maximum "
+    + "delay for the adaptive polling.")
   @Macro
   private String pullFrequency;
 
+  @Name(PROPERTY_ADAPTIVE_POLLING)
+  @Description("Whether objects are polled faster while polls receive changes and slower while they are idle")
+  @Nullable
+  @Macro
+  private Boolean adaptivePolling;
+
+  @Name(PROPERTY_MIN_PULL_FREQUENCY)
+  @Description("Minimum delay between polls of the adaptive polling, such as '10 sec'")
+  @Nullable
+  @Macro
+  private String minPullFrequency;
+
+  @Name(PROPERTY_WATERMARK_FIELD)
+  @Description("Date field, such as 'updatedDate', used to request only records created or updated since the "
+    + "previous poll. If not set, all records are requested on the first poll and only new pages afterwards")
+  @Nullable
+  @Macro
+  private String watermarkField;
+
+  @Name(PROPERTY_WATERMARK_DIRECTORY)
+  @Description("Directory, where the latest received date of every object is kept between pipeline runs. "
+    + "Spark checkpoint directory of the pipeline is used by default")
+  @Nullable
+  @Macro
+  private String watermarkDirectory;
+
+  @Name(PROPERTY_MAX_CONCURRENT_OBJECTS)
+  @Description("Maximum number of objects polled in parallel, every object is polled by own schedule")
+  @Nullable
+  @Macro
+  private Integer maxConcurrentObjects;
+
+  @Name(PROPERTY_STORAGE_LEVEL)
+  @Description("Spark storage level of the received records, such as 'MEMORY_AND_DISK' or 'MEMORY_ONLY_SER'")
+  @Nullable
+  @Macro
+  private String storageLevel;
+
+  @Name(PROPERTY_STORAGE_REPLICATION)
+  @Description("Number of the Spark executors keeping every block of the received records")
+  @Nullable
+  @Macro
+  private Integer storageReplication;
+
   public ZuoraStreamingSourceConfig(String referenceName) {
     super(referenceName);
   }
 
-  public PullFrequency getPullFrequency() {
-    return PullFrequency.fromValue(pullFrequency);
+  @Override
+  public void validate(FailureCollector failureCollector) {
+    super.validate(failureCollector);
+    if (!containsMacro(PROPERTY_QUERY) && isQueryMode()) {
+      failureCollector.addFailure("ZOQL query is not supported by the streaming source", "Select objects instead")
+        .withConfigProperty(PROPERTY_QUERY);
+    }
+    if (!containsMacro(PULL_FREQUENCY) && !containsMacro(PROPERTY_MIN_PULL_FREQUENCY)
+      && !containsMacro(PROPERTY_ADAPTIVE_POLLING)) {
+      checkPollSchedule(failureCollector);
+    }
+    if (!containsMacro(PROPERTY_MAX_CONCURRENT_OBJECTS)) {
+      if (getMaxConcurrentObjects() < 1) {
+        failureCollector.addFailure("Number of concurrently polled objects should be positive", null)
+          .withConfigProperty(PROPERTY_MAX_CONCURRENT_OBJECTS);
+      } else if (!containsMacro(PROPERTY_MAX_CONNECTIONS) && getMaxConcurrentObjects() > getMaxConnections()) {
+        failureCollector.addFailure("Number of concurrently polled objects exceeds maximum number of connections",
+                                    "Increase maximum number of connections")
+          .withConfigProperty(PROPERTY_MAX_CONCURRENT_OBJECTS)
+          .withConfigProperty(PROPERTY_MAX_CONNECTIONS);
+      }
+    }
+    if (!containsMacro(PROPERTY_STORAGE_LEVEL) && !STORAGE_LEVELS.contains(getStorageLevel())) {
+      failureCollector.addFailure(String.format("Unknown storage level '%s'", getStorageLevel()),
+                                  String.format("Use one of: %s", String.join(", ", STORAGE_LEVELS)))
+        .withConfigProperty(PROPERTY_STORAGE_LEVEL);
+    }
+    if (!containsMacro(PROPERTY_STORAGE_REPLICATION)
+      && (getStorageReplication() < 1 || getStorageReplication() > MAX_STORAGE_REPLICATION)) {
+      failureCollector.addFailure(String.format("Storage replication should be in range from 1 to %d",
+                                                MAX_STORAGE_REPLICATION), null)
+        .withConfigProperty(PROPERTY_STORAGE_REPLICATION);
+    }
+    if (!containsMacro(PROPERTY_WATERMARK_FIELD) && !containsMacro(PROPERTY_BASE_OBJECTS_TO_PULL) && isIncremental()) {
+      getObjects().forEach(object -> {
+        ObjectInfo objectInfo = ObjectHelper.getObjectInfo(object);
+        if (objectInfo != null && objectInfo.getFieldDefinition(watermarkField) == null) {
+          failureCollector.addFailure(String.format("Object '%s' does not provide field '%s'", object,
+                                                    watermarkField), null)
+            .withConfigProperty(PROPERTY_WATERMARK_FIELD);
+        }
+      });
+    }
+  }
+
+  private void checkPollSchedule(FailureCollector failureCollector) {
+    long interval;
+    try {
+      interval = PollSchedule.parseSeconds(Strings.nullToEmpty(pullFrequency));
+    } catch (IllegalArgumentException e) {
+      failureCollector.addFailure(e.getMessage(), null).withConfigProperty(PULL_FREQUENCY);
+      return;
+    }
+    if (!isAdaptivePolling()) {
+      return;
+    }
+
+    try {
+      if (PollSchedule.parseSeconds(getMinPullFrequency()) > interval) {
+        failureCollector.addFailure("Minimum pull frequency exceeds pull frequency", null)
+          .withConfigProperty(PROPERTY_MIN_PULL_FREQUENCY)
+          .withConfigProperty(PULL_FREQUENCY);
+      }
+    } catch (IllegalArgumentException e) {
+      failureCollector.addFailure(e.getMessage(), null).withConfigProperty(PROPERTY_MIN_PULL_FREQUENCY);
+    }
+  }
+
+  public boolean isAdaptivePolling() {
+    return Boolean.TRUE.equals(adaptivePolling);
+  }
+
+  public String getMinPullFrequency() {
+    return Strings.isNullOrEmpty(minPullFrequency) ? DEFAULT_MIN_PULL_FREQUENCY : minPullFrequency;
+  }
+
+  /**
+   * Schedule of the object polls
+   *
+   * @throws IllegalArgumentException if intervals could not be parsed
+   */
+  public PollSchedule getPollSchedule() {
+    long interval = PollSchedule.parseSeconds(pullFrequency);
+    return isAdaptivePolling()
+      ? PollSchedule.adaptive(PollSchedule.parseSeconds(getMinPullFrequency()), interval)
+      : PollSchedule.fixed(interval);
+  }
+
+  /**
+   * @return {@code true} if only records past the watermark are requested by every poll
+   */
+  public boolean isIncremental() {
+    return !Strings.isNullOrEmpty(watermarkField);
+  }
+
+  @Nullable
+  public String getWatermarkField() {
+    return Strings.emptyToNull(watermarkField);
+  }
+
+  @Nullable
+  public String getWatermarkDirectory() {
+    return Strings.emptyToNull(watermarkDirectory);
+  }
+
+  public int getMaxConcurrentObjects() {
+    return (maxConcurrentObjects == null) ? DEFAULT_MAX_CONCURRENT_OBJECTS : maxConcurrentObjects;
+  }
+
+  /**
+   * @return name of the Spark storage level without replication suffix
+   */
+  public String getStorageLevel() {
+    return Strings.isNullOrEmpty(storageLevel) ? DEFAULT_STORAGE_LEVEL : storageLevel;
+  }
+
+  public int getStorageReplication() {
+    return (storageReplication == null) ? DEFAULT_STORAGE_REPLICATION : storageReplication;
   }
 }
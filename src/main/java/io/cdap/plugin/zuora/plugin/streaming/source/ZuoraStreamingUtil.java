@@ -18,20 +18,59 @@ package io.cdap.plugin.zuora.plugin.streaming.source;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.etl.api.streaming.StreamingContext;
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.api.java.Optional;
+import org.apache.spark.storage.StorageLevel;
 import org.apache.spark.streaming.api.java.JavaDStream;
 import org.apache.spark.streaming.api.java.JavaStreamingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.io.IOException;
+import javax.annotation.Nullable;
 
 /**
  * Zuora streaming source util. Which encapsulated spark classes from {@link ZuoraStreamingSource}, so
  * that validation does not fail loading spark classes.
  */
 public class ZuoraStreamingUtil {
+  private static final Logger LOG = LoggerFactory.getLogger(ZuoraStreamingUtil.class);
+  private static final String WATERMARKS_DIRECTORY = "zuora-watermarks";
+
   public static JavaDStream<StructuredRecord> getStream(ZuoraStreamingSourceConfig config,
                                                         StreamingContext streamingContext)
     throws IOException {
     JavaStreamingContext jssc = streamingContext.getSparkStreamingContext();
 
-    return jssc.receiverStream(new ZuoraReceiver(config));
+    return jssc.receiverStream(new ZuoraReceiver(config, getStorageLevel(config),
+                                                 getWatermarkDirectory(config, jssc)));
+  }
+
+  /**
+   * Storage level of the received records with the configured replication
+   */
+  static StorageLevel getStorageLevel(ZuoraStreamingSourceConfig config) {
+    StorageLevel level = StorageLevel.fromString(config.getStorageLevel());
+    return StorageLevel.apply(level.useDisk(), level.useMemory(), level.useOffHeap(), level.deserialized(),
+                              config.getStorageReplication());
+  }
+
+  /**
+   * Directory to persist watermarks in. Unless configured, watermarks are kept in the Spark checkpoint directory
+   * of the pipeline, so they are preserved on the pipeline restart in the same way as the streaming state.
+   */
+  @Nullable
+  private static String getWatermarkDirectory(ZuoraStreamingSourceConfig config, JavaStreamingContext jssc) {
+    if (!config.isIncremental() || config.getWatermarkDirectory() != null) {
+      return config.getWatermarkDirectory();
+    }
+
+    Optional<String> checkpointDirectory = jssc.sparkContext().getCheckpointDir();
+    if (checkpointDirectory == null || !checkpointDirectory.isPresent()) {
+      LOG.warn("Checkpointing is disabled, watermarks are not persisted and all records are received after restart");
+      return null;
+    }
+    // spark context checkpoints are kept in the random sub-directory of the streaming checkpoint directory
+    Path streamingDirectory = new Path(checkpointDirectory.get()).getParent();
+    return new Path(new Path(streamingDirectory, WATERMARKS_DIRECTORY), config.referenceName).toString();
   }
 }
@@ -24,11 +24,16 @@ import io.cdap.plugin.zuora.restobjects.annotations.ObjectDefinition;
 import io.cdap.plugin.zuora.restobjects.annotations.ObjectFieldDefinition;
 import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
 import io.cdap.plugin.zuora.restobjects.objects.Pair;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -39,11 +44,17 @@ import javax.annotation.Nullable;
  * - support nesting entities, maps
  */
 public class ObjectHelper {
-  private static List<Class> objects = RestObjectsConfig.getObjectClasses();
-  private static Map<String, ObjectInfo> objectsDefinitions;
+  // class name -> index entry, in the order objects are declared
+  private static Map<String, ObjectRegistry.IndexEntry> objectsIndex;
+  // object name -> class name of the first object declared with such name
+  private static Map<String, String> objectsClassNames;
+  // class name -> object definition, resolved on first access to the object
+  private static final Map<String, ObjectInfo> objectsDefinitions = new ConcurrentHashMap<>();
+  // object name and sorted requested fields -> schema, generated on first request
+  private static final Map<String, ObjectSchema> objectsSchemas = new ConcurrentHashMap<>();
 
   static {
-    // resolves available entities schema on first access
+    // resolves index of available entities on first access
     buildSchemaDefinition();
   }
 
@@ -75,28 +86,55 @@ public class ObjectHelper {
   }
 
   /**
-   * Create schema definition for annotated objects
+   * Create index of the annotated objects. Generated {@link ObjectRegistry} is used if present, otherwise
+   * definitions are resolved from the annotations of all objects listed in {@link RestObjectsConfig}.
    */
   private static void buildSchemaDefinition() {
-    if (objectsDefinitions != null) {
-      return;
+    List<ObjectRegistry.IndexEntry> index;
+    try {
+      index = ObjectRegistry.readIndex();
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to read objects registry", e);
     }
-    ImmutableMap.Builder<String, ObjectInfo> builder = new ImmutableMap.Builder<>();
-    objects.forEach(object -> {
+
+    if (index == null) {
+      List<ObjectInfo> objectInfos = ObjectRegistry.scan(RestObjectsConfig.getObjectClasses());
+      objectInfos.forEach(x -> objectsDefinitions.put(x.getObjectClassName(), x));
+      index = objectInfos.stream().map(ObjectRegistry.IndexEntry::new).collect(Collectors.toList());
+    }
+
+    ImmutableMap.Builder<String, ObjectRegistry.IndexEntry> builder = new ImmutableMap.Builder<>();
+    Map<String, String> byName = new LinkedHashMap<>();
+    index.forEach(entry -> {
+      builder.put(entry.getClassName(), entry);
+
+      // first declared object wins, if few classes share the same name
+      if (!Strings.isNullOrEmpty(entry.getName())) {
+        byName.putIfAbsent(entry.getName(), entry.getClassName());
+      }
+    });
+    objectsIndex = builder.build();
+    objectsClassNames = ImmutableMap.copyOf(byName);
+  }
+
+  private static ObjectInfo loadObjectInfo(String className) {
+    return objectsDefinitions.computeIfAbsent(className, x -> {
       try {
-        builder.put(object.getName(), getObjectInfoFromClass(object));
-      } catch (NullPointerException e) {
-        throw new RuntimeException(String.format("Object with name %s not annotated with %s", object.getName(),
-            ObjectDefinition.class.getName()));
+        ObjectInfo objectInfo = ObjectRegistry.readDefinition(x);
+        if (objectInfo == null) {
+          throw new IllegalStateException(String.format("Objects registry does not provide definition of '%s'", x));
+        }
+        return objectInfo;
+      } catch (IOException e) {
+        throw new RuntimeException(String.format("Unable to read definition of '%s' from objects registry", x), e);
       }
     });
-    objectsDefinitions = builder.build();
   }
 
   public static List<String> getObjectNames() {
-    return objectsDefinitions.values().stream()
+    return objectsIndex.values().stream()
         .filter(x -> x.getObjectType() == ObjectDefinition.ObjectDefinitionType.BASE)
-        .map(ObjectInfo::getCdapObjectName)
+        .map(ObjectRegistry.IndexEntry::getName)
         .collect(Collectors.toList());
   }
 
@@ -106,7 +144,7 @@ public class ObjectHelper {
    * @param objectClass entity class, which derived from {@link BaseObject}
    */
   public static ObjectInfo getObjectInfo(Class objectClass) {
-    return objectsDefinitions.get(objectClass.getName());
+    return (objectsIndex.containsKey(objectClass.getName())) ? loadObjectInfo(objectClass.getName()) : null;
   }
 
   /**
@@ -116,10 +154,11 @@ public class ObjectHelper {
    */
   @Nullable
   public static ObjectInfo getObjectInfo(String internalObjectName) {
-    return objectsDefinitions.values().stream()
-        .filter(x -> !Strings.isNullOrEmpty(x.getCdapObjectName()) && x.getCdapObjectName().equals(internalObjectName))
-        .findFirst()
-        .orElse(null);
+    if (internalObjectName == null) {
+      return null;
+    }
+    String className = objectsClassNames.get(internalObjectName);
+    return (className == null) ? null : loadObjectInfo(className);
   }
 
   /**
@@ -176,7 +215,58 @@ public class ObjectHelper {
    * @return CDAP Schema
    */
   public static Schema buildSchema(String internalObjectName, @Nullable List<String> requestedFields) {
-    ObjectInfo objectInfo = getObjectInfo(internalObjectName);
+    return getObjectSchema(internalObjectName, requestedFields).getSchema();
+  }
+
+  /**
+   * Provides schema for entity with only desired fields included, generated once for the same object
+   * and set of fields. Schema with all fields is read from {@link ObjectRegistry}, if precomputed.
+   *
+   * @param internalObjectName the name, provided via {@link ObjectDefinition#Name()}
+   * @param requestedFields    the names, provided via {@link SerializedName#value()}
+   * @return schema with its json and fingerprint
+   */
+  public static ObjectSchema getObjectSchema(String internalObjectName, @Nullable List<String> requestedFields) {
+    String key = (requestedFields == null || requestedFields.isEmpty())
+      ? internalObjectName
+      : internalObjectName + ":" + String.join(",", new TreeSet<>(requestedFields));
+
+    // not computeIfAbsent, as schema of the object is generated with schemas of its nested objects
+    ObjectSchema objectSchema = objectsSchemas.get(key);
+    if (objectSchema == null) {
+      objectSchema = loadObjectSchema(internalObjectName, requestedFields);
+      ObjectSchema existing = objectsSchemas.putIfAbsent(key, objectSchema);
+      objectSchema = (existing == null) ? objectSchema : existing;
+    }
+    return objectSchema;
+  }
+
+  private static ObjectSchema loadObjectSchema(String internalObjectName, @Nullable List<String> requestedFields) {
+    String className = objectsClassNames.get(internalObjectName);
+    if (className != null && (requestedFields == null || requestedFields.isEmpty())) {
+      try {
+        String json = ObjectRegistry.readSchema(className);
+        if (json != null) {
+          return new ObjectSchema(json);
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(String.format("Unable to read schema of '%s' from objects registry", className), e);
+      }
+    }
+    return new ObjectSchema(generateSchema(internalObjectName, requestedFields, ObjectHelper::getObjectInfo));
+  }
+
+  /**
+   * Generates schema definition for entity with only desired fields included
+   *
+   * @param internalObjectName the name, provided via {@link ObjectDefinition#Name()}
+   * @param requestedFields    the names, provided via {@link SerializedName#value()}
+   * @param definitions        provides entity definition by the name
+   * @return CDAP Schema
+   */
+  static Schema generateSchema(String internalObjectName, @Nullable List<String> requestedFields,
+                               Function<String, ObjectInfo> definitions) {
+    ObjectInfo objectInfo = definitions.apply(internalObjectName);
 
     if (objectInfo == null) {
       return Schema.recordOf(internalObjectName);
@@ -200,7 +290,8 @@ public class ObjectHelper {
               throw new IllegalArgumentException(String.format("Nested class is not declared for the field %s",
                   x.getName()));
             }
-            List<Schema.Field> nestedFields = buildSchema(x.getNestedClassName(), requestedFields).getFields();
+            List<Schema.Field> nestedFields = generateSchema(x.getNestedClassName(), requestedFields, definitions)
+                .getFields();
 
             return Schema.Field.of(x.getName(),
                 Schema.recordOf(x.getName(), Objects.requireNonNull(nestedFields))
@@ -211,7 +302,8 @@ public class ObjectHelper {
               throw new IllegalArgumentException(String.format("Nested class is not declared for the field %s",
                   x.getName()));
             }
-            List<Schema.Field> nestedFields = buildSchema(x.getNestedClassName(), requestedFields).getFields();
+            List<Schema.Field> nestedFields = generateSchema(x.getNestedClassName(), requestedFields, definitions)
+                .getFields();
             return Schema.Field.of(x.getName(),
                 Schema.arrayOf(
                     Schema.recordOf(x.getName(), Objects.requireNonNull(nestedFields))
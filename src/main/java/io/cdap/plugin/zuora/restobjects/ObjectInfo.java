@@ -16,8 +16,14 @@
 package io.cdap.plugin.zuora.restobjects;
 
 import io.cdap.plugin.zuora.restobjects.annotations.ObjectDefinition;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Entity meta-info holder for {@link ObjectDefinition}
@@ -26,8 +32,10 @@ public class ObjectInfo {
   private String cdapObjectName;
 
   private String restAPIUrl;
-  private Class objectClass;
+  private String objectClassName;
+  private volatile Class objectClass;
   private List<ObjectFieldInfo> fieldDefinitions;
+  private Map<String, ObjectFieldInfo> fieldDefinitionsByName;
   private List<String> requiredArguments;
   private List<String> requiredPostArguments;
   private ObjectDefinition.ObjectDefinitionType objectType;
@@ -36,14 +44,34 @@ public class ObjectInfo {
   public ObjectInfo(String cdapObjectName, List<ObjectFieldInfo> fieldDefinitions, String restAPIUrl,
                     Class objectClass, List<String> requiredPostArguments, List<String> requiredArguments,
                     String responseRootElement, ObjectDefinition.ObjectDefinitionType objectType) {
+    this(cdapObjectName, fieldDefinitions, restAPIUrl, objectClass.getName(), requiredPostArguments,
+         requiredArguments, responseRootElement, objectType);
+    this.objectClass = objectClass;
+  }
+
+  /**
+   * Creates definition for the object, which class would be loaded only on the first
+   * {@link #getObjectClass()} call.
+   */
+  public ObjectInfo(String cdapObjectName, List<ObjectFieldInfo> fieldDefinitions, String restAPIUrl,
+                    String objectClassName, List<String> requiredPostArguments, List<String> requiredArguments,
+                    String responseRootElement, ObjectDefinition.ObjectDefinitionType objectType) {
     this.cdapObjectName = cdapObjectName;
     this.fieldDefinitions = fieldDefinitions;
     this.restAPIUrl = restAPIUrl;
-    this.objectClass = objectClass;
-    this.requiredArguments = requiredArguments;
-    this.requiredPostArguments = requiredPostArguments;
+    this.objectClassName = objectClassName;
+    this.requiredArguments = nonEmpty(requiredArguments);
+    this.requiredPostArguments = nonEmpty(requiredPostArguments);
     this.objectType = objectType;
     this.responseRootElement = responseRootElement;
+
+    Map<String, ObjectFieldInfo> byName = new LinkedHashMap<>();
+    fieldDefinitions.forEach(x -> byName.putIfAbsent(x.getName(), x));
+    this.fieldDefinitionsByName = Collections.unmodifiableMap(byName);
+  }
+
+  private static List<String> nonEmpty(List<String> values) {
+    return values.stream().filter(x -> !x.equals("")).collect(Collectors.toList());
   }
 
   public String getCdapObjectName() {
@@ -59,21 +87,44 @@ public class ObjectInfo {
   }
 
   public List<ObjectFieldInfo> getFieldsDefinitions(List<String> fields) {
+    Set<String> requestedFields = new HashSet<>(fields);
     return fieldDefinitions.stream()
-      .filter(x -> fields.stream().anyMatch(y -> x.getName().equals(y)))
+      .filter(x -> requestedFields.contains(x.getName()))
       .collect(Collectors.toList());
   }
 
+  /**
+   * Provides field definition by the field name
+   *
+   * @param name the name, provided via {@link ObjectFieldInfo#getName()}
+   */
+  @Nullable
+  public ObjectFieldInfo getFieldDefinition(String name) {
+    return fieldDefinitionsByName.get(name);
+  }
+
   public Class getObjectClass() {
+    if (objectClass == null) {
+      try {
+        objectClass = Class.forName(objectClassName, true, ObjectInfo.class.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        throw new IllegalStateException(String.format("Class '%s' of the object '%s' not found",
+                                                      objectClassName, cdapObjectName), e);
+      }
+    }
     return objectClass;
   }
 
+  public String getObjectClassName() {
+    return objectClassName;
+  }
+
   public List<String> getRequiredArguments() {
-    return requiredArguments.stream().filter(x -> !x.equals("")).collect(Collectors.toList());
+    return requiredArguments;
   }
 
   public List<String> getRequiredPostArguments() {
-    return requiredPostArguments.stream().filter(x -> !x.equals("")).collect(Collectors.toList());
+    return requiredPostArguments;
   }
 
   public ObjectDefinition.ObjectDefinitionType getObjectType() {
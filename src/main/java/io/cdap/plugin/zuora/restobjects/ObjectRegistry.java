@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.cdap.plugin.zuora.restobjects;
+
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.restobjects.annotations.ObjectDefinition;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Precomputed registry of the {@link ObjectInfo} definitions, generated during the build
+ * by {@link ObjectRegistryGenerator}.
+ *
+ * Registry consists of the index, which lists all known objects, and per-object definition files,
+ * so only definitions of the objects, which are actually used, are read and only their classes are loaded.
+ * Schemas with all fields of the base objects are precomputed as well, so they are not generated at runtime.
+ */
+public class ObjectRegistry {
+  /**
+   * Registry location, relative to the package of the {@link ObjectRegistry}
+   */
+  public static final String REGISTRY_PATH = "registry";
+  private static final String INDEX_FILE = "index.json";
+  private static final String DEFINITION_FILE_FORMAT = "%s.json";
+  private static final String SCHEMA_FILE_FORMAT = "%s.schema.json";
+
+  private static final Gson GSON = new GsonBuilder().create();
+  private static final Type INDEX_TYPE = new TypeToken<List<IndexEntry>>() { }.getType();
+
+  /**
+   * Index record of the registry
+   */
+  public static class IndexEntry {
+    private String className;
+    private String name;
+    private ObjectDefinition.ObjectDefinitionType objectType;
+
+    IndexEntry(ObjectInfo objectInfo) {
+      this.className = objectInfo.getObjectClassName();
+      this.name = objectInfo.getCdapObjectName();
+      this.objectType = objectInfo.getObjectType();
+    }
+
+    public String getClassName() {
+      return className;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public ObjectDefinition.ObjectDefinitionType getObjectType() {
+      return objectType;
+    }
+  }
+
+  /**
+   * Serialized form of the {@link ObjectInfo}
+   */
+  private static class Definition {
+    private String name;
+    private String className;
+    private String restAPIUrl;
+    private List<ObjectFieldInfo> fields;
+    private List<String> requiredArguments;
+    private List<String> requiredPostArguments;
+    private String responseRootElement;
+    private ObjectDefinition.ObjectDefinitionType objectType;
+
+    Definition(ObjectInfo objectInfo) {
+      this.name = objectInfo.getCdapObjectName();
+      this.className = objectInfo.getObjectClassName();
+      this.restAPIUrl = objectInfo.getRestAPIUrl();
+      this.fields = objectInfo.getFieldDefinitions();
+      this.requiredArguments = objectInfo.getRequiredArguments();
+      this.requiredPostArguments = objectInfo.getRequiredPostArguments();
+      this.responseRootElement = objectInfo.getResponseRootElement();
+      this.objectType = objectInfo.getObjectType();
+    }
+
+    ObjectInfo toObjectInfo() {
+      return new ObjectInfo(name, fields, restAPIUrl, className, requiredPostArguments, requiredArguments,
+                            responseRootElement, objectType);
+    }
+  }
+
+  /**
+   * Reads registry index
+   *
+   * @return list of the registered objects or {@code null} if registry was not generated
+   */
+  @Nullable
+  public static List<IndexEntry> readIndex() throws IOException {
+    try (InputStream stream = ObjectRegistry.class.getResourceAsStream(REGISTRY_PATH + "/" + INDEX_FILE)) {
+      if (stream == null) {
+        return null;
+      }
+      try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+        return GSON.fromJson(reader, INDEX_TYPE);
+      }
+    }
+  }
+
+  /**
+   * Reads definition of the single object
+   *
+   * @param className object class name
+   * @return object definition or {@code null} if object is not registered
+   */
+  @Nullable
+  public static ObjectInfo readDefinition(String className) throws IOException {
+    String resource = REGISTRY_PATH + "/" + String.format(DEFINITION_FILE_FORMAT, className);
+
+    try (InputStream stream = ObjectRegistry.class.getResourceAsStream(resource)) {
+      if (stream == null) {
+        return null;
+      }
+      try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+        return GSON.fromJson(reader, Definition.class).toObjectInfo();
+      }
+    }
+  }
+
+  /**
+   * Reads precomputed schema json of the object with all fields
+   *
+   * @param className object class name
+   * @return schema json or {@code null} if schema was not precomputed for the object
+   */
+  @Nullable
+  public static String readSchema(String className) throws IOException {
+    String resource = REGISTRY_PATH + "/" + String.format(SCHEMA_FILE_FORMAT, className);
+
+    try (InputStream stream = ObjectRegistry.class.getResourceAsStream(resource)) {
+      if (stream == null) {
+        return null;
+      }
+      return new String(ByteStreams.toByteArray(stream), StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Resolves definitions from the annotations of the object classes
+   *
+   * @param objectClasses classes, annotated with {@link ObjectDefinition}
+   */
+  public static List<ObjectInfo> scan(List<Class> objectClasses) {
+    return objectClasses.stream()
+      .map(object -> {
+        try {
+          return ObjectHelper.getObjectInfoFromClass(object);
+        } catch (NullPointerException e) {
+          throw new RuntimeException(String.format("Object with name %s not annotated with %s", object.getName(),
+                                                   ObjectDefinition.class.getName()));
+        }
+      })
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Writes registry for the given definitions
+   *
+   * @param directory registry directory
+   * @param objectInfos definitions to write
+   */
+  public static void write(Path directory, List<ObjectInfo> objectInfos) throws IOException {
+    Files.createDirectories(directory);
+
+    List<IndexEntry> index = objectInfos.stream().map(IndexEntry::new).collect(Collectors.toList());
+    try (Writer writer = Files.newBufferedWriter(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+      GSON.toJson(index, INDEX_TYPE, writer);
+    }
+
+    // first declared object wins, if few classes share the same name
+    Map<String, ObjectInfo> byName = new HashMap<>();
+    for (ObjectInfo objectInfo : objectInfos) {
+      Path file = directory.resolve(String.format(DEFINITION_FILE_FORMAT, objectInfo.getObjectClassName()));
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        GSON.toJson(new Definition(objectInfo), writer);
+      }
+      byName.putIfAbsent(objectInfo.getCdapObjectName(), objectInfo);
+    }
+
+    for (ObjectInfo objectInfo : objectInfos) {
+      String name = objectInfo.getCdapObjectName();
+      if (objectInfo.getObjectType() != ObjectDefinition.ObjectDefinitionType.BASE || byName.get(name) != objectInfo) {
+        continue;
+      }
+      // generated from the given definitions, as registry on the classpath could be outdated
+      Schema schema = ObjectHelper.generateSchema(name, null, byName::get);
+      Path file = directory.resolve(String.format(SCHEMA_FILE_FORMAT, objectInfo.getObjectClassName()));
+      Files.write(file, schema.toString().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
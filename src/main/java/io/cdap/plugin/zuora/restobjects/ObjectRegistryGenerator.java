@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.cdap.plugin.zuora.restobjects;
+
+import io.cdap.plugin.zuora.RestObjectsConfig;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates {@link ObjectRegistry} for the objects, listed in {@link RestObjectsConfig}.
+ *
+ * Executed by the build on the compiled classes, accepts classes output directory as the only argument.
+ */
+public class ObjectRegistryGenerator {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Classes output directory expected as the only argument");
+    }
+
+    Path directory = Paths.get(args[0], ObjectRegistry.class.getPackage().getName().replace('.', '/'),
+                               ObjectRegistry.REGISTRY_PATH);
+
+    ObjectRegistry.write(directory, ObjectRegistry.scan(RestObjectsConfig.getObjectClasses()));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.cdap.plugin.zuora.restobjects;
+
+import com.google.common.hash.Hashing;
+import io.cdap.cdap.api.data.schema.Schema;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generated object schema together with its json and fingerprint, provided by {@link ObjectHelper#getObjectSchema}.
+ *
+ * Schema read from the {@link ObjectRegistry} is parsed only when first requested, so callers, which need only
+ * json of the schema, do not pay for the parsing.
+ */
+public final class ObjectSchema {
+  private final String json;
+  private final String fingerprint;
+  private volatile Schema schema;
+
+  ObjectSchema(Schema schema) {
+    this(schema.toString());
+    this.schema = schema;
+  }
+
+  ObjectSchema(String json) {
+    this.json = json;
+    this.fingerprint = fingerprint(json);
+  }
+
+  public Schema getSchema() {
+    Schema result = schema;
+    if (result == null) {
+      try {
+        result = Schema.parseJson(json);
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to parse generated schema: " + json, e);
+      }
+      schema = result;
+    }
+    return result;
+  }
+
+  public String getJson() {
+    return json;
+  }
+
+  /**
+   * MD5 hash of the schema json
+   */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Provides fingerprint of the schema json, the same as {@link #getFingerprint()} of the equal schema
+   *
+   * @param json schema json
+   */
+  public static String fingerprint(String json) {
+    return Hashing.md5().hashString(json, StandardCharsets.UTF_8).toString();
+  }
+}
@@ -28,7 +28,11 @@ public class SendObject {
   private Map<String, String> arguments;
 
   public SendObject(ObjectInfo objectInfo, String body, Map<String, String> arguments) {
-    this.apiUrl = objectInfo.getRestAPIUrl();
+    this(objectInfo.getRestAPIUrl(), body, arguments);
+  }
+
+  public SendObject(String apiUrl, String body, Map<String, String> arguments) {
+    this.apiUrl = apiUrl;
     this.body = body;
     this.arguments = arguments;
   }
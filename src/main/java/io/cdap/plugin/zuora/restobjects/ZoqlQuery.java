@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.cdap.plugin.zuora.restobjects;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.restobjects.objects.QueryRecord;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * ZOQL statement, executed with {@code action/query}.
+ *
+ * Only the list of the selected fields and the object name are parsed, the rest of the statement
+ * ({@code where} clause, etc.) is passed to the API as is. As ZOQL is not typed, all fields are provided as strings.
+ */
+public class ZoqlQuery {
+  private static final Pattern QUERY_PATTERN = Pattern.compile("^\\s*select\\s+(.+?)\\s+from\\s+(\\w+)(\\s.*)?$",
+                                                               Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+  private static final Pattern FIELD_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+  private final String query;
+  private final String objectName;
+  private final List<String> fields;
+  // lower-cased field name -> field name as selected, API does not preserve case of the query
+  private final Map<String, String> fieldNames;
+
+  private ZoqlQuery(String query, String objectName, List<String> fields) {
+    this.query = query;
+    this.objectName = objectName;
+    this.fields = fields;
+    this.fieldNames = new LinkedHashMap<>();
+    fields.forEach(x -> fieldNames.put(x.toLowerCase(Locale.ROOT), x));
+  }
+
+  /**
+   * Parses ZOQL statement
+   *
+   * @param query statement in the form of {@code select <field>, ... from <object> [where ...]}
+   * @throws IllegalArgumentException if statement is not supported
+   */
+  public static ZoqlQuery parse(String query) {
+    Matcher matcher = QUERY_PATTERN.matcher(query);
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException(String.format("Unable to parse ZOQL query '%s'", query));
+    }
+
+    ImmutableList.Builder<String> fields = new ImmutableList.Builder<>();
+    Map<String, String> unique = new LinkedHashMap<>();
+    for (String field : matcher.group(1).split(",")) {
+      field = field.trim();
+      if (!FIELD_PATTERN.matcher(field).matches()) {
+        throw new IllegalArgumentException(String.format("Unsupported field '%s' selected by ZOQL query", field));
+      }
+      if (unique.put(field.toLowerCase(Locale.ROOT), field) != null) {
+        throw new IllegalArgumentException(String.format("Field '%s' selected by ZOQL query more than once", field));
+      }
+      fields.add(field);
+    }
+    return new ZoqlQuery(query.trim(), matcher.group(2), fields.build());
+  }
+
+  public String getQuery() {
+    return query;
+  }
+
+  public String getObjectName() {
+    return objectName;
+  }
+
+  public List<String> getFields() {
+    return fields;
+  }
+
+  /**
+   * Schema of the query result, every selected field is a nullable string
+   */
+  public Schema getSchema() {
+    return Schema.recordOf(objectName, fields.stream()
+      .map(x -> Schema.Field.of(x, Schema.nullableOf(Schema.of(Schema.Type.STRING))))
+      .collect(Collectors.toList()));
+  }
+
+  /**
+   * Converts record of the query result, fields not selected by the query are ignored
+   *
+   * @param json record as returned by the API
+   */
+  public QueryRecord toRecord(JsonObject json) {
+    Map<String, String> values = new LinkedHashMap<>();
+    for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+      String name = fieldNames.get(entry.getKey().toLowerCase(Locale.ROOT));
+      if (name == null) {
+        continue;
+      }
+      JsonElement value = entry.getValue();
+      if (value.isJsonNull()) {
+        values.put(name, null);
+      } else {
+        values.put(name, value.isJsonPrimitive() ? value.getAsString() : value.toString());
+      }
+    }
+    return new QueryRecord(values);
+  }
+}
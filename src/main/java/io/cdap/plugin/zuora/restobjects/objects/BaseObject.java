@@ -19,11 +19,12 @@ import com.google.common.collect.ImmutableMap;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.plugin.zuora.client.schema.SchemaFieldType;
 import io.cdap.plugin.zuora.restobjects.annotations.ObjectFieldDefinition;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 
@@ -36,10 +37,15 @@ import javax.annotation.Nullable;
  * No getters allowed, unless any custom object usage planed.
  */
 public abstract class BaseObject {
+  // shared by all absent fields, object has no fields and is never modified
+  private static final EmptyObject ABSENT_FIELD = new EmptyObject();
+
   /**
-   * Custom object fields
+   * Custom object fields. Fields added before object fields are constructed are kept in {@link #customFields},
+   * builder exists only while {@link #addFields()} is called by {@link #asMap()}.
    */
-  private transient ImmutableMap.Builder<String, Object> objectFieldsBuilder = new ImmutableMap.Builder<>();
+  private transient Map<String, Object> customFields;
+  private transient ImmutableMap.Builder<String, Object> objectFieldsBuilder;
   private transient Map<String, Object> objectFields;
 
   /**
@@ -55,9 +61,38 @@ public abstract class BaseObject {
     //  check if it is a list of BaseObjects
     if (value instanceof List && ((List) value).size() > 0 && ((List) value).get(0) instanceof BaseObject) {
       List<BaseObject> objects = (List<BaseObject>) value;
-      value = objects.parallelStream().map(BaseObject::asMap).collect(Collectors.toList());
+      List<Map<String, Object>> maps = new ArrayList<>(objects.size());
+      for (BaseObject object : objects) {
+        maps.add(object.asMap());
+      }
+      value = maps;
+    }
+
+    if (objectFieldsBuilder != null) {
+      objectFieldsBuilder.put(name, value);
+      return;
+    }
+    if (customFields == null) {
+      customFields = new LinkedHashMap<>();
+    }
+    if (customFields.putIfAbsent(name, value) != null) {
+      throw new IllegalArgumentException(String.format("Field '%s' is already added", name));
+    }
+  }
+
+  /**
+   * Provides value of the field added by {@link #addCustomField(String, Object)} outside of {@link #addFields()},
+   * without constructing object fields.
+   *
+   * @param name name of the field
+   * @return value of the field, {@code null} if no such field was added
+   */
+  @Nullable
+  public Object getCustomField(String name) {
+    if (objectFields != null) {
+      return objectFields.get(name);
     }
-    objectFieldsBuilder.put(name, value);
+    return (customFields == null) ? null : customFields.get(name);
   }
 
   /**
@@ -129,8 +164,14 @@ public abstract class BaseObject {
   @ObjectFieldDefinition(FieldName = "customFields", FieldType = Schema.Type.MAP)
   public Map<String, Object> asMap() {
     if (objectFields == null) {
+      objectFieldsBuilder = new ImmutableMap.Builder<>();
+      if (customFields != null) {
+        objectFieldsBuilder.putAll(customFields);
+      }
       addFields();
       objectFields = objectFieldsBuilder.build();
+      objectFieldsBuilder = null;
+      customFields = null;
     }
     return objectFields;
   }
@@ -146,7 +187,7 @@ public abstract class BaseObject {
 
     Objects.requireNonNull(schema.getFields()).stream()
         .map(Schema.Field::getName)
-        .forEach(name -> fields.put(name, allFields.getOrDefault(name, new EmptyObject())));
+        .forEach(name -> fields.put(name, allFields.getOrDefault(name, ABSENT_FIELD)));
 
     return fields.build();
   }
@@ -49,6 +49,12 @@ public class BaseResult<T> {
   @SerializedName("reasons")
   private List<BaseResultErrorReason> reasons;
 
+  @SerializedName("queryLocator")
+  private String queryLocator; // set only by ZOQL query responses
+
+  @SerializedName("done")
+  private Boolean done; // set only by ZOQL query responses
+
   @SerializedName(value = "cdapObjectName")
   private String cdapObjectName;
 
@@ -60,6 +66,38 @@ public class BaseResult<T> {
     return result;
   }
 
+  public void setResult(List<T> result) {
+    this.result = result;
+  }
+
+  public void setNextPage(String nextPage) {
+    this.nextPage = nextPage;
+  }
+
+  public void setSuccess(Boolean success) {
+    this.success = success;
+  }
+
+  public void setHttpCode(Integer httpCode) {
+    this.httpCode = httpCode;
+  }
+
+  public void setProcessId(String processId) {
+    this.processId = processId;
+  }
+
+  public void setReasons(List<BaseResultErrorReason> reasons) {
+    this.reasons = reasons;
+  }
+
+  public void setQueryLocator(String queryLocator) {
+    this.queryLocator = queryLocator;
+  }
+
+  public void setDone(Boolean done) {
+    this.done = done;
+  }
+
   public Map<String, String> getNextPageArguments() {
     if (Strings.isNullOrEmpty(nextPage)) {
       return null;
@@ -105,6 +143,14 @@ public class BaseResult<T> {
     return success;
   }
 
+  public String getQueryLocator() {
+    return queryLocator;
+  }
+
+  public Boolean isDone() {
+    return done;
+  }
+
   public String getProcessId() {
     return processId;
   }
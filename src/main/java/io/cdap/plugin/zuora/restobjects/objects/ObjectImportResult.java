@@ -0,0 +1,97 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.restobjects.objects;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+/**
+ * Response of the object import API, both for the submitted import and for the import status requests. Response
+ * fields of this API are capitalized, they are expected to be converted to lower camel case before parsing.
+ */
+public class ObjectImportResult extends BaseResult<BaseObject> {
+  public static final String STATUS_COMPLETED = "Completed";
+  public static final String STATUS_FAILED = "Failed";
+  public static final String STATUS_CANCELED = "Canceled";
+
+  @SerializedName("id")
+  private String id;
+
+  @SerializedName("status")
+  private String status; // set only by the status response
+
+  @SerializedName("statusReason")
+  private String statusReason; // set only by the status response
+
+  @SerializedName("totalCount")
+  private Long totalCount; // set only by the status response
+
+  @SerializedName("importedCount")
+  private Long importedCount; // set only by the status response
+
+  @SerializedName("resultResourceUrl")
+  private String resultResourceUrl; // set only by the status response
+
+  @SerializedName("errors")
+  private List<BaseResultErrorReason> errors;
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Status of the import: Pending, Processing, Completed, Canceled or Failed
+   */
+  public String getStatus() {
+    return status;
+  }
+
+  public String getStatusReason() {
+    return statusReason;
+  }
+
+  public Long getTotalCount() {
+    return totalCount;
+  }
+
+  public Long getImportedCount() {
+    return importedCount;
+  }
+
+  /**
+   * Link to the file with the import result of every record
+   */
+  public String getResultResourceUrl() {
+    return resultResourceUrl;
+  }
+
+  public List<BaseResultErrorReason> getErrors() {
+    return errors;
+  }
+
+  /**
+   * @return {@code true} if import is not in progress anymore
+   */
+  public boolean isImportFinished() {
+    return STATUS_COMPLETED.equalsIgnoreCase(status) || STATUS_FAILED.equalsIgnoreCase(status)
+      || STATUS_CANCELED.equalsIgnoreCase(status) || "Cancelled".equalsIgnoreCase(status);
+  }
+
+  public boolean isImportCompleted() {
+    return STATUS_COMPLETED.equalsIgnoreCase(status);
+  }
+}
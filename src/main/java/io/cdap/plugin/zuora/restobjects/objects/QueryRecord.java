@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.cdap.plugin.zuora.restobjects.objects;
+
+import java.util.Map;
+
+/**
+ * Record of the ZOQL query result. Fields are not known in advance and are defined by the query.
+ */
+public class QueryRecord extends BaseObject {
+  private final transient Map<String, String> values;
+
+  /**
+   * @param values field values, {@code null} values are treated as absent fields
+   */
+  public QueryRecord(Map<String, String> values) {
+    this.values = values;
+  }
+
+  @Override
+  public void addFields() {
+    values.forEach((name, value) -> {
+      if (value != null) {
+        addCustomField(name, value);
+      }
+    });
+  }
+}
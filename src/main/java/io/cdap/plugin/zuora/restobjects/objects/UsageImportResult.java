@@ -0,0 +1,74 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.restobjects.objects;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Response of the usage import API, both for the uploaded file and for the import status requests
+ */
+public class UsageImportResult extends BaseResult<BaseObject> {
+  public static final String STATUS_COMPLETED = "Completed";
+  public static final String STATUS_FAILED = "Failed";
+  public static final String STATUS_CANCELED = "Canceled";
+
+  @SerializedName("checkImportStatus")
+  private String checkImportStatus; // set only by the upload response
+
+  @SerializedName("size")
+  private Long size; // set only by the upload response
+
+  @SerializedName("importStatus")
+  private String importStatus; // set only by the status response
+
+  @SerializedName("message")
+  private String message; // set only by the status response
+
+  /**
+   * Path of the import status resource
+   */
+  public String getCheckImportStatus() {
+    return checkImportStatus;
+  }
+
+  public Long getSize() {
+    return size;
+  }
+
+  /**
+   * Status of the import: Pending, Processing, Completed, Canceled or Failed
+   */
+  public String getImportStatus() {
+    return importStatus;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * @return {@code true} if import is not in progress anymore
+   */
+  public boolean isImportFinished() {
+    return STATUS_COMPLETED.equalsIgnoreCase(importStatus) || STATUS_FAILED.equalsIgnoreCase(importStatus)
+      || STATUS_CANCELED.equalsIgnoreCase(importStatus);
+  }
+
+  public boolean isImportCompleted() {
+    return STATUS_COMPLETED.equalsIgnoreCase(importStatus);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Request and response bodies compression test
+ */
+public class ContentEncodingTest {
+  private static final String BODY = "{\"products\":[" + Strings.repeat("{\"id\":\"1\",\"name\":\"product\"},", 100)
+    + "{}]}";
+
+  private static String read(InputStream stream) throws IOException {
+    try (InputStream input = stream) {
+      return new String(ByteStreams.toByteArray(input), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static HttpEntity entity(byte[] content, String encoding) {
+    ByteArrayEntity entity = new ByteArrayEntity(content);
+    entity.setContentEncoding(encoding);
+    return entity;
+  }
+
+  @Test
+  public void testEncodeLargeBody() throws IOException {
+    TransferMetrics metrics = new TransferMetrics();
+    HttpEntity entity = ContentEncoding.encode(BODY, true, metrics);
+
+    Assert.assertEquals("gzip", entity.getContentEncoding().getValue());
+    Assert.assertEquals(BODY, read(new GZIPInputStream(entity.getContent())));
+    Assert.assertEquals(1, metrics.getCompressedRequests());
+    Assert.assertEquals(BODY.length(), metrics.getRequestBytes());
+    Assert.assertEquals(entity.getContentLength(), metrics.getTransferredRequestBytes());
+    Assert.assertTrue(metrics.getTransferredRequestBytes() < metrics.getRequestBytes());
+  }
+
+  @Test
+  public void testEncodeSmallOrNotCompressedBody() throws IOException {
+    TransferMetrics metrics = new TransferMetrics();
+    Assert.assertNull(ContentEncoding.encode("{}", true, metrics).getContentEncoding());
+
+    HttpEntity entity = ContentEncoding.encode(BODY, false, metrics);
+    Assert.assertNull(entity.getContentEncoding());
+    Assert.assertEquals(BODY, read(entity.getContent()));
+
+    Assert.assertEquals(2, metrics.getRequests());
+    Assert.assertEquals(0, metrics.getCompressedRequests());
+    Assert.assertEquals(metrics.getRequestBytes(), metrics.getTransferredRequestBytes());
+  }
+
+  @Test
+  public void testDecode() throws IOException {
+    ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+    try (GZIPOutputStream stream = new GZIPOutputStream(gzip)) {
+      stream.write(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+    ByteArrayOutputStream deflate = new ByteArrayOutputStream();
+    try (DeflaterOutputStream stream = new DeflaterOutputStream(deflate)) {
+      stream.write(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    TransferMetrics metrics = new TransferMetrics();
+    Assert.assertEquals(BODY, read(ContentEncoding.decode(entity(gzip.toByteArray(), "gzip"), metrics, "uri")));
+    Assert.assertEquals(BODY, read(ContentEncoding.decode(entity(deflate.toByteArray(), "deflate"), metrics, "uri")));
+    Assert.assertEquals(BODY, read(ContentEncoding.decode(new ByteArrayEntity(BODY.getBytes(StandardCharsets.UTF_8)),
+                                                          metrics, "uri")));
+
+    Assert.assertEquals(3, metrics.getResponses());
+    Assert.assertEquals(2, metrics.getCompressedResponses());
+    Assert.assertEquals(3L * BODY.length(), metrics.getResponseBytes());
+    Assert.assertEquals(gzip.size() + deflate.size() + BODY.length(), metrics.getTransferredResponseBytes());
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnsupportedEncoding() throws IOException {
+    ContentEncoding.decode(entity(new byte[0], "br"), new TransferMetrics(), "uri");
+  }
+}
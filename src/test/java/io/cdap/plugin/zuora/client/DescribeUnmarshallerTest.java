@@ -0,0 +1,70 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import io.cdap.plugin.zuora.client.schema.ZuoraDefinitions;
+import io.cdap.plugin.zuora.client.schema.ZuoraObjectSchema;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Describe API responses parsing test
+ */
+public class DescribeUnmarshallerTest {
+  private static final String DEFINITIONS = "<objects>"
+    + "<object href=\"https://rest.zuora.com/v1/describe/Account\"><name>Account</name><label>Account</label></object>"
+    + "<object href=\"https://rest.zuora.com/v1/describe/Invoice\"><name>Invoice</name><label>Invoice</label></object>"
+    + "</objects>";
+
+  private static final String SCHEMA = "<object><name>Account</name><label>Account</label><fields></fields></object>";
+
+  @Test
+  public void testContextIsShared() throws Exception {
+    Assert.assertSame(DescribeUnmarshaller.getContext(), DescribeUnmarshaller.getContext());
+  }
+
+  @Test
+  public void testUnmarshal() throws Exception {
+    ZuoraDefinitions definitions = DescribeUnmarshaller.unmarshalDefinitions(new StringReader(DEFINITIONS));
+    Assert.assertEquals(2, definitions.getObjects().size());
+    Assert.assertEquals("Invoice", definitions.getObjects().get(1).getName());
+
+    ZuoraObjectSchema schema = DescribeUnmarshaller.unmarshalObjectSchema(new StringReader(SCHEMA));
+    Assert.assertEquals("Account", schema.getName());
+  }
+
+  @Test
+  public void testConcurrentUnmarshal() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ZuoraDefinitions>> results = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        results.add(executor.submit(() -> DescribeUnmarshaller.unmarshalDefinitions(new StringReader(DEFINITIONS))));
+      }
+      for (Future<ZuoraDefinitions> result : results) {
+        Assert.assertEquals("Account", result.get().getObjects().get(0).getName());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.client;
+
+import io.cdap.plugin.zuora.objects.ProductType;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Streaming response decoding test
+ */
+public class JsonResponseDecoderTest {
+
+  private static BaseResult<BaseObject> decode(String json) throws IOException {
+    return JsonResponseDecoder.decode(new StringReader(json), "products", ProductType.class);
+  }
+
+  @Test
+  public void decodePage() throws IOException {
+    BaseResult<BaseObject> result = decode("{\"products\": [{\"id\": \"1\", \"name\": \"first\"}, "
+      + "{\"id\": \"2\", \"name\": \"second\"}], \"unknown\": {\"a\": [1, 2]}, "
+      + "\"nextPage\": \"/v1/catalog/products?page=2&pageSize=2\", \"success\": true}");
+
+    Assert.assertEquals(2, result.getResult().size());
+    Assert.assertEquals("first", result.getResult().get(0).asMap().get("name"));
+    Assert.assertEquals("second", result.getResult().get(1).asMap().get("name"));
+    Assert.assertTrue(result.isSuccess());
+
+    result.setRestApiEndpoint("https://rest.apisandbox.zuora.com");
+    Assert.assertEquals("/v1/catalog/products", result.getNextPage());
+    Assert.assertEquals("2", result.getNextPageArguments().get("page"));
+  }
+
+  @Test
+  public void decodeError() throws IOException {
+    BaseResult<BaseObject> result = decode("{\"success\": false, \"httpCode\": 500, \"processId\": \"p1\", "
+      + "\"reasons\": [{\"code\": \"500\", \"message\": \"failure\"}]}");
+
+    Assert.assertNull(result.getResult());
+    Assert.assertFalse(result.isSuccess());
+    Assert.assertEquals(Integer.valueOf(500), result.getHttpCode());
+    Assert.assertEquals("p1", result.getProcessId());
+    Assert.assertEquals("failure; ", result.getReason(true));
+  }
+
+  @Test
+  public void decodeNullRootElement() throws IOException {
+    Assert.assertNull(decode("{\"products\": null, \"success\": true}").getResult());
+  }
+
+  @Test(expected = IOException.class)
+  public void decodeInvalidStructure() throws IOException {
+    decode("{\"products\": {\"id\": \"1\"}}");
+  }
+}
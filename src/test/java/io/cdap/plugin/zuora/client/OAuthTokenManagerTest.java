@@ -0,0 +1,139 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import com.google.common.base.Ticker;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OAuth2 token manager test
+ */
+public class OAuthTokenManagerTest {
+  private static final Gson GSON = new Gson();
+
+  /**
+   * Ticker, which is moved manually
+   */
+  private static class ManualTicker extends Ticker {
+    private volatile long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long seconds) {
+      nanos += TimeUnit.SECONDS.toNanos(seconds);
+    }
+  }
+
+  /**
+   * Provides numbered tokens, which expire in one hour
+   */
+  private static class CountingSource implements OAuthTokenManager.TokenSource {
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Override
+    public OAuthHttpResponse requestToken() {
+      return GSON.fromJson(String.format("{\"access_token\": \"token%d\", \"token_type\": \"bearer\", "
+                                           + "\"expires_in\": 3600}", requests.incrementAndGet()),
+                           OAuthHttpResponse.class);
+    }
+  }
+
+  @Test
+  public void cachedUntilRefreshTime() throws IOException {
+    ManualTicker ticker = new ManualTicker();
+    OAuthTokenManager manager = new OAuthTokenManager(ticker);
+    CountingSource source = new CountingSource();
+
+    Assert.assertEquals("token1", manager.getToken(source, null));
+    ticker.advance(3000);
+    Assert.assertEquals("token1", manager.getToken(source, null));
+
+    // refreshed 5 minutes before expiry
+    ticker.advance(300);
+    Assert.assertEquals("token2", manager.getToken(source, null));
+    Assert.assertEquals(2, source.requests.get());
+  }
+
+  @Test
+  public void refreshedWhenRejected() throws IOException {
+    OAuthTokenManager manager = new OAuthTokenManager(new ManualTicker());
+    CountingSource source = new CountingSource();
+
+    String token = manager.getToken(source, null);
+    Assert.assertEquals("token2", manager.getToken(source, token));
+    // token was already refreshed by another request
+    Assert.assertEquals("token2", manager.getToken(source, token));
+    Assert.assertEquals(2, source.requests.get());
+  }
+
+  @Test
+  public void sharedOnlyWithSameSecret() throws IOException {
+    OAuthTokenManager manager = OAuthTokenManager.getInstance("http://localhost", "shared-id", "secret");
+    manager.getToken(new CountingSource(), null);
+
+    Assert.assertSame(manager, OAuthTokenManager.getInstance("http://localhost", "shared-id", "secret"));
+    OAuthTokenManager other = OAuthTokenManager.getInstance("http://localhost", "shared-id", "wrong");
+    Assert.assertNotSame(manager, other);
+
+    // token of the valid secret is not reused, so the wrong secret is checked by the OAuth API
+    CountingSource source = new CountingSource();
+    other.getToken(source, null);
+    Assert.assertEquals(1, source.requests.get());
+  }
+
+  @Test
+  public void singleRefreshAtTime() throws Exception {
+    OAuthTokenManager manager = new OAuthTokenManager(new ManualTicker());
+    CountingSource source = new CountingSource() {
+      @Override
+      public OAuthHttpResponse requestToken() {
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        return super.requestToken();
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> tokens = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        tokens.add(executor.submit(() -> manager.getToken(source, null)));
+      }
+      for (Future<String> token : tokens) {
+        Assert.assertEquals("token1", token.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assert.assertEquals(1, source.requests.get());
+  }
+}
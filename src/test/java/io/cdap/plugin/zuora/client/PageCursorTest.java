@@ -0,0 +1,89 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.client;
+
+import com.google.gson.JsonParser;
+import io.cdap.plugin.zuora.objects.ProductType;
+import io.cdap.plugin.zuora.restobjects.ZoqlQuery;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Lazy page cursor test
+ */
+public class PageCursorTest {
+  private static final String PAGE = "{\"products\": [{\"id\": \"1\", \"name\": \"first\"}, "
+    + "{\"id\": \"2\", \"name\": \"second\"}, {\"id\": \"3\", \"name\": \"third\"}], "
+    + "\"nextPage\": \"/v1/catalog/products?page=2&pageSize=3\", \"success\": true}";
+
+  private static PageCursor open(String json) throws IOException {
+    return new PageCursor(new StringReader(json), "products", ProductType.class, null);
+  }
+
+  @Test
+  public void pageInformationAfterRecords() throws IOException {
+    try (PageCursor cursor = open(PAGE)) {
+      Assert.assertTrue(cursor.hasNext());
+      Assert.assertEquals("first", cursor.next().asMap().get("name"));
+      Assert.assertNull(cursor.getPage().isSuccess());
+
+      cursor.skip();
+      Assert.assertEquals("third", cursor.next().asMap().get("name"));
+      Assert.assertFalse(cursor.hasNext());
+
+      Assert.assertTrue(cursor.getPage().isSuccess());
+      cursor.getPage().setRestApiEndpoint("https://rest.apisandbox.zuora.com");
+      Assert.assertEquals("/v1/catalog/products", cursor.getPage().getNextPage());
+    }
+  }
+
+  @Test
+  public void recordsDecodedBeforeResponseEnd() throws IOException {
+    // the rest of the page is not received yet
+    try (PageCursor cursor = open(PAGE.substring(0, PAGE.indexOf("{\"id\": \"2\"")))) {
+      Assert.assertEquals("first", cursor.next().asMap().get("name"));
+    }
+  }
+
+  @Test
+  public void readAll() throws IOException {
+    try (PageCursor cursor = open(PAGE)) {
+      cursor.next();
+      Assert.assertEquals(2, cursor.readAll().getResult().size());
+    }
+  }
+
+  @Test
+  public void queryPage() throws IOException {
+    ZoqlQuery query = ZoqlQuery.parse("select Id, Name from Account");
+    String json = "{\"records\": [{\"Id\": \"1\", \"Name\": \"first\"}], \"size\": 1, \"done\": false, "
+      + "\"queryLocator\": \"2c92c0f8\"}";
+    JsonParser parser = new JsonParser();
+
+    try (PageCursor cursor = new PageCursor(new StringReader(json), "records",
+                                            reader -> query.toRecord(parser.parse(reader).getAsJsonObject()), null)) {
+      BaseResult<BaseObject> page = cursor.readAll();
+      Assert.assertEquals("first", page.getResult().get(0).asMap().get("Name"));
+      Assert.assertFalse(page.isDone());
+      Assert.assertEquals("2c92c0f8", page.getQueryLocator());
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import com.google.common.base.Ticker;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request scheduler test
+ */
+public class RequestSchedulerTest {
+
+  /**
+   * Ticker, which is moved manually
+   */
+  private static class ManualTicker extends Ticker {
+    private long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+  }
+
+  @Test
+  public void notPacedWithoutLimits() {
+    RequestScheduler scheduler = new RequestScheduler(new ManualTicker(), new Random(0));
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(0, scheduler.reserve());
+    }
+  }
+
+  @Test
+  public void pacedByRemainingQuota() {
+    ManualTicker ticker = new ManualTicker();
+    RequestScheduler scheduler = new RequestScheduler(ticker, new Random(0));
+    // 10 requests left for 5 seconds, 2 requests per second
+    scheduler.update(10, 5);
+
+    Assert.assertEquals(0, scheduler.reserve());
+    Assert.assertEquals(0, scheduler.reserve());
+    Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(500), scheduler.reserve());
+
+    ticker.advance(500);
+    Assert.assertEquals(0, scheduler.reserve());
+    Assert.assertTrue(scheduler.reserve() > 0);
+  }
+
+  @Test
+  public void suspendedWhenQuotaExhausted() {
+    ManualTicker ticker = new ManualTicker();
+    RequestScheduler scheduler = new RequestScheduler(ticker, new Random(0));
+    scheduler.update(0, 3);
+
+    Assert.assertEquals(TimeUnit.SECONDS.toNanos(3), scheduler.reserve());
+    ticker.advance(3000);
+    Assert.assertEquals(0, scheduler.reserve());
+  }
+
+  @Test
+  public void backoff() {
+    ManualTicker ticker = new ManualTicker();
+    RequestScheduler scheduler = new RequestScheduler(ticker, new Random(0));
+
+    for (int attempt = 1; attempt < 20; attempt++) {
+      long exponential = 1000L << Math.min(attempt - 1, 16);
+      long delay = scheduler.getBackoffMillis(attempt, null);
+      Assert.assertTrue(delay >= Math.min(exponential / 2, TimeUnit.MINUTES.toMillis(2)));
+      Assert.assertTrue(delay <= TimeUnit.MINUTES.toMillis(2));
+    }
+    Assert.assertEquals(TimeUnit.SECONDS.toMillis(30), scheduler.getBackoffMillis(1, 30));
+
+    scheduler.backoff(1, 30);
+    Assert.assertEquals(TimeUnit.SECONDS.toNanos(30), scheduler.reserve());
+    Assert.assertEquals(1, scheduler.getThrottledResponses());
+  }
+
+  @Test
+  public void metrics() throws Exception {
+    RequestScheduler scheduler = new RequestScheduler(new ManualTicker(), new Random(0));
+    scheduler.acquire();
+    scheduler.acquire();
+    scheduler.backoff(1, null);
+
+    Assert.assertEquals(2, scheduler.getRequests());
+    Assert.assertEquals(0, scheduler.getDelayedRequests());
+    Assert.assertEquals("requests: 2 (0 delayed, 0 ms waiting), throttled responses: 1", scheduler.toString());
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+
+/**
+ * Shared HTTP client test
+ */
+public class SharedHttpClientTest {
+  private static final String ENDPOINT = "https://rest.apisandbox.zuora.com";
+
+  @Test
+  public void sharedByTenant() throws IOException {
+    SharedHttpClient first = SharedHttpClient.acquire(ENDPOINT, "id", "secret", ConnectionSettings.getDefault());
+    SharedHttpClient second = SharedHttpClient.acquire(ENDPOINT, "id", "secret", ConnectionSettings.getDefault());
+    SharedHttpClient otherSecret = SharedHttpClient.acquire(ENDPOINT, "id", "other", ConnectionSettings.getDefault());
+    try {
+      Assert.assertSame(first, second);
+      Assert.assertNotSame(first, otherSecret);
+    } finally {
+      first.release();
+      second.release();
+      otherSecret.release();
+    }
+  }
+
+  @Test
+  public void closedWhenReleased() throws IOException {
+    SharedHttpClient first = SharedHttpClient.acquire(ENDPOINT, "id", "secret", ConnectionSettings.getDefault());
+    first.release();
+
+    SharedHttpClient second = SharedHttpClient.acquire(ENDPOINT, "id", "secret", ConnectionSettings.getDefault());
+    second.release();
+    Assert.assertNotSame(first, second);
+  }
+}
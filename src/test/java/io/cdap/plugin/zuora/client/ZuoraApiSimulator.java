@@ -0,0 +1,777 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.client;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ObjectInfo;
+import io.cdap.plugin.zuora.restobjects.ZoqlQuery;
+import io.cdap.plugin.zuora.restobjects.annotations.ObjectFieldDefinition;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Field;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nullable;
+
+/**
+ * Local stub of the Zuora REST API endpoints used by the plugins, so pipelines and benchmarks run without a tenant.
+ *
+ * Serves OAuth tokens, paginated object collections ({@code nextPage}), ZOQL {@code action/query} and
+ * {@code action/queryMore}, usage and object imports, and accepts any other POST request as a sink, keeping its body.
+ * Records of the collections are generated from the fields of the object classes, date fields increase with the
+ * record number, so {@code <field>.GE}, {@code .GT}, {@code .LE}, {@code .LT} and {@code .EQ} filter arguments
+ * select a contiguous range of them. Latency, page sizes, record counts, rate limit and failures are configurable
+ * while the simulator is running.
+ *
+ * Both basic authentication with any credentials and OAuth tokens, issued by {@code oauth/token}, are accepted.
+ */
+public class ZuoraApiSimulator implements Closeable {
+  private static final Gson GSON = new Gson();
+  private static final String API_PREFIX = ZuoraRestClient.REST_API_VERSION + "/";
+  private static final String OAUTH_PATH = "oauth/token";
+  private static final String QUERY_PATH = API_PREFIX + "action/query";
+  private static final String QUERY_MORE_PATH = API_PREFIX + "action/queryMore";
+  private static final String USAGE_PATH = API_PREFIX + "usage";
+  private static final String OBJECT_IMPORT_PATH = API_PREFIX + "object/import";
+  private static final String PRODUCTS = "Products";
+  private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+  private static final LocalDateTime FIRST_DATE = LocalDateTime.of(2019, 1, 1, 0, 0);
+  private static final int TOKEN_EXPIRES_IN = 3600;
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final String endpoint;
+
+  // REST API url -> collection
+  private final Map<String, Collection> collections = new ConcurrentHashMap<>();
+  // ZOQL object name in lower case -> number of records
+  private final Map<String, Integer> queryRecords = new ConcurrentHashMap<>();
+  private final Map<String, QueryState> queryLocators = new ConcurrentHashMap<>();
+  private final Set<String> tokens = ConcurrentHashMap.newKeySet();
+  private final Map<String, List<String>> postedBodies = new ConcurrentHashMap<>();
+
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger issuedTokens = new AtomicInteger();
+  private final AtomicInteger throttledRequests = new AtomicInteger();
+  private final AtomicInteger pendingFailures = new AtomicInteger();
+
+  private volatile long latencyMillis = 0;
+  private volatile int pageSize = 20;
+  private volatile int maxPageSize = 40;
+  private volatile int queryBatchSize = 2000;
+  private volatile int failureStatus = 500;
+  private volatile boolean responseCompression = false;
+  private volatile boolean filtering = true;
+  private volatile int sinkResponseStatus = 200;
+  // null if response of the sink describes the created object
+  private volatile String sinkResponseBody = null;
+
+  // 0 if requests are not limited
+  private int rateLimit = 0;
+  private long rateLimitWindowNanos = 0;
+  private long windowStartNanos = 0;
+  private int windowRequests = 0;
+
+  /**
+   * Starts the simulator on a free local port, {@code Products} collection is empty until
+   * {@link #setRecords(String, int)} is called.
+   */
+  public ZuoraApiSimulator() throws IOException {
+    InetAddress address = InetAddress.getLoopbackAddress();
+    server = HttpServer.create(new InetSocketAddress(address, 0), 0);
+    executor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "zuora-api-simulator");
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+    endpoint = String.format("http://%s:%d", address.getHostAddress(), server.getAddress().getPort());
+    setRecords(PRODUCTS, 0);
+  }
+
+  /**
+   * API endpoint to be used by the {@link ZuoraRestClient} and plugin configs
+   */
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * Sets number of the records of the object collection, records already generated keep their values, so
+   * increasing the number simulates new records created since the previous request.
+   *
+   * @param objectName name of the object, as provided by {@link ObjectHelper#getObjectInfo(String)}
+   * @param count number of the records
+   */
+  public ZuoraApiSimulator setRecords(String objectName, int count) {
+    ObjectInfo objectInfo = ObjectHelper.getObjectInfo(objectName);
+    if (objectInfo == null || Strings.isNullOrEmpty(objectInfo.getRestAPIUrl())) {
+      throw new IllegalArgumentException(String.format("Object '%s' is not available through the REST API",
+                                                       objectName));
+    }
+    collections.compute(normalize(API_PREFIX + objectInfo.getRestAPIUrl()), (url, collection) -> {
+      if (collection == null) {
+        collection = new Collection(objectInfo);
+      }
+      collection.count = count;
+      return collection;
+    });
+    return this;
+  }
+
+  /**
+   * Sets number of the records, returned by ZOQL query of the object
+   */
+  public ZuoraApiSimulator setQueryRecords(String objectName, int count) {
+    queryRecords.put(objectName.toLowerCase(), count);
+    return this;
+  }
+
+  /**
+   * Sets delay before every response
+   */
+  public ZuoraApiSimulator setLatency(long latency, TimeUnit unit) {
+    latencyMillis = unit.toMillis(latency);
+    return this;
+  }
+
+  /**
+   * Sets additional delay before every page of the object collection, so the object is slower than the others
+   *
+   * @param objectName name of the object, which collection was set by {@link #setRecords(String, int)}
+   */
+  public ZuoraApiSimulator setLatency(String objectName, long latency, TimeUnit unit) {
+    ObjectInfo objectInfo = ObjectHelper.getObjectInfo(objectName);
+    Collection collection = (objectInfo == null) ? null
+      : collections.get(normalize(API_PREFIX + objectInfo.getRestAPIUrl()));
+    if (collection == null) {
+      throw new IllegalArgumentException(String.format("Records of '%s' are not set", objectName));
+    }
+    collection.latencyMillis = unit.toMillis(latency);
+    return this;
+  }
+
+  /**
+   * Sets whether filter arguments of the object collections are applied, tenants ignore filters on the fields,
+   * which are not filterable for the object
+   */
+  public ZuoraApiSimulator setFiltering(boolean filtering) {
+    this.filtering = filtering;
+    return this;
+  }
+
+  /**
+   * Sets number of the records per page, if not requested by {@code pageSize} argument
+   */
+  public ZuoraApiSimulator setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+    return this;
+  }
+
+  /**
+   * Sets maximum number of the records per page, larger {@code pageSize} arguments are reduced to it
+   */
+  public ZuoraApiSimulator setMaxPageSize(int maxPageSize) {
+    this.maxPageSize = maxPageSize;
+    return this;
+  }
+
+  /**
+   * Sets number of the records returned by {@code action/query} and every {@code action/queryMore}
+   */
+  public ZuoraApiSimulator setQueryBatchSize(int queryBatchSize) {
+    this.queryBatchSize = queryBatchSize;
+    return this;
+  }
+
+  /**
+   * Limits number of the API requests per time window, requests above the limit are rejected with 429 and
+   * {@code Retry-After} header till the end of the window. Every response reports the remaining requests with
+   * {@code X-RateLimit-Remaining-minute} and {@code X-RateLimit-Reset} headers.
+   *
+   * @param requests number of the allowed requests, 0 to remove the limit
+   * @param window duration of the window
+   * @param unit unit of the window duration
+   */
+  public synchronized ZuoraApiSimulator setRateLimit(int requests, long window, TimeUnit unit) {
+    rateLimit = requests;
+    rateLimitWindowNanos = unit.toNanos(window);
+    windowStartNanos = System.nanoTime();
+    windowRequests = 0;
+    return this;
+  }
+
+  /**
+   * Fails next API requests with the given status code
+   *
+   * @param count number of the requests to fail
+   * @param status http status code of the responses
+   */
+  public ZuoraApiSimulator failRequests(int count, int status) {
+    failureStatus = status;
+    pendingFailures.set(count);
+    return this;
+  }
+
+  /**
+   * Sets response to the requests posted to the sink paths
+   *
+   * @param status http status code of the responses
+   * @param body body of the responses, may be empty, {@code null} to describe the created object
+   */
+  public ZuoraApiSimulator setSinkResponse(int status, @Nullable String body) {
+    sinkResponseStatus = status;
+    sinkResponseBody = body;
+    return this;
+  }
+
+  /**
+   * Compresses responses with gzip, if accepted by the client
+   */
+  public ZuoraApiSimulator setResponseCompression(boolean responseCompression) {
+    this.responseCompression = responseCompression;
+    return this;
+  }
+
+  /**
+   * Invalidates all issued OAuth tokens, so they are rejected with 401 like expired ones
+   */
+  public void expireTokens() {
+    tokens.clear();
+  }
+
+  /**
+   * Number of the API requests received, OAuth token requests are not included
+   */
+  public int getRequestCount() {
+    return requests.get();
+  }
+
+  public int getIssuedTokenCount() {
+    return issuedTokens.get();
+  }
+
+  /**
+   * Number of the requests rejected with 429 by the rate limit
+   */
+  public int getThrottledRequestCount() {
+    return throttledRequests.get();
+  }
+
+  /**
+   * Bodies of the requests posted to the sink path, such as {@code v1/accounts}
+   */
+  public List<String> getPostedBodies(String path) {
+    return postedBodies.getOrDefault(normalize(path), Collections.emptyList());
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      String path = normalize(exchange.getRequestURI().getPath());
+      if (latencyMillis > 0) {
+        Thread.sleep(latencyMillis);
+      }
+      if (path.equals(OAUTH_PATH) && "POST".equals(exchange.getRequestMethod())) {
+        issueToken(exchange);
+        return;
+      }
+
+      requests.incrementAndGet();
+      if (!isAuthorized(exchange)) {
+        sendError(exchange, 401, "Authentication error");
+        return;
+      }
+      if (!allowRequest(exchange)) {
+        return;
+      }
+      if (pendingFailures.getAndUpdate(x -> Math.max(x - 1, 0)) > 0) {
+        sendError(exchange, failureStatus, "Injected failure");
+        return;
+      }
+
+      route(exchange, path);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      sendError(exchange, 500, String.valueOf(e.getMessage()));
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void route(HttpExchange exchange, String path) throws IOException, InterruptedException {
+    boolean post = "POST".equals(exchange.getRequestMethod());
+    Collection collection = collections.get(path);
+    if (collection != null && !post) {
+      sendPage(exchange, collection, parseArguments(exchange.getRequestURI().getRawQuery()));
+    } else if (path.equals(QUERY_PATH) && post) {
+      JsonObject body = GSON.fromJson(readBody(exchange), JsonObject.class);
+      startQuery(exchange, ZoqlQuery.parse(body.get("queryString").getAsString()));
+    } else if (path.equals(QUERY_MORE_PATH) && post) {
+      JsonObject body = GSON.fromJson(readBody(exchange), JsonObject.class);
+      continueQuery(exchange, body.get("queryLocator").getAsString());
+    } else if (path.equals(USAGE_PATH) && post) {
+      String body = readBody(exchange);
+      record(path, body);
+      sendJson(exchange, String.format("{\"success\": true, \"checkImportStatus\": \"/%s/%s/status\", " +
+                                         "\"size\": %d}", USAGE_PATH, UUID.randomUUID(), body.length()));
+    } else if (path.startsWith(USAGE_PATH + "/") && path.endsWith("/status")) {
+      sendJson(exchange, "{\"success\": true, \"importStatus\": \"Completed\", \"message\": \"\"}");
+    } else if (path.equals(OBJECT_IMPORT_PATH) && post) {
+      record(path, readBody(exchange));
+      sendJson(exchange, String.format("{\"Id\": \"%s\"}", UUID.randomUUID()));
+    } else if (path.startsWith(OBJECT_IMPORT_PATH + "/")) {
+      sendJson(exchange, String.format("{\"Id\": \"%s\", \"Status\": \"Completed\"}",
+                                       path.substring(OBJECT_IMPORT_PATH.length() + 1)));
+    } else if (post) {
+      record(path, readBody(exchange));
+      String body = sinkResponseBody;
+      send(exchange, sinkResponseStatus, (body == null)
+        ? String.format("{\"success\": true, \"id\": \"%s\"}", UUID.randomUUID())
+        : body);
+    } else {
+      sendError(exchange, 404, String.format("Resource '%s' not found", path));
+    }
+  }
+
+  private void issueToken(HttpExchange exchange) throws IOException {
+    Map<String, String> form = parseArguments(readBody(exchange));
+    if (Strings.isNullOrEmpty(form.get("client_id")) || Strings.isNullOrEmpty(form.get("client_secret"))) {
+      sendError(exchange, 401, "Invalid client credentials");
+      return;
+    }
+    String token = String.format("token%d", issuedTokens.incrementAndGet());
+    tokens.add(token);
+    sendJson(exchange, String.format("{\"access_token\": \"%s\", \"token_type\": \"bearer\", \"expires_in\": %d, " +
+                                       "\"scope\": \"\", \"jti\": \"%s\"}", token, TOKEN_EXPIRES_IN, token));
+  }
+
+  private boolean isAuthorized(HttpExchange exchange) {
+    String header = Strings.nullToEmpty(exchange.getRequestHeaders().getFirst("Authorization"));
+    if (header.startsWith("Basic ")) {
+      return header.length() > "Basic ".length();
+    }
+    return header.startsWith("Bearer ") && tokens.contains(header.substring("Bearer ".length()));
+  }
+
+  /**
+   * Counts the request against the rate limit, rejects it if the limit is exceeded
+   *
+   * @return {@code true} if the request should be served
+   */
+  private boolean allowRequest(HttpExchange exchange) throws IOException {
+    long remaining;
+    long resetSeconds;
+    synchronized (this) {
+      if (rateLimit <= 0) {
+        return true;
+      }
+      long now = System.nanoTime();
+      if (now - windowStartNanos >= rateLimitWindowNanos) {
+        windowStartNanos = now;
+        windowRequests = 0;
+      }
+      windowRequests++;
+      remaining = rateLimit - windowRequests;
+      resetSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(windowStartNanos + rateLimitWindowNanos - now
+                                                                  + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    exchange.getResponseHeaders().set("X-RateLimit-Remaining-minute", String.valueOf(Math.max(remaining, 0)));
+    exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(resetSeconds));
+    if (remaining >= 0) {
+      return true;
+    }
+    throttledRequests.incrementAndGet();
+    exchange.getResponseHeaders().set("Retry-After", String.valueOf(resetSeconds));
+    sendError(exchange, 429, "Too many requests");
+    return false;
+  }
+
+  private void sendPage(HttpExchange exchange, Collection collection, Map<String, String> arguments)
+    throws IOException, InterruptedException {
+    if (collection.latencyMillis > 0) {
+      Thread.sleep(collection.latencyMillis);
+    }
+    int page = Math.max(1, parseInt(arguments.get("page"), 1));
+    int size = Math.min(maxPageSize, Math.max(1, parseInt(arguments.get("pageSize"), pageSize)));
+    List<Filter> filters = new ArrayList<>();
+    if (filtering) {
+      arguments.forEach((name, value) -> {
+        Filter filter = Filter.parse(collection, name, value);
+        if (filter != null) {
+          filters.add(filter);
+        }
+      });
+    }
+
+    // page is a contiguous range of the matching records, as filters are applied to the increasing dates
+    int count = collection.count;
+    int matched = 0;
+    int first = -1;
+    for (int index = 0; index < count; index++) {
+      if (collection.matches(index, filters)) {
+        if (first < 0) {
+          first = index;
+        }
+        matched++;
+      }
+    }
+    int from = (page - 1) * size;
+    int to = Math.min(matched, from + size);
+
+    try (JsonWriter writer = openJson(exchange)) {
+      writer.beginObject();
+      writer.name("success").value(true);
+      writer.name(collection.rootElement).beginArray();
+      int skipped = 0;
+      for (int index = Math.max(first, 0); index < count && skipped < to; index++) {
+        if (collection.matches(index, filters)) {
+          if (skipped >= from) {
+            collection.write(writer, index);
+          }
+          skipped++;
+        }
+      }
+      writer.endArray();
+      if (to < matched) {
+        Map<String, String> next = new LinkedHashMap<>(arguments);
+        next.put("page", String.valueOf(page + 1));
+        next.put("pageSize", String.valueOf(size));
+        writer.name("nextPage").value("/" + collection.url + "?" + formatArguments(next));
+      }
+      writer.endObject();
+    }
+  }
+
+  private void startQuery(HttpExchange exchange, ZoqlQuery query) throws IOException {
+    int count = queryRecords.getOrDefault(query.getObjectName().toLowerCase(), 0);
+    sendQueryBatch(exchange, new QueryState(query.getFields(), count));
+  }
+
+  private void continueQuery(HttpExchange exchange, String queryLocator) throws IOException {
+    QueryState state = queryLocators.remove(queryLocator);
+    if (state == null) {
+      sendError(exchange, 400, String.format("Invalid query locator '%s'", queryLocator));
+      return;
+    }
+    sendQueryBatch(exchange, state);
+  }
+
+  private void sendQueryBatch(HttpExchange exchange, QueryState state) throws IOException {
+    int to = Math.min(state.count, state.offset + queryBatchSize);
+    String queryLocator = null;
+    if (to < state.count) {
+      queryLocator = UUID.randomUUID().toString().replace("-", "");
+      queryLocators.put(queryLocator, new QueryState(state.fields, state.count, to));
+    }
+
+    try (JsonWriter writer = openJson(exchange)) {
+      writer.beginObject();
+      writer.name("records").beginArray();
+      for (int index = state.offset; index < to; index++) {
+        writer.beginObject();
+        for (String field : state.fields) {
+          writer.name(field).value(generateValue(field, Schema.Type.STRING, index).toString());
+        }
+        writer.endObject();
+      }
+      writer.endArray();
+      writer.name("size").value(state.count);
+      writer.name("done").value(queryLocator == null);
+      if (queryLocator != null) {
+        writer.name("queryLocator").value(queryLocator);
+      }
+      writer.endObject();
+    }
+  }
+
+  private void record(String path, String body) {
+    postedBodies.computeIfAbsent(path, x -> new CopyOnWriteArrayList<>()).add(body);
+  }
+
+  private JsonWriter openJson(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+    OutputStream output = exchange.getResponseBody();
+    String accepted = Strings.nullToEmpty(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+    if (responseCompression && accepted.contains("gzip")) {
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(200, 0);
+      output = new GZIPOutputStream(output);
+    } else {
+      exchange.sendResponseHeaders(200, 0);
+    }
+    return new JsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+  }
+
+  private void sendJson(HttpExchange exchange, String json) throws IOException {
+    send(exchange, 200, json);
+  }
+
+  private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+    send(exchange, status, String.format("{\"success\": false, \"processId\": \"%s\", \"reasons\": " +
+                                           "[{\"code\": %d, \"message\": %s}]}", UUID.randomUUID(), status,
+                                         GSON.toJson(message)));
+  }
+
+  private static void send(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length == 0) {
+      // -1 length tells, that the response has no body
+      exchange.sendResponseHeaders(status, -1);
+      return;
+    }
+    exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+
+  private static String readBody(HttpExchange exchange) throws IOException {
+    String encoding = Strings.nullToEmpty(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+    InputStream input = exchange.getRequestBody();
+    if (encoding.equalsIgnoreCase("gzip")) {
+      input = new GZIPInputStream(input);
+    } else if (encoding.equalsIgnoreCase("deflate")) {
+      input = new InflaterInputStream(input);
+    }
+    try (InputStream stream = input) {
+      return new String(ByteStreams.toByteArray(stream), StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Removes leading and duplicate slashes, client joins the endpoint and the paths, which may start with a slash
+   */
+  private static String normalize(String path) {
+    String normalized = path.replaceAll("/{2,}", "/");
+    return normalized.startsWith("/") ? normalized.substring(1) : normalized;
+  }
+
+  private static Map<String, String> parseArguments(@Nullable String query) throws UnsupportedEncodingException {
+    Map<String, String> arguments = new LinkedHashMap<>();
+    if (Strings.isNullOrEmpty(query)) {
+      return arguments;
+    }
+    for (String argument : Splitter.on('&').omitEmptyStrings().split(query)) {
+      int separator = argument.indexOf('=');
+      String name = (separator < 0) ? argument : argument.substring(0, separator);
+      String value = (separator < 0) ? "" : argument.substring(separator + 1);
+      arguments.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+    }
+    return arguments;
+  }
+
+  /**
+   * Arguments of the next page url are not encoded, as they are passed back by the client without decoding
+   */
+  private static String formatArguments(Map<String, String> arguments) {
+    return arguments.entrySet().stream()
+      .map(x -> x.getKey() + "=" + x.getValue())
+      .collect(Collectors.joining("&"));
+  }
+
+  private static int parseInt(@Nullable String value, int defaultValue) {
+    try {
+      return (value == null) ? defaultValue : Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Value of the record field, dates increase by one minute with every record
+   */
+  private static Object generateValue(String name, Schema.Type type, int index) {
+    switch (type) {
+      case BOOLEAN:
+        return index % 2 == 0;
+      case INT:
+        return index;
+      default:
+        if (name.equalsIgnoreCase("id")) {
+          return String.format("%032x", index + 1);
+        }
+        if (name.toLowerCase().endsWith("date")) {
+          return FIRST_DATE.plusMinutes(index).format(DATE_FORMAT);
+        }
+        return String.format("%s-%d", name, index + 1);
+    }
+  }
+
+  /**
+   * Records of the object, simple type fields of the object class are generated, nested objects are omitted
+   */
+  private static final class Collection {
+    private final String url;
+    private final String rootElement;
+    private final Map<String, Schema.Type> fields = new LinkedHashMap<>();
+    private volatile int count;
+    private volatile long latencyMillis;
+
+    private Collection(ObjectInfo objectInfo) {
+      this.url = normalize(API_PREFIX + objectInfo.getRestAPIUrl());
+      this.rootElement = objectInfo.getResponseRootElement();
+      for (Class<?> current = objectInfo.getObjectClass(); current != BaseObject.class && current != null;
+           current = current.getSuperclass()) {
+        for (Field field : current.getDeclaredFields()) {
+          ObjectFieldDefinition definition = field.getAnnotation(ObjectFieldDefinition.class);
+          SerializedName serializedName = field.getAnnotation(SerializedName.class);
+          if (definition != null && serializedName != null && definition.FieldType().isSimpleType()) {
+            fields.putIfAbsent(serializedName.value(), definition.FieldType());
+          }
+        }
+      }
+    }
+
+    private boolean matches(int index, List<Filter> filters) {
+      for (Filter filter : filters) {
+        if (!filter.matches(generateValue(filter.field, Schema.Type.STRING, index).toString())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void write(JsonWriter writer, int index) throws IOException {
+      writer.beginObject();
+      for (Map.Entry<String, Schema.Type> field : fields.entrySet()) {
+        Object value = generateValue(field.getKey(), field.getValue(), index);
+        writer.name(field.getKey());
+        if (value instanceof Boolean) {
+          writer.value((Boolean) value);
+        } else if (value instanceof Number) {
+          writer.value((Number) value);
+        } else {
+          writer.value(value.toString());
+        }
+      }
+      writer.endObject();
+    }
+  }
+
+  /**
+   * {@code <field>.<operator>=<value>} filter argument of the string field
+   */
+  private static final class Filter {
+    private final String field;
+    private final String operator;
+    private final String value;
+
+    private Filter(String field, String operator, String value) {
+      this.field = field;
+      this.operator = operator;
+      this.value = value;
+    }
+
+    @Nullable
+    private static Filter parse(Collection collection, String argument, String value) {
+      int separator = argument.lastIndexOf('.');
+      if (separator < 0) {
+        return null;
+      }
+      String field = argument.substring(0, separator);
+      if (collection.fields.get(field) != Schema.Type.STRING) {
+        return null;
+      }
+      return new Filter(field, argument.substring(separator + 1).toUpperCase(), value);
+    }
+
+    private boolean matches(String fieldValue) {
+      int comparison = fieldValue.compareTo(value);
+      switch (operator) {
+        case "GE":
+          return comparison >= 0;
+        case "GT":
+          return comparison > 0;
+        case "LE":
+          return comparison <= 0;
+        case "LT":
+          return comparison < 0;
+        case "EQ":
+          return comparison == 0;
+        default:
+          return true;
+      }
+    }
+  }
+
+  /**
+   * Position of the ZOQL query result, identified by the query locator
+   */
+  private static final class QueryState {
+    private final List<String> fields;
+    private final int count;
+    private final int offset;
+
+    private QueryState(List<String> fields, int count) {
+      this(fields, count, 0);
+    }
+
+    private QueryState(List<String> fields, int count, int offset) {
+      this.fields = fields;
+      this.count = count;
+      this.offset = offset;
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.client;
+
+import com.google.common.collect.ImmutableMap;
+import io.cdap.plugin.zuora.objects.ProductType;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.SendObject;
+import io.cdap.plugin.zuora.restobjects.ZoqlQuery;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST client requests to the local API simulator test
+ */
+public class ZuoraApiSimulatorTest {
+  private ZuoraApiSimulator simulator;
+
+  @Before
+  public void setUp() throws IOException {
+    simulator = new ZuoraApiSimulator();
+  }
+
+  @After
+  public void tearDown() {
+    simulator.close();
+  }
+
+  private ZuoraRestClient createClient(boolean basicAuth) {
+    return new ZuoraRestClient(simulator.getEndpoint(), "user", "password", basicAuth);
+  }
+
+  private static Set<String> readAll(ZuoraRestClient client, Map<String, String> arguments) throws IOException {
+    Set<String> ids = new HashSet<>();
+    BaseResult<BaseObject> result = client.getObject(ObjectHelper.getObjectInfo(ProductType.class), arguments);
+    while (result != null) {
+      Assert.assertTrue(result.getReason(true), result.isSuccess());
+      result.getResult().forEach(x -> ids.add((String) x.asMap().get("id")));
+      result = client.nextPage(result);
+    }
+    return ids;
+  }
+
+  @Test
+  public void paginatedCollection() throws IOException {
+    simulator.setRecords("Products", 45).setPageSize(20);
+
+    try (ZuoraRestClient client = createClient(true)) {
+      client.checkConnection();
+      Assert.assertEquals(45, readAll(client, Collections.emptyMap()).size());
+      // requested page size is preferred
+      Assert.assertEquals(45, readAll(client, ImmutableMap.of("pageSize", "5")).size());
+    }
+    Assert.assertEquals(1 + 3 + 9, simulator.getRequestCount());
+  }
+
+  @Test
+  public void filteredCollection() throws IOException {
+    simulator.setRecords("Products", 50).setPageSize(2);
+
+    try (ZuoraRestClient client = createClient(true)) {
+      // dates increase by a minute with every record
+      Assert.assertEquals(5, readAll(client, ImmutableMap.of("effectiveStartDate.GE", "2019-01-01T00:45:00")).size());
+
+      simulator.setRecords("Products", 60);
+      Assert.assertEquals(15, readAll(client, ImmutableMap.of("effectiveStartDate.GE", "2019-01-01T00:45:00")).size());
+    }
+  }
+
+  @Test
+  public void queryMore() throws IOException {
+    simulator.setQueryRecords("Account", 5).setQueryBatchSize(2);
+    ZoqlQuery query = ZoqlQuery.parse("select Id, Name, UpdatedDate from Account");
+
+    Set<String> ids = new HashSet<>();
+    int batches = 0;
+    try (ZuoraRestClient client = createClient(true)) {
+      PageCursor cursor = client.openQuery(query);
+      while (cursor != null) {
+        try (PageCursor batch = cursor) {
+          while (batch.hasNext()) {
+            ids.add((String) batch.next().asMap().get("Id"));
+          }
+          batches++;
+          String queryLocator = batch.getPage().getQueryLocator();
+          cursor = Boolean.TRUE.equals(batch.getPage().isDone()) ? null : client.openQueryMore(query, queryLocator);
+        }
+      }
+    }
+    Assert.assertEquals(5, ids.size());
+    Assert.assertEquals(3, batches);
+  }
+
+  @Test
+  public void rateLimitRetried() throws IOException {
+    simulator.setRateLimit(1, 1, TimeUnit.SECONDS);
+
+    try (ZuoraRestClient client = createClient(true);
+         ZuoraRestClient other = new ZuoraRestClient(simulator.getEndpoint(), "other", "password", true)) {
+      // client is paced by the rate limit headers, so its requests are not rejected
+      for (int i = 0; i < 3; i++) {
+        Assert.assertTrue(client.getObject(ObjectHelper.getObjectInfo(ProductType.class), null).isSuccess());
+      }
+      Assert.assertEquals(0, simulator.getThrottledRequestCount());
+      Assert.assertEquals(3, client.getRequestScheduler().getRequests());
+      Assert.assertEquals(2, client.getRequestScheduler().getDelayedRequests());
+      Assert.assertTrue(client.getRequestScheduler().getWaitTime(TimeUnit.MILLISECONDS) > 0);
+
+      // another client is not aware of the limit exhausted by the first one, so it is rejected and retries
+      Assert.assertTrue(client.getObject(ObjectHelper.getObjectInfo(ProductType.class), null).isSuccess());
+      Assert.assertTrue(other.getObject(ObjectHelper.getObjectInfo(ProductType.class), null).isSuccess());
+      Assert.assertEquals(simulator.getThrottledRequestCount(), other.getRequestScheduler().getThrottledResponses());
+    }
+    Assert.assertTrue(simulator.getThrottledRequestCount() > 0);
+    Assert.assertEquals(5 + simulator.getThrottledRequestCount(), simulator.getRequestCount());
+  }
+
+  @Test
+  public void expiredTokenRefreshed() throws IOException {
+    try (ZuoraRestClient client = createClient(false)) {
+      client.checkConnection();
+      simulator.expireTokens();
+      client.checkConnection();
+    }
+    Assert.assertEquals(2, simulator.getIssuedTokenCount());
+    Assert.assertEquals(3, simulator.getRequestCount());
+  }
+
+  @Test
+  public void injectedFailures() throws IOException {
+    simulator.failRequests(1, 503).setLatency(10, TimeUnit.MILLISECONDS);
+
+    try (ZuoraRestClient client = createClient(true)) {
+      BaseResult<BaseObject> result = client.getObject(ObjectHelper.getObjectInfo(ProductType.class), null);
+      Assert.assertFalse(result.isSuccess());
+      Assert.assertEquals(Integer.valueOf(503), result.getHttpCode());
+
+      Assert.assertTrue(client.getObject(ObjectHelper.getObjectInfo(ProductType.class), null).isSuccess());
+    }
+  }
+
+  @Test
+  public void postedObjects() throws IOException {
+    simulator.setResponseCompression(true);
+
+    try (ZuoraRestClient client = createClient(true)) {
+      client.setRequestCompression(true);
+      String body = "{\"name\": \"" + new String(new char[2048]).replace('\0', 'a') + "\"}";
+      BaseResult<BaseObject> result = client.sendObject(new SendObject("accounts", body, Collections.emptyMap()));
+      Assert.assertTrue(result.isSuccess());
+      Assert.assertEquals(Collections.singletonList(body), simulator.getPostedBodies("v1/accounts"));
+    }
+  }
+}
@@ -20,39 +20,54 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.etl.mock.test.HydratorTestBase;
+import io.cdap.plugin.zuora.client.ZuoraApiSimulator;
 import io.cdap.plugin.zuora.client.ZuoraRestClient;
 import io.cdap.plugin.zuora.objects.ProductType;
 import io.cdap.plugin.zuora.plugin.batch.source.ZuoraSourceConfig;
 import io.cdap.plugin.zuora.restobjects.ObjectHelper;
 import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
 import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 public abstract class BaseZuoraSourceTest extends HydratorTestBase {
   private static final String BASIC_AUTH_TYPE = "basic";
+  private static final int SIMULATED_PRODUCTS = 45;
 
   private static String authType;
   private static String authUser;
   private static String authPass;
   private static String restAPI;
   private static ZuoraRestClient client;
+  private static ZuoraApiSimulator simulator;
 
   @Rule
   public TestName testName = new TestName();
 
+  /**
+   * Uses the tenant configured by the system properties, or the local {@link ZuoraApiSimulator} if
+   * 'zuora.restapi' is not set
+   */
   @BeforeClass
-  public static void setProperties() {
+  public static void setProperties() throws IOException {
     authType = System.getProperty("zuora.auth.type");
     restAPI = System.getProperty("zuora.restapi");
 
     if (Strings.isNullOrEmpty(restAPI)) {
-      throw new IllegalArgumentException("'zuora.restapi' system property must not be empty");
+      simulator = new ZuoraApiSimulator().setRecords("Products", SIMULATED_PRODUCTS);
+      restAPI = simulator.getEndpoint();
+      authType = BASIC_AUTH_TYPE;
+      authUser = "simulator";
+      authPass = "simulator";
+      client = new ZuoraRestClient(restAPI, authUser, authPass, true);
+      return;
     }
 
     if (authType != null) {
@@ -68,6 +83,14 @@ public abstract class BaseZuoraSourceTest extends HydratorTestBase {
     }
   }
 
+  @AfterClass
+  public static void stopSimulator() {
+    if (simulator != null) {
+      simulator.close();
+      simulator = null;
+    }
+  }
+
   public Map<String, String> getBaseProperties() {
     ImmutableMap.Builder<String, String> optionsBuilder = new ImmutableMap.Builder<>();
 
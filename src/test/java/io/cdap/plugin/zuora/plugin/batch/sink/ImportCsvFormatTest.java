@@ -0,0 +1,87 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Import CSV format test
+ */
+public class ImportCsvFormatTest {
+  private static final Schema SCHEMA = Schema.recordOf(
+    "usage",
+    Schema.Field.of("ACCOUNT_ID", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("QTY", Schema.of(Schema.Type.DOUBLE)),
+    Schema.Field.of("DESCRIPTION", Schema.nullableOf(Schema.of(Schema.Type.STRING)))
+  );
+
+  @Test
+  public void testHeader() {
+    Assert.assertEquals("ACCOUNT_ID,QTY,DESCRIPTION", ImportCsvFormat.formatHeader(SCHEMA, null));
+  }
+
+  @Test
+  public void testRow() {
+    StructuredRecord record = StructuredRecord.builder(SCHEMA)
+      .set("ACCOUNT_ID", "A00000001")
+      .set("QTY", 1.5)
+      .set("DESCRIPTION", "calls, \"premium\"")
+      .build();
+    Assert.assertEquals("A00000001,1.5,\"calls, \"\"premium\"\"\"", ImportCsvFormat.formatRow(record, null));
+
+    StructuredRecord empty = StructuredRecord.builder(SCHEMA)
+      .set("ACCOUNT_ID", "A00000001")
+      .set("QTY", 2.0)
+      .build();
+    Assert.assertEquals("A00000001,2.0,", ImportCsvFormat.formatRow(empty, null));
+  }
+
+  @Test
+  public void testExcludedField() {
+    Assert.assertEquals("ACCOUNT_ID,DESCRIPTION", ImportCsvFormat.formatHeader(SCHEMA, "QTY"));
+
+    StructuredRecord record = StructuredRecord.builder(SCHEMA)
+      .set("ACCOUNT_ID", "A00000001")
+      .set("QTY", 1.5)
+      .set("DESCRIPTION", "calls")
+      .build();
+    Assert.assertEquals("A00000001,calls", ImportCsvFormat.formatRow(record, "QTY"));
+
+    ImportCsvFormat.validateSchema(Schema.recordOf(
+      "usage",
+      Schema.Field.of("ACCOUNT_ID", Schema.of(Schema.Type.STRING)),
+      Schema.Field.of("tags", Schema.arrayOf(Schema.of(Schema.Type.STRING)))
+    ), "tags");
+  }
+
+  @Test
+  public void testEscape() {
+    Assert.assertEquals("plain", ImportCsvFormat.escape("plain"));
+    Assert.assertEquals("\"two\nlines\"", ImportCsvFormat.escape("two\nlines"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testComplexFieldsRejected() {
+    ImportCsvFormat.validateSchema(Schema.recordOf(
+      "usage",
+      Schema.Field.of("ACCOUNT_ID", Schema.of(Schema.Type.STRING)),
+      Schema.Field.of("tags", Schema.arrayOf(Schema.of(Schema.Type.STRING)))
+    ), null);
+  }
+}
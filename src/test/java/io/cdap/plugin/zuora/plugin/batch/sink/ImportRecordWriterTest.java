@@ -0,0 +1,218 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.restobjects.SendObject;
+import io.cdap.plugin.zuora.restobjects.objects.ObjectImportResult;
+import io.cdap.plugin.zuora.restobjects.objects.UsageImportResult;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Import writer test
+ */
+public class ImportRecordWriterTest {
+  private static final Gson GSON = new Gson();
+
+  /**
+   * Client, which keeps uploaded files and reports import statuses from the given sequence
+   */
+  private static class ImportingClient extends ZuoraRestClient {
+    private final List<List<String>> uploaded = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+    private final String[] statuses;
+
+    ImportingClient(String... statuses) {
+      super("http://localhost", "id", "secret", true);
+      this.statuses = statuses;
+    }
+
+    @Override
+    public UsageImportResult importUsage(File file) throws IOException {
+      List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+      int id;
+      synchronized (uploaded) {
+        uploaded.add(lines);
+        id = uploaded.size();
+      }
+      if (lines.stream().anyMatch(x -> x.contains("rejected"))) {
+        return GSON.fromJson("{\"success\": false, \"reasons\": [{\"code\": 1, \"message\": \"bad file\"}]}",
+                             UsageImportResult.class);
+      }
+      return GSON.fromJson(String.format("{\"success\": true, \"checkImportStatus\": \"/v1/usage/%d/status\"}", id),
+                           UsageImportResult.class);
+    }
+
+    @Override
+    public UsageImportResult getUsageImportStatus(String checkImportStatus) {
+      int poll = polls.computeIfAbsent(checkImportStatus, x -> new AtomicInteger()).getAndIncrement();
+      String status = statuses[Math.min(poll, statuses.length - 1)];
+      return GSON.fromJson(String.format("{\"success\": true, \"importStatus\": \"%s\", \"message\": \"m\"}", status),
+                           UsageImportResult.class);
+    }
+  }
+
+  /**
+   * Client, which keeps uploaded object import archives by import type and reports the given import status
+   */
+  private static class ObjectImportingClient extends ZuoraRestClient {
+    private final Map<String, List<List<String>>> uploaded = new ConcurrentHashMap<>();
+    private final String status;
+
+    ObjectImportingClient(String status) {
+      super("http://localhost", "id", "secret", true);
+      this.status = status;
+    }
+
+    @Override
+    public ObjectImportResult importObjects(File file, String importType, String name) throws IOException {
+      Assert.assertTrue(file.getName().endsWith(".zip"));
+      try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(file.toPath()))) {
+        ZipEntry entry = zip.getNextEntry();
+        Assert.assertEquals(name + ".csv", entry.getName());
+        uploaded.computeIfAbsent(importType, x -> Collections.synchronizedList(new ArrayList<>()))
+          .add(readLines(zip));
+      }
+      return GSON.fromJson(String.format("{\"id\": \"%s-%s\"}", importType, name), ObjectImportResult.class);
+    }
+
+    @Override
+    public ObjectImportResult getObjectImportStatus(String id) {
+      return GSON.fromJson(String.format("{\"id\": \"%s\", \"status\": \"%s\", \"totalCount\": 2, " +
+                                           "\"importedCount\": 1, \"resultResourceUrl\": \"/result\"}", id, status),
+                           ObjectImportResult.class);
+    }
+
+    private static List<String> readLines(InputStream stream) {
+      return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)).lines()
+        .collect(Collectors.toList());
+    }
+  }
+
+  private static SendObject row(String value) {
+    return new SendObject(ZuoraSinkTransformer.USAGE_API_URL, value, ImmutableMap.of());
+  }
+
+  @Test
+  public void testChunks() throws Exception {
+    ImportingClient client = new ImportingClient("Pending", "Processing", "Completed");
+    ImportRecordWriter writer = new ImportRecordWriter(new UsageFileImporter(client), "ACCOUNT_ID,QTY", 2, 2, 10000, 1);
+
+    for (int i = 0; i < 5; i++) {
+      writer.write(null, row("A" + i + ",1"));
+    }
+    writer.close(null);
+
+    Assert.assertEquals(3, client.uploaded.size());
+    for (List<String> lines : client.uploaded) {
+      Assert.assertEquals("ACCOUNT_ID,QTY", lines.get(0));
+    }
+    Assert.assertEquals(5 + 3, client.uploaded.stream().mapToInt(List::size).sum());
+    Assert.assertEquals(3, client.polls.values().stream().filter(x -> x.get() == 3).count());
+  }
+
+  @Test
+  public void testFailedImports() throws Exception {
+    ImportingClient client = new ImportingClient("Processing", "Failed");
+    ImportRecordWriter writer = new ImportRecordWriter(new UsageFileImporter(client), "ACCOUNT_ID,QTY", 1, 1, 10000, 1);
+
+    writer.write(null, row("A1,1"));
+    writer.write(null, row("rejected,1"));
+    try {
+      writer.close(null);
+      Assert.fail("Failed imports are not reported");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Failed to import 2 of 2 usage files"));
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("bad file"));
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("status 'Failed': m"));
+    }
+  }
+
+  @Test
+  public void testImportTimeout() throws Exception {
+    ImportingClient client = new ImportingClient("Processing");
+    ImportRecordWriter writer = new ImportRecordWriter(new UsageFileImporter(client), "ACCOUNT_ID,QTY", 10, 1, 50, 1);
+
+    writer.write(null, row("A1,1"));
+    try {
+      writer.close(null);
+      Assert.fail("Timed out import is not reported");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("last status 'Processing'"));
+    }
+  }
+
+  @Test
+  public void testObjectImportGroupedByType() throws Exception {
+    ObjectImportingClient client = new ObjectImportingClient("Pending");
+    ImportRecordWriter writer = new ImportRecordWriter(new ObjectFileImporter(client), "Name,Value", 2, 2, 50, 1);
+
+    writer.write(null, objectRow("Account", "a1,1"));
+    writer.write(null, objectRow("Subscription", "s1,1"));
+    writer.write(null, objectRow("Account", "a2,1"));
+    writer.write(null, objectRow("Account", "a3,1"));
+    try {
+      writer.close(null);
+      Assert.fail("Timed out imports are not reported");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Failed to import 3 of 3 object files"));
+    }
+
+    Assert.assertEquals(2, client.uploaded.get("Account").size());
+    Assert.assertEquals(1, client.uploaded.get("Subscription").size());
+    Assert.assertEquals(ImmutableList.of("Name,Value", "s1,1"), client.uploaded.get("Subscription").get(0));
+    Assert.assertEquals(3 + 2, client.uploaded.get("Account").stream().mapToInt(List::size).sum());
+  }
+
+  @Test
+  public void testPartialObjectImport() throws Exception {
+    ObjectImportingClient client = new ObjectImportingClient("Completed");
+    ImportRecordWriter writer = new ImportRecordWriter(new ObjectFileImporter(client), "Name,Value", 10, 1, 10000, 1);
+
+    writer.write(null, objectRow("Account", "a1,1"));
+    try {
+      writer.close(null);
+      Assert.fail("Partially imported file is not reported");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("imported 1 of 2 records, results: /result"));
+    }
+  }
+
+  private static SendObject objectRow(String importType, String value) {
+    return new SendObject(ZuoraSinkTransformer.OBJECT_IMPORT_API_URL, value,
+                          ImmutableMap.of(ObjectFileImporter.IMPORT_TYPE_ARGUMENT, importType));
+  }
+}
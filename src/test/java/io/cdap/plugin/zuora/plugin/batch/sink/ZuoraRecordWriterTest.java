@@ -0,0 +1,120 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import com.google.common.collect.ImmutableMap;
+import io.cdap.plugin.zuora.client.ZuoraApiSimulator;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.restobjects.SendObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Record writer test
+ */
+public class ZuoraRecordWriterTest {
+  private static final String TAXATION_URL = "debitmemos/{debitMemoId}/taxationitems";
+
+  /**
+   * Client, which records sent objects instead of sending them
+   */
+  private static class RecordingClient extends ZuoraRestClient {
+    private final List<SendObject> sent = Collections.synchronizedList(new ArrayList<>());
+
+    RecordingClient() {
+      super("http://localhost", "id", "secret", true);
+    }
+
+    @Override
+    public BaseResult<BaseObject> sendObject(SendObject sendObject) {
+      sent.add(sendObject);
+      BaseResult<BaseObject> result = new BaseResult<>();
+      result.setSuccess(!sendObject.getBody().contains("invalid"));
+      return result;
+    }
+  }
+
+  private static SendObject taxation(String debitMemoId, String name) {
+    return new SendObject(TAXATION_URL, String.format("{\"taxationItems\": [{\"name\": \"%s\"}]}", name),
+                          ImmutableMap.of("debitMemoId", debitMemoId));
+  }
+
+  @Test
+  public void packCollections() throws Exception {
+    RecordingClient client = new RecordingClient();
+    ZuoraRecordWriter writer = new ZuoraRecordWriter(client, 1, 2);
+
+    writer.write(null, taxation("1", "a"));
+    writer.write(null, taxation("1", "b"));
+    writer.write(null, taxation("1", "c"));
+    writer.write(null, taxation("2", "d"));
+    writer.close(null);
+
+    Assert.assertEquals(3, client.sent.size());
+    Assert.assertEquals("{\"taxationItems\":[{\"name\":\"a\"},{\"name\":\"b\"}]}", client.sent.get(0).getBody());
+    Assert.assertEquals(taxation("1", "c").getBody(), client.sent.get(1).getBody());
+    Assert.assertEquals(ImmutableMap.of("debitMemoId", "2"), client.sent.get(2).getArguments());
+  }
+
+  @Test
+  public void sendConcurrently() throws Exception {
+    RecordingClient client = new RecordingClient();
+    ZuoraRecordWriter writer = new ZuoraRecordWriter(client, 4, 1);
+
+    for (int i = 0; i < 100; i++) {
+      writer.write(null, new SendObject("payments", "{}", Collections.emptyMap()));
+    }
+    writer.close(null);
+
+    Assert.assertEquals(100, client.sent.size());
+  }
+
+  @Test
+  public void reportFailuresOnClose() throws Exception {
+    RecordingClient client = new RecordingClient();
+    ZuoraRecordWriter writer = new ZuoraRecordWriter(client, 2, 1);
+
+    writer.write(null, new SendObject("payments", "{}", Collections.emptyMap()));
+    writer.write(null, new SendObject("payments", "{\"invalid\": true}", Collections.emptyMap()));
+    try {
+      writer.close(null);
+      Assert.fail("Failed record is not reported");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().startsWith("Failed to write 1 of 2 records"));
+    }
+  }
+
+  @Test
+  public void emptyResponseIsSuccess() throws Exception {
+    try (ZuoraApiSimulator simulator = new ZuoraApiSimulator()) {
+      for (int status : new int[] {200, 202}) {
+        simulator.setSinkResponse(status, "");
+        ZuoraRecordWriter writer = new ZuoraRecordWriter(
+          new ZuoraRestClient(simulator.getEndpoint(), "id", "secret", true), 1, 1);
+
+        writer.write(null, new SendObject("payments", "{\"amount\": 1}", Collections.emptyMap()));
+        writer.close(null);
+      }
+      Assert.assertEquals(2, simulator.getPostedBodies("v1/payments").size());
+    }
+  }
+}
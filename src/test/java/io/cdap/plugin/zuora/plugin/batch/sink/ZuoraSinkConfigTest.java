@@ -62,4 +62,36 @@ public class ZuoraSinkConfigTest extends BaseTest {
 
     Assert.assertEquals(builder.build(), config.getRequestArguments());
   }
+
+  @Test
+  public void getMaxConcurrentRequests() {
+    Assert.assertEquals(1, config.getMaxConcurrentRequests());
+  }
+
+  @Test
+  public void getBatchSize() {
+    Assert.assertEquals(1, config.getBatchSize());
+  }
+
+  @Test
+  public void getWriteMode() {
+    Assert.assertEquals(ZuoraSinkConfig.WriteMode.RECORDS, config.getWriteMode());
+    Assert.assertEquals(ZuoraSinkConfig.WriteMode.USAGE_IMPORT, ZuoraSinkConfig.WriteMode.fromString("usageImport"));
+    Assert.assertEquals(ZuoraSinkConfig.WriteMode.OBJECT_IMPORT,
+                        ZuoraSinkConfig.WriteMode.fromString("objectImport"));
+    Assert.assertFalse(config.getWriteMode().isImport());
+    Assert.assertTrue(ZuoraSinkConfig.WriteMode.OBJECT_IMPORT.isImport());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getUnknownWriteMode() {
+    ZuoraSinkConfig.WriteMode.fromString("bulk");
+  }
+
+  @Test
+  public void getImportSettings() {
+    Assert.assertEquals(ZuoraSinkConfig.DEFAULT_IMPORT_CHUNK_SIZE, config.getImportChunkSize());
+    Assert.assertEquals(ZuoraSinkConfig.DEFAULT_IMPORT_TIMEOUT_MINUTES, config.getImportTimeout());
+    Assert.assertNull(config.getImportExcludedColumn());
+  }
 }
@@ -0,0 +1,69 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.sink;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.restobjects.SendObject;
+import org.junit.Assert;
+import org.junit.Test;
+import javax.annotation.Nullable;
+
+/**
+ * Sink record to object transformation test
+ */
+public class ZuoraSinkTransformerTest {
+  private static final Gson GSON = new Gson();
+  private static final Schema SCHEMA = Schema.recordOf(
+    "payments",
+    Schema.Field.of("ImportType", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("AccountNumber", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("Amount", Schema.of(Schema.Type.DOUBLE)));
+  private static final ZuoraSinkConfig CONFIG = GSON.fromJson(
+    "{\"writeMode\": \"objectImport\", \"importTypeColumn\": \"ImportType\"}", ZuoraSinkConfig.class);
+
+  private static StructuredRecord record(@Nullable String importType) {
+    return StructuredRecord.builder(SCHEMA)
+      .set("ImportType", importType)
+      .set("AccountNumber", "A00000001")
+      .set("Amount", 10.5d)
+      .build();
+  }
+
+  @Test
+  public void importTypeFromColumn() {
+    SendObject object = ZuoraSinkTransformer.transform(CONFIG, record("Payment"));
+
+    Assert.assertEquals(ZuoraSinkTransformer.OBJECT_IMPORT_API_URL, object.getApiUrl());
+    Assert.assertEquals(ImmutableMap.of(ObjectFileImporter.IMPORT_TYPE_ARGUMENT, "Payment"), object.getArguments());
+    Assert.assertEquals("A00000001,10.5", object.getBody());
+  }
+
+  @Test
+  public void emptyImportType() {
+    for (String importType : new String[] {null, ""}) {
+      try {
+        ZuoraSinkTransformer.transform(CONFIG, record(importType));
+        Assert.fail("Empty import type is accepted");
+      } catch (IllegalArgumentException e) {
+        Assert.assertEquals("Record provided empty import type in column 'ImportType'", e.getMessage());
+      }
+    }
+  }
+}
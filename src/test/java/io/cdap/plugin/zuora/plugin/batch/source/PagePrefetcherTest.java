@@ -0,0 +1,125 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import io.cdap.plugin.zuora.client.ZuoraApiSimulator;
+import io.cdap.plugin.zuora.client.ZuoraRestClient;
+import io.cdap.plugin.zuora.objects.ProductType;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.ObjectInfo;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import io.cdap.plugin.zuora.restobjects.objects.BaseResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background page fetching test
+ */
+public class PagePrefetcherTest {
+  private static final ObjectInfo PRODUCTS = ObjectHelper.getObjectInfo(ProductType.class);
+
+  private ZuoraApiSimulator simulator;
+  private ZuoraRestClient client;
+
+  @Before
+  public void setUp() throws IOException {
+    simulator = new ZuoraApiSimulator().setRecords("Products", 10).setPageSize(1);
+    client = new ZuoraRestClient(simulator.getEndpoint(), "user", "password", true);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    client.close();
+    simulator.close();
+  }
+
+  private void awaitRequests(int expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (simulator.getRequestCount() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    // give the prefetcher a chance to exceed the expected number of requests
+    Thread.sleep(200);
+  }
+
+  @Test
+  public void depthBound() throws Exception {
+    try (PagePrefetcher prefetcher = new PagePrefetcher(client, PRODUCTS, Collections.emptyMap(), null, 2)) {
+      awaitRequests(2);
+      Assert.assertEquals(2, simulator.getRequestCount());
+
+      Assert.assertTrue(prefetcher.take().isSuccess());
+      awaitRequests(3);
+      Assert.assertEquals(3, simulator.getRequestCount());
+
+      int pages = 1;
+      while (prefetcher.take() != null) {
+        pages++;
+      }
+      Assert.assertEquals(10, pages);
+      Assert.assertNull(prefetcher.take());
+    }
+    Assert.assertEquals(10, simulator.getRequestCount());
+  }
+
+  @Test
+  public void failedPageEndsFetching() throws Exception {
+    simulator.failRequests(1, 500);
+
+    try (PagePrefetcher prefetcher = new PagePrefetcher(client, PRODUCTS, Collections.emptyMap(), null, 2)) {
+      BaseResult<BaseObject> page = prefetcher.take();
+      Assert.assertFalse(page.isSuccess());
+      Assert.assertEquals(Integer.valueOf(500), page.getHttpCode());
+      Assert.assertNull(prefetcher.take());
+    }
+    Assert.assertEquals(1, simulator.getRequestCount());
+  }
+
+  @Test
+  public void errorPropagated() throws Exception {
+    simulator.failRequests(1, 404);
+
+    try (PagePrefetcher prefetcher = new PagePrefetcher(client, PRODUCTS, Collections.emptyMap(), null, 2)) {
+      try {
+        prefetcher.take();
+        Assert.fail("Fetching error is not propagated");
+      } catch (IllegalArgumentException e) {
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("not found"));
+      }
+      // error ends the pages
+      Assert.assertNull(prefetcher.take());
+    }
+  }
+
+  @Test
+  public void closeAbortsRequest() throws Exception {
+    simulator.setLatency(1, TimeUnit.MINUTES);
+
+    PagePrefetcher prefetcher = new PagePrefetcher(client, PRODUCTS, Collections.emptyMap(), null, 2);
+    // let the request reach the simulator
+    Thread.sleep(200);
+    prefetcher.close();
+
+    Assert.assertTrue("Request is not aborted", prefetcher.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertNull(prefetcher.take());
+  }
+}
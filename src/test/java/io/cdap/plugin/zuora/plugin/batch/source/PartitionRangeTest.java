@@ -0,0 +1,108 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Date range partitioning test
+ */
+public class PartitionRangeTest {
+
+  @Test
+  public void split() {
+    List<PartitionRange> ranges = PartitionRange.split("updatedDate", PartitionRange.parseDateTime("2019-01-01"),
+                                                       PartitionRange.parseDateTime("2019-01-04"), 3);
+
+    Assert.assertEquals(3, ranges.size());
+    Assert.assertEquals("2019-01-01T00:00:00", ranges.get(0).getLowerBound());
+    Assert.assertEquals("2019-01-02T00:00:00", ranges.get(0).getUpperBound());
+    Assert.assertEquals("2019-01-02T00:00:00", ranges.get(1).getLowerBound());
+    Assert.assertEquals("2019-01-04T00:00:00", ranges.get(2).getUpperBound());
+  }
+
+  @Test
+  public void splitShortRange() {
+    LocalDateTime start = PartitionRange.parseDateTime("2019-01-01T10:00:00");
+
+    Assert.assertEquals(2, PartitionRange.split("updatedDate", start, start.plusSeconds(2), 10).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void splitEmptyRange() {
+    LocalDateTime start = PartitionRange.parseDateTime("2019-01-01");
+
+    PartitionRange.split("updatedDate", start, start, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void parseInvalidDate() {
+    PartitionRange.parseDateTime("01/01/2019");
+  }
+
+  @Test
+  public void requestArguments() {
+    PartitionRange range = new PartitionRange("updatedDate", "2019-01-01T00:00:00", "2019-01-02T00:00:00");
+    ZuoraSplitArgument argument = new ZuoraSplitArgument("Invoices", "{}", range);
+
+    Assert.assertEquals(
+      ImmutableMap.of("arg", "value",
+                      "updatedDate.GE", "2019-01-01T00:00:00",
+                      "updatedDate.LT", "2019-01-02T00:00:00"),
+      argument.getRequestArguments(ImmutableMap.of("arg", "value")));
+  }
+
+  @Test
+  public void contains() {
+    PartitionRange range = new PartitionRange("updatedDate", "2019-01-01T00:00:00", "2019-01-02T00:00:00");
+
+    Assert.assertTrue(range.contains("2019-01-01T00:00:00"));
+    Assert.assertTrue(range.contains("2019-01-01 23:59:59"));
+    Assert.assertTrue(range.contains("2019-01-01T12:00:00.000+01:00"));
+    Assert.assertFalse(range.contains("2019-01-02T00:00:00"));
+    Assert.assertFalse(range.contains("2018-12-31"));
+    Assert.assertFalse(range.contains(null));
+    Assert.assertFalse(range.contains(""));
+  }
+
+  @Test
+  public void splitSerialization() throws IOException {
+    PartitionRange range = new PartitionRange("updatedDate", "2019-01-01T00:00:00", "2019-01-02T00:00:00");
+    ZuoraSourceSplit split = new ZuoraSourceSplit(new ZuoraSplitArgument("Invoices", "{}", range));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    split.write(new DataOutputStream(bytes));
+
+    ZuoraSourceSplit restored = new ZuoraSourceSplit();
+    restored.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    PartitionRange restoredRange = restored.getArguments().getPartition();
+    Assert.assertEquals("Invoices", restored.getArguments().getObjectName());
+    Assert.assertEquals("updatedDate", restoredRange.getField());
+    Assert.assertEquals("2019-01-01T00:00:00", restoredRange.getLowerBound());
+    Assert.assertEquals("2019-01-02T00:00:00", restoredRange.getUpperBound());
+  }
+}
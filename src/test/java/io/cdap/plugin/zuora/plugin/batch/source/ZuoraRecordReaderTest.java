@@ -0,0 +1,114 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.gson.Gson;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.client.ZuoraApiSimulator;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partitioned object reading test
+ */
+public class ZuoraRecordReaderTest {
+  private static final Gson GSON = new Gson();
+
+  private ZuoraApiSimulator simulator;
+
+  @Before
+  public void setUp() throws IOException {
+    // records are updated every minute since 2019-01-01T00:00:00
+    simulator = new ZuoraApiSimulator().setRecords("Refunds", 10).setPageSize(3);
+  }
+
+  @After
+  public void tearDown() {
+    simulator.close();
+  }
+
+  private List<String> read(PartitionRange partition) throws IOException {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("referenceName", "zuora");
+    properties.put("authType", "basic");
+    properties.put("authUsername", "user");
+    properties.put("authPassword", "password");
+    properties.put("apiEndpoint", simulator.getEndpoint());
+    properties.put("baseObjectsToPull", "Refunds");
+    Configuration configuration = new Configuration();
+    configuration.set(ZuoraSourceConfig.PROPERTY_CONFIG_JSON, GSON.toJson(properties));
+
+    Schema schema = ObjectHelper.buildSchema("Refunds", null);
+    List<String> ids = new ArrayList<>();
+    try (ZuoraRecordReader reader = new ZuoraRecordReader(new ZuoraSplitArgument("Refunds", schema, partition))) {
+      reader.initialize(null, new TaskAttemptContextImpl(configuration, new TaskAttemptID()));
+      while (reader.nextKeyValue()) {
+        BaseObject record = reader.getCurrentValue();
+        ids.add((String) ZuoraSourceTransformer.transform(record, schema).get("id"));
+      }
+    }
+    return ids;
+  }
+
+  private List<String> readPartitions() throws IOException {
+    List<String> ids = new ArrayList<>();
+    for (PartitionRange partition : PartitionRange.split("updatedDate", LocalDateTime.of(2019, 1, 1, 0, 0),
+                                                         LocalDateTime.of(2019, 1, 1, 1, 0), 2)) {
+      ids.addAll(read(partition));
+    }
+    return ids;
+  }
+
+  @Test
+  public void partitionsFilteredByApi() throws IOException {
+    List<String> ids = readPartitions();
+    Assert.assertEquals(10, ids.size());
+    Assert.assertEquals(10, new HashSet<>(ids).size());
+  }
+
+  @Test
+  public void partitionsFilteredWhenApiIgnoresFilter() throws IOException {
+    simulator.setFiltering(false);
+
+    // every split receives all the records, but reads only the ones of its range
+    Assert.assertEquals(4, read(new PartitionRange("updatedDate", "2019-01-01T00:03:00", "2019-01-01T00:07:00"))
+      .size());
+    List<String> ids = readPartitions();
+    Assert.assertEquals(10, ids.size());
+    Assert.assertEquals(10, new HashSet<>(ids).size());
+  }
+
+  @Test
+  public void recordsWithoutPartitionNotFiltered() throws IOException {
+    simulator.setFiltering(false);
+    Assert.assertEquals(10, read(null).size());
+  }
+}
@@ -69,6 +69,11 @@ public class ZuoraSourceConfigTest extends BaseTest {
     Assert.assertEquals(8, config.getObjectsWithSchema().size());
   }
 
+  @Test
+  public void getPrefetchPages() {
+    Assert.assertEquals(0, config.getPrefetchPages());
+  }
+
   @Test
   public void getArguments() {
     Assert.assertNull(config.getArguments());
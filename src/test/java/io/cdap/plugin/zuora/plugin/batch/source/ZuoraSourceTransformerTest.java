@@ -0,0 +1,97 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.batch.source;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.objects.ChargeMetricsData;
+import io.cdap.plugin.zuora.objects.ProxyGetAccount;
+import io.cdap.plugin.zuora.restobjects.ObjectHelper;
+import io.cdap.plugin.zuora.restobjects.objects.QueryRecord;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled object to record conversion test
+ */
+public class ZuoraSourceTransformerTest {
+  private static final Gson GSON = new Gson();
+
+  @Test
+  public void transformObject() {
+    Schema schema = ObjectHelper.buildSchema("ProxyGetAccount", null);
+    ProxyGetAccount account = GSON.fromJson("{\"id\": \"A-1\", \"name\": \"Acme\", \"autoPay\": true, " +
+                                              "\"billCycleDay\": 5}", ProxyGetAccount.class);
+
+    StructuredRecord record = ZuoraSourceTransformer.transform(account, schema);
+
+    // fields are converted the same way as provided by the object map, absent fields get default values
+    account.asMap().forEach((name, value) -> Assert.assertEquals(name, value, record.get(name)));
+    Assert.assertEquals("A-1", record.get("id"));
+    Assert.assertEquals(Boolean.TRUE, record.get("autoPay"));
+    Assert.assertEquals(Integer.valueOf(5), record.get("billCycleDay"));
+    Assert.assertEquals("", record.get("crmId"));
+  }
+
+  @Test
+  public void transformSelectedFields() {
+    Schema schema = Schema.recordOf("ProxyGetAccount",
+                                    Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                                    Schema.Field.of("unknown", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    ProxyGetAccount account = GSON.fromJson("{\"id\": \"A-1\", \"name\": \"Acme\"}", ProxyGetAccount.class);
+
+    StructuredRecord record = ZuoraSourceTransformer.transform(account, schema);
+
+    Assert.assertEquals("Acme", record.get("name"));
+    Assert.assertNull(record.get("unknown"));
+  }
+
+  @Test
+  public void transformNestedObjects() {
+    Schema schema = ObjectHelper.buildSchema("ChargeMetricsData", null);
+    ChargeMetricsData data = GSON.fromJson("{\"chargeMetrics\": [{\"chargeNumber\": \"C-1\"}, " +
+                                             "{\"chargeNumber\": \"C-2\", \"mRR\": \"10\"}]}",
+                                           ChargeMetricsData.class);
+
+    List<StructuredRecord> metrics = ZuoraSourceTransformer.transform(data, schema).get("chargeMetrics");
+
+    Assert.assertEquals(2, metrics.size());
+    Assert.assertEquals("C-1", metrics.get(0).get("chargeNumber"));
+    Assert.assertEquals("", metrics.get(0).get("mRR"));
+    Assert.assertEquals("C-2", metrics.get(1).get("chargeNumber"));
+    Assert.assertEquals("10", metrics.get(1).get("mRR"));
+
+    ChargeMetricsData empty = GSON.fromJson("{}", ChargeMetricsData.class);
+    Assert.assertEquals(Collections.emptyList(), ZuoraSourceTransformer.transform(empty, schema).get("chargeMetrics"));
+  }
+
+  @Test
+  public void transformDynamicObject() {
+    Schema schema = Schema.recordOf("query",
+                                    Schema.Field.of("Id", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+                                    Schema.Field.of("Name", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+
+    StructuredRecord record = ZuoraSourceTransformer.transform(new QueryRecord(ImmutableMap.of("Id", "A-1")), schema);
+
+    Assert.assertEquals("A-1", record.get("Id"));
+    Assert.assertNull(record.get("Name"));
+  }
+}
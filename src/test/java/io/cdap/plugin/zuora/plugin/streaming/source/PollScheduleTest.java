@@ -0,0 +1,81 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.streaming.source;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Poll schedule test
+ */
+public class PollScheduleTest {
+
+  @Test
+  public void testParseSeconds() {
+    Assert.assertEquals(30, PollSchedule.parseSeconds("30 sec"));
+    Assert.assertEquals(5, PollSchedule.parseSeconds("5s"));
+    Assert.assertEquals(15 * 60, PollSchedule.parseSeconds("15 min"));
+    Assert.assertEquals(4 * 3600, PollSchedule.parseSeconds("4 hour"));
+    Assert.assertEquals(2 * 3600, PollSchedule.parseSeconds(" 2 Hours "));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseInvalid() {
+    PollSchedule.parseSeconds("often");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseZero() {
+    PollSchedule.parseSeconds("0 min");
+  }
+
+  @Test
+  public void testFixed() {
+    PollSchedule schedule = PollSchedule.fixed(60);
+    Assert.assertEquals(60, schedule.getInitialDelaySeconds());
+    Assert.assertEquals(60, schedule.getNextDelaySeconds(60, 100, false));
+    Assert.assertEquals(60, schedule.getNextDelaySeconds(60, 0, false));
+  }
+
+  @Test
+  public void testAdaptive() {
+    PollSchedule schedule = PollSchedule.adaptive(10, 60);
+    long delay = schedule.getInitialDelaySeconds();
+    Assert.assertEquals(10, delay);
+
+    // idle polls back off up to the maximum
+    delay = schedule.getNextDelaySeconds(delay, 0, false);
+    Assert.assertEquals(20, delay);
+    delay = schedule.getNextDelaySeconds(delay, 0, false);
+    delay = schedule.getNextDelaySeconds(delay, 0, false);
+    Assert.assertEquals(60, delay);
+
+    // changes speed polling up to the minimum
+    delay = schedule.getNextDelaySeconds(delay, 5, false);
+    Assert.assertEquals(30, delay);
+    delay = schedule.getNextDelaySeconds(delay, 5, false);
+    delay = schedule.getNextDelaySeconds(delay, 5, false);
+    Assert.assertEquals(10, delay);
+
+    // throttled poll backs off even if it received changes
+    Assert.assertEquals(20, schedule.getNextDelaySeconds(delay, 5, true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAdaptiveInvalidRange() {
+    PollSchedule.adaptive(60, 10);
+  }
+}
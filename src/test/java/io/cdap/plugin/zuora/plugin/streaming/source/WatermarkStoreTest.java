@@ -0,0 +1,84 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.streaming.source;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Watermark persistence in the local file system test
+ */
+public class WatermarkStoreTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static void assertWatermark(Watermark expected, Watermark actual) {
+    Assert.assertEquals(expected.getValue(), actual.getValue());
+    Assert.assertEquals(expected.getIds(), actual.getIds());
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    File directory = new File(temporaryFolder.newFolder(), "watermarks");
+    WatermarkStore store = new WatermarkStore(directory.getPath());
+    Assert.assertNull(store.load("Products").getValue());
+
+    Watermark first = new Watermark("2019-07-09T10:11:12", ImmutableSet.of("a", "b"));
+    store.save("Products", first);
+    assertWatermark(first, store.load("Products"));
+
+    Watermark second = new Watermark("2019-07-09T11:00:00", ImmutableSet.of("c"));
+    store.save("Products", second);
+    assertWatermark(second, new WatermarkStore(directory.getPath()).load("Products"));
+    // watermarks of other objects are not affected
+    Assert.assertNull(store.load("Accounts").getValue());
+
+    Assert.assertTrue(new File(directory, "Products.json").exists());
+    Assert.assertFalse(new File(directory, "Products.json.tmp").exists());
+  }
+
+  @Test
+  public void temporaryFileRecovered() throws IOException {
+    File directory = temporaryFolder.newFolder();
+    WatermarkStore store = new WatermarkStore(directory.getPath());
+    Watermark watermark = new Watermark("2019-07-09T10:11:12", ImmutableSet.of("a"));
+    store.save("Products", watermark);
+
+    // failed after the previous watermark was removed, but before the new one was renamed
+    Files.move(new File(directory, "Products.json").toPath(), new File(directory, "Products.json.tmp").toPath());
+    assertWatermark(watermark, store.load("Products"));
+
+    Watermark next = new Watermark("2019-07-09T11:00:00", ImmutableSet.of("b"));
+    store.save("Products", next);
+    assertWatermark(next, store.load("Products"));
+    Assert.assertFalse(new File(directory, "Products.json.tmp").exists());
+  }
+
+  @Test
+  public void notPersistedWithoutDirectory() throws IOException {
+    WatermarkStore store = new WatermarkStore(null);
+    store.save("Products", new Watermark("2019-07-09T10:11:12", ImmutableSet.of()));
+    Assert.assertNull(store.load("Products").getValue());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.plugin.streaming.source;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Assert;
+import org.junit.Test;
+import java.time.LocalDateTime;
+
+/**
+ * Watermark test
+ */
+public class WatermarkTest {
+
+  @Test
+  public void testParse() {
+    LocalDateTime expected = LocalDateTime.of(2019, 7, 9, 10, 11, 12);
+    Assert.assertEquals(expected, Watermark.parse("2019-07-09 10:11:12"));
+    Assert.assertEquals(expected, Watermark.parse("2019-07-09T10:11:12.345+02:00"));
+    Assert.assertEquals(expected, Watermark.parse("2019-07-09T10:11:12"));
+    Assert.assertEquals(LocalDateTime.of(2019, 7, 9, 0, 0), Watermark.parse("2019-07-09"));
+  }
+
+  @Test
+  public void testArguments() {
+    Assert.assertTrue(Watermark.empty().toArguments("updatedDate").isEmpty());
+    Assert.assertEquals(ImmutableMap.of("updatedDate.GE", "2019-07-09T10:11:12"),
+                        new Watermark("2019-07-09T10:11:12", ImmutableSet.of()).toArguments("updatedDate"));
+  }
+
+  @Test
+  public void testTracking() {
+    Watermark.Tracker tracker = Watermark.empty().track();
+    Assert.assertTrue(tracker.offer("2019-07-09 10:00:00", "a"));
+    Assert.assertTrue(tracker.offer("2019-07-09 12:00:00", "b"));
+    Assert.assertTrue(tracker.offer("2019-07-09 11:00:00", "c"));
+    Assert.assertTrue(tracker.offer("2019-07-09 12:00:00.500", "d"));
+    Assert.assertTrue(tracker.offer(null, "e"));
+
+    Watermark watermark = tracker.toWatermark();
+    Assert.assertEquals("2019-07-09T12:00:00", watermark.getValue());
+    Assert.assertEquals(ImmutableSet.of("b", "d"), watermark.getIds());
+
+    // records at the watermark are returned once more by the next poll
+    Watermark.Tracker next = watermark.track();
+    Assert.assertFalse(next.offer("2019-07-09 12:00:00", "b"));
+    Assert.assertTrue(next.offer("2019-07-09 12:00:00", "f"));
+    Assert.assertTrue(next.offer("2019-07-09 12:00:00", null));
+    Assert.assertEquals(ImmutableSet.of("b", "d", "f"), next.toWatermark().getIds());
+
+    Watermark.Tracker updated = watermark.track();
+    Assert.assertTrue(updated.offer("2019-07-09 13:00:00", "b"));
+    Assert.assertEquals(new Watermark("2019-07-09T13:00:00", ImmutableSet.of("b")).toString(),
+                        updated.toWatermark().toString());
+  }
+
+  @Test
+  public void testOlderRecordsDropped() {
+    Watermark watermark = new Watermark("2019-07-09T12:00:00", ImmutableSet.of("b"));
+    Watermark.Tracker tracker = watermark.track();
+
+    // returned when the API ignores the filter
+    Assert.assertFalse(tracker.offer("2019-07-09 11:59:59", "a"));
+    Assert.assertFalse(tracker.offer("2019-07-09 11:00:00", null));
+    Assert.assertTrue(tracker.offer("2019-07-09 12:00:00", "c"));
+    Assert.assertEquals(ImmutableSet.of("b", "c"), tracker.toWatermark().getIds());
+  }
+
+  @Test
+  public void testNothingTracked() {
+    Assert.assertNull(Watermark.empty().track().toWatermark().getValue());
+
+    Watermark watermark = new Watermark("2019-07-09T12:00:00", ImmutableSet.of("b"));
+    Watermark.Tracker tracker = watermark.track();
+    Assert.assertFalse(tracker.offer("2019-07-09T12:00:00", "b"));
+    Assert.assertEquals("2019-07-09T12:00:00", tracker.toWatermark().getValue());
+  }
+}
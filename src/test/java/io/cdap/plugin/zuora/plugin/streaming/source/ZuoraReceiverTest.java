@@ -0,0 +1,254 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.plugin.streaming.source;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.plugin.zuora.client.ZuoraApiSimulator;
+import io.cdap.plugin.zuora.plugin.common.BaseConfig;
+import org.apache.spark.storage.StorageLevel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Streaming receiver polling the local API simulator test
+ */
+public class ZuoraReceiverTest {
+  private static final Gson GSON = new Gson();
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private ZuoraApiSimulator simulator;
+  private TestReceiver receiver;
+
+  /**
+   * Receiver, which keeps the stored blocks instead of passing them to Spark, and restarts like the Spark supervisor
+   */
+  private static class TestReceiver extends ZuoraReceiver {
+    private final List<List<StructuredRecord>> blocks = Collections.synchronizedList(new ArrayList<>());
+    private volatile Consumer<List<StructuredRecord>> storeListener = block -> { };
+    private volatile boolean stopped = false;
+    private volatile int restarts = 0;
+
+    TestReceiver(ZuoraStreamingSourceConfig config, @Nullable String watermarkDirectory) throws IOException {
+      super(config, StorageLevel.MEMORY_AND_DISK_2(), watermarkDirectory);
+    }
+
+    @Override
+    public void store(Iterator<StructuredRecord> records) {
+      List<StructuredRecord> block = new ArrayList<>();
+      records.forEachRemaining(block::add);
+      storeListener.accept(block);
+      blocks.add(block);
+    }
+
+    @Override
+    public boolean isStopped() {
+      return stopped;
+    }
+
+    @Override
+    public void restart(String message, Throwable error) {
+      restarts++;
+      new Thread(() -> {
+        onStop();
+        onStart();
+      }).start();
+    }
+
+    List<String> getStoredIds(String objectName) {
+      synchronized (blocks) {
+        return blocks.stream()
+          .flatMap(List::stream)
+          .filter(x -> {
+            // name of the object is added only if several objects are received
+            String name = x.get(BaseConfig.OBJECT_NAME_FIELD);
+            return name == null || name.equals(objectName);
+          })
+          .map(x -> (String) x.get("id"))
+          .collect(Collectors.toList());
+      }
+    }
+
+    List<Integer> getBlockSizes() {
+      synchronized (blocks) {
+        return blocks.stream().map(List::size).collect(Collectors.toList());
+      }
+    }
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    simulator = new ZuoraApiSimulator();
+  }
+
+  @After
+  public void tearDown() {
+    if (receiver != null) {
+      receiver.stopped = true;
+    }
+    simulator.close();
+    if (receiver != null) {
+      receiver.onStop();
+    }
+  }
+
+  private void createReceiver(Map<String, String> properties, @Nullable String watermarkDirectory)
+    throws IOException {
+    Map<String, String> config = new HashMap<>(properties);
+    config.put("referenceName", "zuora");
+    config.put("authType", "basic");
+    config.put("authUsername", "user");
+    config.put("authPassword", "password");
+    config.put("apiEndpoint", simulator.getEndpoint());
+    config.put("pullFrequency", "1 sec");
+    receiver = new TestReceiver(GSON.fromJson(GSON.toJson(config), ZuoraStreamingSourceConfig.class),
+                                watermarkDirectory);
+  }
+
+  private static void await(String message, BooleanSupplier condition, long timeoutSeconds)
+    throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        Assert.fail(message);
+      }
+      Thread.sleep(20);
+    }
+  }
+
+  @Test
+  public void storedOncePerPage() throws Exception {
+    simulator.setRecords("Products", 10).setPageSize(3);
+    createReceiver(ImmutableMap.of("baseObjectsToPull", "Products"), null);
+
+    receiver.onStart();
+    await("Records are not received", () -> receiver.getStoredIds("Products").size() >= 10, 10);
+    Assert.assertEquals(Arrays.asList(3, 3, 3, 1), receiver.getBlockSizes());
+
+    // new records of the last page are received by the next poll
+    simulator.setRecords("Products", 12);
+    await("New records are not received", () -> receiver.getStoredIds("Products").size() >= 12, 10);
+    Assert.assertEquals(Arrays.asList(3, 3, 3, 1, 2), receiver.getBlockSizes());
+    Assert.assertEquals(12, new HashSet<>(receiver.getStoredIds("Products")).size());
+  }
+
+  @Test
+  public void restartContinuesAfterStoredPages() throws Exception {
+    simulator.setRecords("Products", 10).setPageSize(2);
+    createReceiver(ImmutableMap.of("baseObjectsToPull", "Products"), null);
+    receiver.storeListener = block -> {
+      if (receiver.getBlockSizes().size() == 1) {
+        // request of the third page fails, so the receiver is restarted
+        simulator.failRequests(1, 500);
+      }
+    };
+
+    receiver.onStart();
+    await("Records are not received", () -> receiver.getStoredIds("Products").size() >= 10, 10);
+    // let the next poll receive records once more, if the position was lost
+    Thread.sleep(1500);
+
+    Assert.assertEquals(1, receiver.restarts);
+    Assert.assertEquals(Arrays.asList(2, 2, 2, 2, 2), receiver.getBlockSizes());
+    Assert.assertEquals(10, new HashSet<>(receiver.getStoredIds("Products")).size());
+  }
+
+  @Test
+  public void watermarkAdvancedAfterStore() throws Exception {
+    String directory = temporaryFolder.newFolder().getPath();
+    WatermarkStore watermarkStore = new WatermarkStore(directory);
+    simulator.setRecords("Refunds", 5).setPageSize(2);
+    createReceiver(ImmutableMap.of("baseObjectsToPull", "Refunds", "watermarkField", "updatedDate"), directory);
+    List<String> storedWatermarks = Collections.synchronizedList(new ArrayList<>());
+    receiver.storeListener = block -> {
+      try {
+        storedWatermarks.add(watermarkStore.load("Refunds").getValue());
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      if (storedWatermarks.size() == 1) {
+        throw new IllegalStateException("Block is not stored");
+      }
+    };
+
+    receiver.onStart();
+    await("Records are not received", () -> receiver.getStoredIds("Refunds").size() >= 5, 10);
+    await("Watermark is not advanced", () -> {
+      try {
+        return watermarkStore.load("Refunds").getValue() != null;
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }, 10);
+
+    // failed store restarts the receiver, watermark is not advanced till all pages of the poll are stored
+    Assert.assertEquals(1, receiver.restarts);
+    Assert.assertEquals(Arrays.asList(null, null, null, null), storedWatermarks);
+    Assert.assertEquals(Arrays.asList(2, 2, 1), receiver.getBlockSizes());
+    Assert.assertEquals("2019-01-01T00:04:00", watermarkStore.load("Refunds").getValue());
+  }
+
+  @Test
+  public void receivedOnceWhenApiIgnoresWatermark() throws Exception {
+    simulator.setRecords("Refunds", 5).setPageSize(2).setFiltering(false);
+    createReceiver(ImmutableMap.of("baseObjectsToPull", "Refunds", "watermarkField", "updatedDate"), null);
+
+    receiver.onStart();
+    await("Records are not received", () -> receiver.getStoredIds("Refunds").size() >= 5, 10);
+    // let the next polls receive all the records once more
+    Thread.sleep(1500);
+    Assert.assertEquals(5, receiver.getStoredIds("Refunds").size());
+
+    simulator.setRecords("Refunds", 7);
+    await("New records are not received", () -> receiver.getStoredIds("Refunds").size() >= 7, 10);
+    Thread.sleep(1500);
+    Assert.assertEquals(7, receiver.getStoredIds("Refunds").size());
+    Assert.assertEquals(7, new HashSet<>(receiver.getStoredIds("Refunds")).size());
+  }
+
+  @Test
+  public void slowObjectDoesNotDelayOthers() throws Exception {
+    simulator.setRecords("Products", 4).setRecords("Refunds", 4).setPageSize(2)
+      .setLatency("Refunds", 1, TimeUnit.MINUTES);
+    createReceiver(ImmutableMap.of("baseObjectsToPull", "Refunds,Products"), null);
+
+    receiver.onStart();
+    await("Records are delayed by the slow object", () -> receiver.getStoredIds("Products").size() >= 4, 10);
+    Assert.assertTrue(receiver.getStoredIds("Refunds").isEmpty());
+  }
+}
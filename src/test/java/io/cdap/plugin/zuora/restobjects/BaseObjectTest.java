@@ -0,0 +1,77 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.restobjects;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import io.cdap.plugin.zuora.objects.ChargeMetricsData;
+import io.cdap.plugin.zuora.objects.ProxyGetAccount;
+import io.cdap.plugin.zuora.restobjects.objects.BaseObject;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Object fields materialization test
+ */
+public class BaseObjectTest {
+  private static final Gson GSON = new Gson();
+
+  @Test
+  public void customFieldsBeforeObjectFields() {
+    ProxyGetAccount account = GSON.fromJson("{\"id\": \"A-1\"}", ProxyGetAccount.class);
+    account.addCustomField("objectName", "Accounts");
+
+    // custom field is available without constructing object fields, so more fields could be added
+    Assert.assertEquals("Accounts", account.getCustomField("objectName"));
+    Assert.assertNull(account.getCustomField("id"));
+    account.addCustomField("source", "zuora");
+
+    Map<String, Object> fields = account.asMap();
+    Assert.assertEquals(ImmutableList.of("objectName", "source", "accountNumber"),
+                        ImmutableList.copyOf(fields.keySet()).subList(0, 3));
+    Assert.assertEquals("A-1", fields.get("id"));
+    Assert.assertEquals("", fields.get("name"));
+    Assert.assertEquals("A-1", account.getCustomField("id"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void customFieldAfterObjectFields() {
+    BaseObject account = GSON.fromJson("{}", ProxyGetAccount.class);
+    account.asMap();
+
+    account.addCustomField("objectName", "Accounts");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void nestedObjects() {
+    ChargeMetricsData data = GSON.fromJson("{\"chargeMetrics\": [{\"chargeNumber\": \"C-1\"}, " +
+                                             "{\"chargeNumber\": \"C-2\"}]}", ChargeMetricsData.class);
+
+    List<Map<String, Object>> metrics = (List<Map<String, Object>>) data.asMap().get("chargeMetrics");
+
+    Assert.assertEquals(2, metrics.size());
+    Assert.assertEquals("C-1", metrics.get(0).get("chargeNumber"));
+    Assert.assertEquals("C-2", metrics.get(1).get("chargeNumber"));
+
+    ChargeMetricsData empty = GSON.fromJson("{}", ChargeMetricsData.class);
+    Assert.assertEquals(Collections.emptyList(), empty.asMap().get("chargeMetrics"));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+
+package io.cdap.plugin.zuora.restobjects;
+
+import com.google.common.collect.ImmutableList;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.plugin.zuora.objects.ProductFeatureType;
+import io.cdap.plugin.zuora.objects.ProductType;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generated schemas test
+ */
+public class ObjectHelperTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void schemaGeneratedOnce() {
+    ObjectSchema schema = ObjectHelper.getObjectSchema("Products", ImmutableList.of("id", "name"));
+
+    Assert.assertSame(schema, ObjectHelper.getObjectSchema("Products", ImmutableList.of("name", "id")));
+    Assert.assertSame(schema.getSchema(), ObjectHelper.buildSchema("Products", ImmutableList.of("id", "name")));
+    Assert.assertEquals(2, schema.getSchema().getFields().size());
+    Assert.assertEquals(schema.getSchema().toString(), schema.getJson());
+    Assert.assertEquals(ObjectSchema.fingerprint(schema.getJson()), schema.getFingerprint());
+
+    Assert.assertNotSame(schema, ObjectHelper.getObjectSchema("Products", null));
+  }
+
+  @Test
+  public void precomputedSchema() throws IOException {
+    Path directory = temporaryFolder.newFolder().toPath();
+    ObjectRegistry.write(directory, ObjectRegistry.scan(ImmutableList.<Class>of(ProductType.class,
+                                                                                ProductFeatureType.class)));
+
+    String json = new String(Files.readAllBytes(directory.resolve(ProductType.class.getName() + ".schema.json")),
+                             StandardCharsets.UTF_8);
+    ObjectSchema schema = new ObjectSchema(json);
+
+    Assert.assertEquals(ObjectHelper.buildSchema("Products", null), schema.getSchema());
+    Assert.assertEquals(ObjectHelper.getObjectSchema("Products", null).getFingerprint(), schema.getFingerprint());
+    Assert.assertNotNull(schema.getSchema().getField("productFeatures"));
+    // nested objects are not selectable, so their schemas are not precomputed
+    Assert.assertFalse(Files.exists(directory.resolve(ProductFeatureType.class.getName() + ".schema.json")));
+  }
+
+  @Test
+  public void unknownObject() {
+    Schema schema = ObjectHelper.buildSchema("Unknown", null);
+
+    Assert.assertEquals("Unknown", schema.getRecordName());
+    Assert.assertSame(schema, ObjectHelper.buildSchema("Unknown", null));
+  }
+}
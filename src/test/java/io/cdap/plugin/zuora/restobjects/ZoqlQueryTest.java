@@ -0,0 +1,76 @@
+/*
+ *  Copyright © 2019 Cask Data, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ *  use this file except in compliance with the License. You may obtain a copy of
+ *  the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ *  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ *  License for the specific language governing permissions and limitations under
+ *  the License.
+ */
+package io.cdap.plugin.zuora.restobjects;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.cdap.cdap.api.data.schema.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * ZOQL query test
+ */
+public class ZoqlQueryTest {
+
+  @Test
+  public void parse() {
+    ZoqlQuery query = ZoqlQuery.parse(" SELECT Id,  Name ,Balance\nFROM Account WHERE Status = 'Active' ");
+
+    Assert.assertEquals("Account", query.getObjectName());
+    Assert.assertEquals(Arrays.asList("Id", "Name", "Balance"), query.getFields());
+    Assert.assertEquals("SELECT Id,  Name ,Balance\nFROM Account WHERE Status = 'Active'", query.getQuery());
+  }
+
+  @Test
+  public void schema() {
+    Schema schema = ZoqlQuery.parse("select Id, Name from Account").getSchema();
+
+    Assert.assertEquals(2, schema.getFields().size());
+    Assert.assertEquals(Schema.nullableOf(Schema.of(Schema.Type.STRING)), schema.getField("Name").getSchema());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noFields() {
+    ZoqlQuery.parse("select from Account");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unsupportedField() {
+    ZoqlQuery.parse("select count(Id) from Account");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void duplicateField() {
+    ZoqlQuery.parse("select Id, id from Account");
+  }
+
+  @Test
+  public void toRecord() {
+    ZoqlQuery query = ZoqlQuery.parse("select id, Name, Balance, Status from Account");
+    JsonObject json = new JsonParser()
+      .parse("{\"Id\": \"1\", \"Name\": null, \"Balance\": 10.5, \"CreatedDate\": \"2019-01-01\"}")
+      .getAsJsonObject();
+
+    Map<String, Object> record = query.toRecord(json).asMap();
+    Assert.assertEquals("1", record.get("id"));
+    Assert.assertEquals("10.5", record.get("Balance"));
+    Assert.assertFalse(record.containsKey("Name"));
+    Assert.assertFalse(record.containsKey("CreatedDate"));
+  }
+}